@@ -0,0 +1,5 @@
+CREATE TABLE cliente (
+    cif VARCHAR(9) PRIMARY KEY,
+    porcentaje_desc FLOAT,
+    FOREIGN KEY (cif) REFERENCES empresa (cif) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
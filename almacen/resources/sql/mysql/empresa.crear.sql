@@ -0,0 +1,7 @@
+CREATE TABLE empresa (
+    cif VARCHAR(9) PRIMARY KEY,
+    nombre VARCHAR(50),
+    direccion  VARCHAR(100),
+    telefono VARCHAR(11),
+    correo VARCHAR(50)
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,7 @@
+CREATE TABLE estanteria (
+    id_estanteria INT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+    id_zona CHAR(1),
+    num_alturas INT DEFAULT 5,
+    num_huecos_ocupados INT DEFAULT 0,
+    FOREIGN KEY (id_zona) REFERENCES zona (id_zona) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,7 @@
+CREATE TABLE lista_productos (
+    id_lista_productos INT UNSIGNED,
+    id_producto INT UNSIGNED,
+    cantidad INT,
+    PRIMARY KEY (id_lista_productos, id_producto),
+    FOREIGN KEY (id_producto) REFERENCES producto (id_producto) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,2 @@
+CREATE INDEX idx_operacion_cif_fecha ON operacion (cif, fecha);
+CREATE INDEX idx_operacion_fecha ON operacion (fecha);
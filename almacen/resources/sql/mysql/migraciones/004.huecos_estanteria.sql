@@ -0,0 +1,40 @@
+-- Huecos ocupados de cada estanteria. Se recalculan una vez y despues los
+-- triggers suman o restan un hueco por cada fila de producto_estanteria,
+-- sin volver a contar la estanteria.
+DROP TRIGGER IF EXISTS after_producto_estanteria_insert;
+
+UPDATE estanteria SET num_huecos_ocupados =
+    (SELECT COUNT(*) FROM producto_estanteria pe WHERE pe.id_estanteria = estanteria.id_estanteria);
+
+CREATE TRIGGER huecos_producto_estanteria_insert AFTER INSERT ON producto_estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados + 1
+    WHERE id_estanteria = NEW.id_estanteria;
+END;
+
+CREATE TRIGGER huecos_producto_estanteria_delete AFTER DELETE ON producto_estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados - 1
+    WHERE id_estanteria = OLD.id_estanteria;
+END;
+
+CREATE TRIGGER huecos_producto_estanteria_update AFTER UPDATE ON producto_estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados - 1
+    WHERE id_estanteria = OLD.id_estanteria AND NOT (OLD.id_estanteria <=> NEW.id_estanteria);
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados + 1
+    WHERE id_estanteria = NEW.id_estanteria AND NOT (OLD.id_estanteria <=> NEW.id_estanteria);
+END;
+
+-- Una estanteria nueva empieza con las filas que ya la referencian. MySQL no
+-- permite actualizar la propia tabla desde su trigger, por lo que se asigna
+-- antes de insertar
+CREATE TRIGGER huecos_estanteria_insert BEFORE INSERT ON estanteria
+FOR EACH ROW
+BEGIN
+    SET NEW.num_huecos_ocupados =
+        (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = NEW.id_estanteria);
+END;
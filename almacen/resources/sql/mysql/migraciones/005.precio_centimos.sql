@@ -0,0 +1,193 @@
+-- Precios en centimos. precio_centimos es la columna de referencia y
+-- precio_unitario se mantiene para quien aun la lea. Los triggers rellenan los
+-- centimos cuando alguien escribe solo el precio en euros.
+ALTER TABLE producto ADD COLUMN precio_centimos BIGINT NULL;
+
+UPDATE producto SET precio_centimos = ROUND(precio_unitario * 100) WHERE precio_unitario IS NOT NULL;
+
+CREATE TRIGGER producto_precio_centimos_insert BEFORE INSERT ON producto
+FOR EACH ROW
+BEGIN
+    SET NEW.precio_centimos = COALESCE(NEW.precio_centimos, ROUND(NEW.precio_unitario * 100));
+END;
+
+CREATE TRIGGER producto_precio_centimos_update BEFORE UPDATE ON producto
+FOR EACH ROW
+BEGIN
+    SET NEW.precio_centimos = CASE
+        WHEN NOT (OLD.precio_unitario <=> NEW.precio_unitario) AND OLD.precio_centimos <=> NEW.precio_centimos
+        THEN ROUND(NEW.precio_unitario * 100) ELSE NEW.precio_centimos END;
+END;
+
+-- El resumen del inventario pasa a acumular el valor en centimos, con sumas
+-- enteras exactas. Se vuelve a crear con sus triggers.
+DROP TRIGGER IF EXISTS resumen_producto_estanteria_insert;
+DROP TRIGGER IF EXISTS resumen_producto_estanteria_delete;
+DROP TRIGGER IF EXISTS resumen_producto_estanteria_update;
+DROP TRIGGER IF EXISTS resumen_producto_insert;
+DROP TRIGGER IF EXISTS resumen_producto_delete;
+DROP TRIGGER IF EXISTS resumen_producto_update;
+DROP TRIGGER IF EXISTS resumen_estanteria_insert;
+DROP TRIGGER IF EXISTS resumen_estanteria_delete;
+DROP TRIGGER IF EXISTS resumen_estanteria_update;
+DROP TABLE IF EXISTS resumen_inventario;
+
+CREATE TABLE resumen_inventario (
+    id_zona CHAR(1) PRIMARY KEY,
+    valor_centimos BIGINT NOT NULL DEFAULT 0,
+    huecos_ocupados INT NOT NULL DEFAULT 0,
+    huecos_totales INT NOT NULL DEFAULT 0
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO resumen_inventario (id_zona) VALUES ('*');
+INSERT IGNORE INTO resumen_inventario (id_zona) SELECT id_zona FROM zona;
+INSERT IGNORE INTO resumen_inventario (id_zona) SELECT DISTINCT id_zona FROM estanteria WHERE id_zona IS NOT NULL;
+
+UPDATE resumen_inventario SET
+    huecos_totales = (SELECT COALESCE(SUM(e.num_alturas), 0) FROM estanteria e
+        WHERE resumen_inventario.id_zona IN (e.id_zona, '*')),
+    huecos_ocupados = (SELECT COUNT(*) FROM producto_estanteria pe
+        LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+        WHERE resumen_inventario.id_zona IN (e.id_zona, '*')),
+    valor_centimos = (SELECT COALESCE(SUM(pe.cantidad * p.precio_centimos), 0) FROM producto_estanteria pe
+        JOIN producto p ON p.id_producto = pe.id_producto
+        LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+        WHERE resumen_inventario.id_zona IN (e.id_zona, '*'));
+
+CREATE TRIGGER resumen_producto_estanteria_insert AFTER INSERT ON producto_estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados + 1,
+        valor_centimos = valor_centimos + COALESCE(NEW.cantidad *
+            (SELECT precio_centimos FROM producto WHERE id_producto = NEW.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = NEW.id_estanteria), '*');
+END;
+
+CREATE TRIGGER resumen_producto_estanteria_delete AFTER DELETE ON producto_estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados - 1,
+        valor_centimos = valor_centimos - COALESCE(OLD.cantidad *
+            (SELECT precio_centimos FROM producto WHERE id_producto = OLD.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = OLD.id_estanteria), '*');
+END;
+
+CREATE TRIGGER resumen_producto_estanteria_update
+AFTER UPDATE ON producto_estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados - 1,
+        valor_centimos = valor_centimos - COALESCE(OLD.cantidad *
+            (SELECT precio_centimos FROM producto WHERE id_producto = OLD.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = OLD.id_estanteria), '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados + 1,
+        valor_centimos = valor_centimos + COALESCE(NEW.cantidad *
+            (SELECT precio_centimos FROM producto WHERE id_producto = NEW.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = NEW.id_estanteria), '*');
+END;
+
+CREATE TRIGGER resumen_producto_insert AFTER INSERT ON producto
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET
+        valor_centimos = valor_centimos + COALESCE(NEW.precio_centimos, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = NEW.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'));
+END;
+
+CREATE TRIGGER resumen_producto_delete AFTER DELETE ON producto
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET
+        valor_centimos = valor_centimos - COALESCE(OLD.precio_centimos, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = OLD.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'));
+END;
+
+CREATE TRIGGER resumen_producto_update
+AFTER UPDATE ON producto
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET
+        valor_centimos = valor_centimos - COALESCE(OLD.precio_centimos, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = OLD.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'))
+    WHERE NOT (OLD.id_producto <=> NEW.id_producto AND OLD.precio_centimos <=> NEW.precio_centimos);
+    UPDATE resumen_inventario SET
+        valor_centimos = valor_centimos + COALESCE(NEW.precio_centimos, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = NEW.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'))
+    WHERE NOT (OLD.id_producto <=> NEW.id_producto AND OLD.precio_centimos <=> NEW.precio_centimos);
+END;
+
+CREATE TRIGGER resumen_estanteria_insert AFTER INSERT ON estanteria
+FOR EACH ROW
+BEGIN
+    INSERT IGNORE INTO resumen_inventario (id_zona) SELECT NEW.id_zona FROM DUAL WHERE NEW.id_zona IS NOT NULL;
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales + COALESCE(NEW.num_alturas, 0)
+    WHERE id_zona IN (NEW.id_zona, '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados +
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = NEW.id_estanteria),
+        valor_centimos = valor_centimos +
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_centimos), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = NEW.id_estanteria)
+    WHERE id_zona = NEW.id_zona;
+END;
+
+CREATE TRIGGER resumen_estanteria_delete AFTER DELETE ON estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales - COALESCE(OLD.num_alturas, 0)
+    WHERE id_zona IN (OLD.id_zona, '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados -
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = OLD.id_estanteria),
+        valor_centimos = valor_centimos -
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_centimos), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = OLD.id_estanteria)
+    WHERE id_zona = OLD.id_zona;
+END;
+
+CREATE TRIGGER resumen_estanteria_update
+AFTER UPDATE ON estanteria
+FOR EACH ROW
+BEGIN
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales - COALESCE(OLD.num_alturas, 0)
+    WHERE id_zona IN (OLD.id_zona, '*')
+        AND NOT (OLD.id_estanteria <=> NEW.id_estanteria AND OLD.id_zona <=> NEW.id_zona
+        AND OLD.num_alturas <=> NEW.num_alturas);
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados -
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = OLD.id_estanteria),
+        valor_centimos = valor_centimos -
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_centimos), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = OLD.id_estanteria)
+    WHERE id_zona = OLD.id_zona
+        AND NOT (OLD.id_estanteria <=> NEW.id_estanteria AND OLD.id_zona <=> NEW.id_zona
+        AND OLD.num_alturas <=> NEW.num_alturas);
+    INSERT IGNORE INTO resumen_inventario (id_zona) SELECT NEW.id_zona FROM DUAL WHERE NEW.id_zona IS NOT NULL
+        AND NOT (OLD.id_estanteria <=> NEW.id_estanteria AND OLD.id_zona <=> NEW.id_zona
+        AND OLD.num_alturas <=> NEW.num_alturas);
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales + COALESCE(NEW.num_alturas, 0)
+    WHERE id_zona IN (NEW.id_zona, '*')
+        AND NOT (OLD.id_estanteria <=> NEW.id_estanteria AND OLD.id_zona <=> NEW.id_zona
+        AND OLD.num_alturas <=> NEW.num_alturas);
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados +
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = NEW.id_estanteria),
+        valor_centimos = valor_centimos +
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_centimos), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = NEW.id_estanteria)
+    WHERE id_zona = NEW.id_zona
+        AND NOT (OLD.id_estanteria <=> NEW.id_estanteria AND OLD.id_zona <=> NEW.id_zona
+        AND OLD.num_alturas <=> NEW.num_alturas);
+END;
@@ -0,0 +1,26 @@
+-- Fecha de las operaciones como dias desde 1970-01-01. Las consultas por
+-- rango de fechas comparan enteros y recorren el indice en lugar de leer
+-- todas las filas. Los triggers calculan fecha_dia cuando alguien escribe
+-- solo fecha.
+ALTER TABLE operacion ADD COLUMN fecha_dia INT NULL;
+
+UPDATE operacion SET fecha_dia = DATEDIFF(fecha, '1970-01-01') WHERE fecha IS NOT NULL;
+
+CREATE TRIGGER operacion_fecha_dia_insert BEFORE INSERT ON operacion
+FOR EACH ROW
+BEGIN
+    SET NEW.fecha_dia = COALESCE(NEW.fecha_dia, DATEDIFF(NEW.fecha, '1970-01-01'));
+END;
+
+CREATE TRIGGER operacion_fecha_dia_update BEFORE UPDATE ON operacion
+FOR EACH ROW
+BEGIN
+    SET NEW.fecha_dia = CASE
+        WHEN NOT (OLD.fecha <=> NEW.fecha) AND OLD.fecha_dia <=> NEW.fecha_dia
+        THEN DATEDIFF(NEW.fecha, '1970-01-01') ELSE NEW.fecha_dia END;
+END;
+
+DROP INDEX idx_operacion_cif_fecha ON operacion;
+DROP INDEX idx_operacion_fecha ON operacion;
+CREATE INDEX idx_operacion_cif_fecha_dia ON operacion (cif, fecha_dia);
+CREATE INDEX idx_operacion_fecha_dia ON operacion (fecha_dia);
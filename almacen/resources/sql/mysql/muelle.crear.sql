@@ -0,0 +1,6 @@
+CREATE TABLE muelle (
+    id_muelle INT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+    id_zona CHAR(1),
+    disponible BOOLEAN DEFAULT false,
+    FOREIGN KEY (id_zona) REFERENCES zona (id_zona) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
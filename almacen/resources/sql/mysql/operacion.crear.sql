@@ -0,0 +1,9 @@
+CREATE TABLE operacion (
+    id_lista_productos INT UNSIGNED PRIMARY KEY,
+    id_muelle INT UNSIGNED,
+    fecha DATE,
+    tipo_operacion VARCHAR(10),
+    cif VARCHAR(9),
+    FOREIGN KEY (id_muelle) REFERENCES muelle (id_muelle) ON DELETE CASCADE,
+    FOREIGN KEY (cif) REFERENCES empresa (cif) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,6 @@
+CREATE TABLE producto (
+    id_producto INT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(75),
+    precio_unitario DECIMAL(10, 2),
+    tipo VARCHAR(15)
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,8 @@
+CREATE TABLE producto_estanteria (
+    id_producto INT UNSIGNED,
+    id_estanteria INT UNSIGNED,
+    cantidad INT,
+    PRIMARY KEY (id_producto, id_estanteria),
+    FOREIGN KEY (id_producto) REFERENCES producto (id_producto) ON DELETE CASCADE,
+    FOREIGN KEY (id_estanteria) REFERENCES estanteria (id_estanteria) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,5 @@
+CREATE TABLE proveedor (
+    cif VARCHAR(9) PRIMARY KEY,
+    tipo_producto VARCHAR(15),
+    FOREIGN KEY (cif) REFERENCES empresa (cif) ON DELETE CASCADE
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,4 @@
+CREATE TABLE usuarios (
+    nombre VARCHAR(50) PRIMARY KEY,
+    password VARCHAR(100)
+) ENGINE = InnoDB
\ No newline at end of file
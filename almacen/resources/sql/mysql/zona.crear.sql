@@ -0,0 +1,4 @@
+CREATE TABLE zona (
+    id_zona CHAR(1) PRIMARY KEY,
+    tipo VARCHAR(20)
+) ENGINE = InnoDB
\ No newline at end of file
@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS idx_producto_estanteria_estanteria ON producto_estanteria (id_estanteria);
+CREATE INDEX IF NOT EXISTS idx_lista_productos_producto ON lista_productos (id_producto);
+CREATE INDEX IF NOT EXISTS idx_operacion_cif_fecha ON operacion (cif, fecha);
+CREATE INDEX IF NOT EXISTS idx_operacion_muelle ON operacion (id_muelle);
+CREATE INDEX IF NOT EXISTS idx_operacion_fecha ON operacion (fecha);
+CREATE INDEX IF NOT EXISTS idx_estanteria_zona ON estanteria (id_zona);
+CREATE INDEX IF NOT EXISTS idx_muelle_zona ON muelle (id_zona);
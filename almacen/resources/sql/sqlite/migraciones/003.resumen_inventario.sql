@@ -0,0 +1,151 @@
+-- Resumen del inventario por zona. La fila '*' es el total del almacen. Los
+-- triggers aplican a cada cambio solo su diferencia, de modo que leer el
+-- valor o la ocupacion es una busqueda por clave.
+CREATE TABLE IF NOT EXISTS resumen_inventario (
+    id_zona TEXT PRIMARY KEY,
+    valor_total REAL NOT NULL DEFAULT 0,
+    huecos_ocupados INTEGER NOT NULL DEFAULT 0,
+    huecos_totales INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT OR IGNORE INTO resumen_inventario (id_zona) VALUES ('*');
+INSERT OR IGNORE INTO resumen_inventario (id_zona) SELECT id_zona FROM zona;
+INSERT OR IGNORE INTO resumen_inventario (id_zona) SELECT DISTINCT id_zona FROM estanteria WHERE id_zona IS NOT NULL;
+
+UPDATE resumen_inventario SET
+    huecos_totales = (SELECT COALESCE(SUM(e.num_alturas), 0) FROM estanteria e
+        WHERE resumen_inventario.id_zona IN (e.id_zona, '*')),
+    huecos_ocupados = (SELECT COUNT(*) FROM producto_estanteria pe
+        LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+        WHERE resumen_inventario.id_zona IN (e.id_zona, '*')),
+    valor_total = (SELECT COALESCE(SUM(pe.cantidad * p.precio_unitario), 0) FROM producto_estanteria pe
+        JOIN producto p ON p.id_producto = pe.id_producto
+        LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+        WHERE resumen_inventario.id_zona IN (e.id_zona, '*'));
+
+-- Huecos de producto_estanteria: cada fila ocupa un hueco de la zona de su estanteria
+CREATE TRIGGER IF NOT EXISTS resumen_producto_estanteria_insert AFTER INSERT ON producto_estanteria
+BEGIN
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados + 1,
+        valor_total = valor_total + COALESCE(NEW.cantidad *
+            (SELECT precio_unitario FROM producto WHERE id_producto = NEW.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = NEW.id_estanteria), '*');
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_producto_estanteria_delete AFTER DELETE ON producto_estanteria
+BEGIN
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados - 1,
+        valor_total = valor_total - COALESCE(OLD.cantidad *
+            (SELECT precio_unitario FROM producto WHERE id_producto = OLD.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = OLD.id_estanteria), '*');
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_producto_estanteria_update
+AFTER UPDATE OF id_producto, id_estanteria, cantidad ON producto_estanteria
+BEGIN
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados - 1,
+        valor_total = valor_total - COALESCE(OLD.cantidad *
+            (SELECT precio_unitario FROM producto WHERE id_producto = OLD.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = OLD.id_estanteria), '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados + 1,
+        valor_total = valor_total + COALESCE(NEW.cantidad *
+            (SELECT precio_unitario FROM producto WHERE id_producto = NEW.id_producto), 0)
+    WHERE id_zona IN ((SELECT id_zona FROM estanteria WHERE id_estanteria = NEW.id_estanteria), '*');
+END;
+
+-- Precio de los productos: se revaloriza solo el stock del producto modificado
+CREATE TRIGGER IF NOT EXISTS resumen_producto_insert AFTER INSERT ON producto
+BEGIN
+    UPDATE resumen_inventario SET
+        valor_total = valor_total + COALESCE(NEW.precio_unitario, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = NEW.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'));
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_producto_delete AFTER DELETE ON producto
+BEGIN
+    UPDATE resumen_inventario SET
+        valor_total = valor_total - COALESCE(OLD.precio_unitario, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = OLD.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'));
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_producto_update AFTER UPDATE OF id_producto, precio_unitario ON producto
+WHEN OLD.id_producto IS NOT NEW.id_producto OR OLD.precio_unitario IS NOT NEW.precio_unitario
+BEGIN
+    UPDATE resumen_inventario SET
+        valor_total = valor_total - COALESCE(OLD.precio_unitario, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = OLD.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'));
+    UPDATE resumen_inventario SET
+        valor_total = valor_total + COALESCE(NEW.precio_unitario, 0) *
+            (SELECT COALESCE(SUM(pe.cantidad), 0) FROM producto_estanteria pe
+            LEFT JOIN estanteria e ON e.id_estanteria = pe.id_estanteria
+            WHERE pe.id_producto = NEW.id_producto AND resumen_inventario.id_zona IN (e.id_zona, '*'));
+END;
+
+-- Estanterias: sus alturas son los huecos totales de la zona y su contenido
+-- pasa a contar en la zona en la que se encuentra
+CREATE TRIGGER IF NOT EXISTS resumen_zona_insert AFTER INSERT ON zona
+BEGIN
+    INSERT OR IGNORE INTO resumen_inventario (id_zona) VALUES (NEW.id_zona);
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_estanteria_insert AFTER INSERT ON estanteria
+BEGIN
+    INSERT OR IGNORE INTO resumen_inventario (id_zona) SELECT NEW.id_zona WHERE NEW.id_zona IS NOT NULL;
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales + COALESCE(NEW.num_alturas, 0)
+    WHERE id_zona IN (NEW.id_zona, '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados +
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = NEW.id_estanteria),
+        valor_total = valor_total +
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_unitario), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = NEW.id_estanteria)
+    WHERE id_zona = NEW.id_zona;
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_estanteria_delete AFTER DELETE ON estanteria
+BEGIN
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales - COALESCE(OLD.num_alturas, 0)
+    WHERE id_zona IN (OLD.id_zona, '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados -
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = OLD.id_estanteria),
+        valor_total = valor_total -
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_unitario), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = OLD.id_estanteria)
+    WHERE id_zona = OLD.id_zona;
+END;
+
+CREATE TRIGGER IF NOT EXISTS resumen_estanteria_update AFTER UPDATE OF id_estanteria, id_zona, num_alturas ON estanteria
+WHEN OLD.id_estanteria IS NOT NEW.id_estanteria OR OLD.id_zona IS NOT NEW.id_zona
+    OR OLD.num_alturas IS NOT NEW.num_alturas
+BEGIN
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales - COALESCE(OLD.num_alturas, 0)
+    WHERE id_zona IN (OLD.id_zona, '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados -
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = OLD.id_estanteria),
+        valor_total = valor_total -
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_unitario), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = OLD.id_estanteria)
+    WHERE id_zona = OLD.id_zona;
+    INSERT OR IGNORE INTO resumen_inventario (id_zona) SELECT NEW.id_zona WHERE NEW.id_zona IS NOT NULL;
+    UPDATE resumen_inventario SET huecos_totales = huecos_totales + COALESCE(NEW.num_alturas, 0)
+    WHERE id_zona IN (NEW.id_zona, '*');
+    UPDATE resumen_inventario SET
+        huecos_ocupados = huecos_ocupados +
+            (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = NEW.id_estanteria),
+        valor_total = valor_total +
+            (SELECT COALESCE(SUM(pe.cantidad * p.precio_unitario), 0) FROM producto_estanteria pe
+            JOIN producto p ON p.id_producto = pe.id_producto WHERE pe.id_estanteria = NEW.id_estanteria)
+    WHERE id_zona = NEW.id_zona;
+END;
@@ -0,0 +1,34 @@
+-- Huecos ocupados de cada estanteria. Se recalculan una vez y despues los
+-- triggers suman o restan un hueco por cada fila de producto_estanteria,
+-- sin volver a contar la estanteria.
+UPDATE estanteria SET num_huecos_ocupados =
+    (SELECT COUNT(*) FROM producto_estanteria pe WHERE pe.id_estanteria = estanteria.id_estanteria);
+
+CREATE TRIGGER IF NOT EXISTS huecos_producto_estanteria_insert AFTER INSERT ON producto_estanteria
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados + 1
+    WHERE id_estanteria = NEW.id_estanteria;
+END;
+
+CREATE TRIGGER IF NOT EXISTS huecos_producto_estanteria_delete AFTER DELETE ON producto_estanteria
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados - 1
+    WHERE id_estanteria = OLD.id_estanteria;
+END;
+
+CREATE TRIGGER IF NOT EXISTS huecos_producto_estanteria_update AFTER UPDATE OF id_estanteria ON producto_estanteria
+WHEN OLD.id_estanteria IS NOT NEW.id_estanteria
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados - 1
+    WHERE id_estanteria = OLD.id_estanteria;
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados + 1
+    WHERE id_estanteria = NEW.id_estanteria;
+END;
+
+-- Una estanteria nueva empieza con las filas que ya la referencian
+CREATE TRIGGER IF NOT EXISTS huecos_estanteria_insert AFTER INSERT ON estanteria
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados =
+        (SELECT COUNT(*) FROM producto_estanteria WHERE id_estanteria = NEW.id_estanteria)
+    WHERE id_estanteria = NEW.id_estanteria;
+END;
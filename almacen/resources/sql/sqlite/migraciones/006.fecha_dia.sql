@@ -0,0 +1,31 @@
+-- Fecha de las operaciones como dias desde 1970-01-01. Las consultas por
+-- rango de fechas comparan enteros y recorren el indice en lugar de leer
+-- todas las filas. fecha se conserva en formato yyyy-MM-dd y los triggers
+-- calculan fecha_dia cuando alguien escribe solo fecha.
+ALTER TABLE operacion ADD COLUMN fecha_dia INTEGER;
+
+UPDATE operacion SET fecha_dia = CAST(julianday(CASE WHEN substr(replace(fecha, '/', '-'), 3, 1) = '-'
+    THEN substr(fecha, 7, 4) || '-' || substr(fecha, 4, 2) || '-' || substr(fecha, 1, 2)
+    ELSE replace(fecha, '/', '-') END) - 2440587.5 AS INTEGER)
+WHERE fecha IS NOT NULL;
+
+UPDATE operacion SET fecha = date(fecha_dia * 86400, 'unixepoch') WHERE fecha_dia IS NOT NULL;
+
+CREATE TRIGGER IF NOT EXISTS operacion_fecha_dia_insert AFTER INSERT ON operacion
+WHEN NEW.fecha_dia IS NULL AND NEW.fecha IS NOT NULL
+BEGIN
+    UPDATE operacion SET fecha_dia = CAST(julianday(NEW.fecha) - 2440587.5 AS INTEGER)
+    WHERE id_lista_productos = NEW.id_lista_productos;
+END;
+
+CREATE TRIGGER IF NOT EXISTS operacion_fecha_dia_update AFTER UPDATE OF fecha ON operacion
+WHEN OLD.fecha IS NOT NEW.fecha AND OLD.fecha_dia IS NEW.fecha_dia
+BEGIN
+    UPDATE operacion SET fecha_dia = CAST(julianday(NEW.fecha) - 2440587.5 AS INTEGER)
+    WHERE id_lista_productos = NEW.id_lista_productos;
+END;
+
+DROP INDEX IF EXISTS idx_operacion_cif_fecha;
+DROP INDEX IF EXISTS idx_operacion_fecha;
+CREATE INDEX IF NOT EXISTS idx_operacion_cif_fecha_dia ON operacion (cif, fecha_dia);
+CREATE INDEX IF NOT EXISTS idx_operacion_fecha_dia ON operacion (fecha_dia);
@@ -0,0 +1,55 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH de las validaciones frente a compilar el patron en cada
+ * llamada, como se hacia antes. Se ejecuta con el perfil benchmark:
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=ValidacionesBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidacionesBenchmark {
+
+    private static final String PATRON_CIF = "[A-Z][0-9]{8}";
+    private static final String PATRON_FECHA = "[0-9]{4}[-/][0-9]{2}[-/][0-9]{2}|[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}";
+    private static final String[] CIFS = { "A11111111", "B22222222", "C4444444", "11111111A" };
+    private static final String[] FECHAS = { "2020-10-10", "10/10/2020", "2020-1-10", "2021/02/15" };
+
+    private int siguiente;
+
+    @Benchmark
+    public boolean cifCompilando() {
+        return Pattern.compile(PATRON_CIF).matcher(CIFS[siguiente++ & 3]).matches();
+    }
+
+    @Benchmark
+    public boolean cif() {
+        return Validaciones.validarCif(CIFS[siguiente++ & 3]);
+    }
+
+    @Benchmark
+    public boolean fechaCompilando() {
+        return Pattern.compile(PATRON_FECHA).matcher(FECHAS[siguiente++ & 3]).matches();
+    }
+
+    @Benchmark
+    public boolean fecha() {
+        return Validaciones.validarFecha(FECHAS[siguiente++ & 3]);
+    }
+}
@@ -0,0 +1,75 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+/**
+ * Benchmark JMH de la lectura de stock desde el inventario en memoria y desde
+ * SQLite. Se ejecuta con el perfil benchmark:
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=InventarioMemoriaBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InventarioMemoriaBenchmark {
+
+    private ProductoEstanteriaModelo bbdd;
+    private ProductoEstanteriaModelo memoria;
+    private int[][] claves;
+    private int siguiente;
+
+    @Setup
+    public void preparar() throws BbddException, FicheroException {
+        bbdd = new ProductoEstanteriaModelo();
+        System.setProperty(InventarioMemoria.PROPIEDAD_ACTIVO, "true");
+        try {
+            memoria = new ProductoEstanteriaModelo();
+        } finally {
+            System.clearProperty(InventarioMemoria.PROPIEDAD_ACTIVO);
+        }
+        List<ProductoEstanteria> lineas = bbdd.buscarTodos();
+        if (lineas.isEmpty()) {
+            throw new IllegalStateException("No hay stock con el que medir");
+        }
+        claves = new int[lineas.size()][];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = new int[] { lineas.get(i).getIdProducto(), lineas.get(i).getIdEstanteria() };
+        }
+    }
+
+    @TearDown
+    public void terminar() {
+        InventarioMemoria.descartar(memoria.persistencia);
+    }
+
+    @Benchmark
+    public int sqlite() throws BbddException {
+        int[] clave = claves[siguiente++ % claves.length];
+        return bbdd.obtenerCantidad(clave[0], clave[1]);
+    }
+
+    @Benchmark
+    public int enMemoria() throws BbddException {
+        int[] clave = claves[siguiente++ % claves.length];
+        return memoria.obtenerCantidad(clave[0], clave[1]);
+    }
+}
@@ -0,0 +1,116 @@
+package es.iespuertolacruz.almacen.api;
+
+/**
+ * Importe de dinero en centimos. Es inmutable y las operaciones trabajan con
+ * enteros long, de modo que las sumas son exactas y no dependen del orden.
+ */
+public final class Importe implements Comparable<Importe> {
+
+    public static final Importe CERO = new Importe(0);
+
+    private final long centimos;
+
+    /**
+     * Constructor de la clase
+     * @param centimos del importe
+     */
+    private Importe(long centimos) {
+        this.centimos = centimos;
+    }
+
+    /**
+     * Funcion que crea un importe a partir de centimos
+     * @param centimos del importe
+     * @return importe
+     */
+    public static Importe deCentimos(long centimos) {
+        return centimos == 0 ? CERO : new Importe(centimos);
+    }
+
+    /**
+     * Funcion que crea un importe a partir de un valor en euros, redondeado al
+     * centimo mas cercano
+     * @param euros del importe
+     * @return importe
+     */
+    public static Importe deEuros(double euros) {
+        return deCentimos(Math.round(euros * 100));
+    }
+
+    /**
+     * Funcion getter de los centimos del importe
+     * @return centimos del importe
+     */
+    public long getCentimos() {
+        return this.centimos;
+    }
+
+    /**
+     * Funcion que obtiene el importe en euros
+     * @return euros del importe
+     */
+    public double getEuros() {
+        return centimos / 100.0;
+    }
+
+    /**
+     * Funcion que suma otro importe
+     * @param importe a sumar
+     * @return suma de los importes
+     */
+    public Importe sumar(Importe importe) {
+        return deCentimos(Math.addExact(centimos, importe.centimos));
+    }
+
+    /**
+     * Funcion que resta otro importe
+     * @param importe a restar
+     * @return diferencia de los importes
+     */
+    public Importe restar(Importe importe) {
+        return deCentimos(Math.subtractExact(centimos, importe.centimos));
+    }
+
+    /**
+     * Funcion que multiplica el importe por una cantidad
+     * @param cantidad de unidades
+     * @return importe de las unidades
+     */
+    public Importe multiplicar(long cantidad) {
+        return deCentimos(Math.multiplyExact(centimos, cantidad));
+    }
+
+    /**
+     * Funcion que indica si el importe es mayor que 0
+     * @return true/false positivo o no
+     */
+    public boolean esPositivo() {
+        return centimos > 0;
+    }
+
+    @Override
+    public int compareTo(Importe importe) {
+        return Long.compare(centimos, importe.centimos);
+    }
+
+    @Override
+    public boolean equals(Object objeto) {
+        return objeto instanceof Importe && ((Importe) objeto).centimos == centimos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centimos);
+    }
+
+    @Override
+    /**
+     * Funcion toString del importe
+     * @return importe en euros con dos decimales
+     */
+    public String toString() {
+        long absoluto = Math.abs(centimos);
+        String decimales = String.valueOf(absoluto % 100);
+        return (centimos < 0 ? "-" : "") + absoluto / 100 + "." + (decimales.length() == 1 ? "0" : "") + decimales;
+    }
+}
@@ -1,16 +1,46 @@
 package es.iespuertolacruz.almacen.api;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Lista de productos de una operacion. Las lineas se guardan en dos arrays
+ * paralelos de producto y cantidad, en el orden en el que se anaden, sin
+ * objetos por linea, y se recorren con tamanio, getProducto y getCantidad.
+ * getLista devuelve una copia en un HashMap.
+ */
 public class ListaProductos {
+
+    private static final int CAPACIDAD_INICIAL = 4;
+
     int idListaProductos;
-    HashMap<Integer, Integer> lista;
+    int[] productos;
+    int[] cantidades;
+    int numLineas;
+    boolean sinLista;
+
+    /**
+     * Interfaz para recorrer las lineas de una lista de productos
+     */
+    @FunctionalInterface
+    public interface ConsumidorLinea {
+        /**
+         * Metodo que recibe una linea de la lista
+         * @param producto id del producto
+         * @param cantidad del producto
+         */
+        void aceptar(int producto, int cantidad);
+    }
 
     /**
      * Constructor por defecto de la clase
      */
     public ListaProductos() {
         this.idListaProductos = 20000;
+        this.productos = new int[CAPACIDAD_INICIAL];
+        this.cantidades = new int[CAPACIDAD_INICIAL];
+        this.sinLista = true;
     }
 
     /**
@@ -19,8 +49,9 @@ public class ListaProductos {
      * @param lista hashmap de productos y cantidades
      */
     public ListaProductos(int idListaProductos, HashMap<Integer, Integer> lista) {
+        this();
         this.idListaProductos = idListaProductos;
-        this.lista = lista;
+        setLista(lista);
     }
 
     /**
@@ -32,19 +63,127 @@ public class ListaProductos {
     }
 
     /**
-     * Funcion getter del hashmap lista de la lista productos
-     * @return lista de la lista de productos
+     * Funcion getter del hashmap lista de la lista productos. Devuelve una
+     * copia de las lineas: los cambios en ella no modifican la lista
+     * @return lista de la lista de productos o null si no se ha asignado
      */
     public HashMap<Integer, Integer> getLista() {
-        return this.lista;
+        if (sinLista) {
+            return null;
+        }
+        HashMap<Integer, Integer> lista = new HashMap<>();
+        for (int i = 0; i < numLineas; i++) {
+            lista.put(productos[i], cantidades[i]);
+        }
+        return lista;
     }
 
     /**
-     * Metodo setter de la lista
+     * Metodo setter de la lista, que sustituye todas las lineas
      * @param lista de la listaproductos
      */
     public void setLista(HashMap<Integer, Integer> lista) {
-        this.lista = lista;
+        vaciar();
+        sinLista = lista == null;
+        if (lista != null) {
+            reservar(lista.size());
+            for (Map.Entry<Integer, Integer> linea : lista.entrySet()) {
+                productos[numLineas] = linea.getKey();
+                cantidades[numLineas++] = linea.getValue() == null ? 0 : linea.getValue();
+            }
+        }
+    }
+
+    /**
+     * Funcion que obtiene el numero de lineas de la lista
+     * @return numero de productos distintos
+     */
+    public int tamanio() {
+        return numLineas;
+    }
+
+    /**
+     * Funcion que indica si la lista no tiene lineas
+     * @return true/false vacia o no
+     */
+    public boolean estaVacia() {
+        return numLineas == 0;
+    }
+
+    /**
+     * Funcion que obtiene el producto de una linea
+     * @param posicion de la linea, entre 0 y tamanio - 1
+     * @return id del producto
+     */
+    public int getProducto(int posicion) {
+        comprobarPosicion(posicion);
+        return productos[posicion];
+    }
+
+    /**
+     * Funcion que obtiene la cantidad de una linea
+     * @param posicion de la linea, entre 0 y tamanio - 1
+     * @return cantidad del producto
+     */
+    public int getCantidad(int posicion) {
+        comprobarPosicion(posicion);
+        return cantidades[posicion];
+    }
+
+    /**
+     * Funcion que obtiene la cantidad de un producto
+     * @param producto id del producto
+     * @return cantidad del producto o 0 si no esta en la lista
+     */
+    public int obtenerCantidad(int producto) {
+        int posicion = buscarPosicion(producto);
+        return posicion < 0 ? 0 : cantidades[posicion];
+    }
+
+    /**
+     * Funcion que indica si un producto esta en la lista
+     * @param producto id del producto
+     * @return true/false esta o no
+     */
+    public boolean contiene(int producto) {
+        return buscarPosicion(producto) >= 0;
+    }
+
+    /**
+     * Metodo que asigna la cantidad de un producto, anadiendo una linea si no
+     * estaba en la lista
+     * @param producto id del producto
+     * @param cantidad del producto
+     */
+    public void poner(int producto, int cantidad) {
+        sinLista = false;
+        int posicion = buscarPosicion(producto);
+        if (posicion >= 0) {
+            cantidades[posicion] = cantidad;
+            return;
+        }
+        if (numLineas == productos.length) {
+            reservar(numLineas * 2);
+        }
+        productos[numLineas] = producto;
+        cantidades[numLineas++] = cantidad;
+    }
+
+    /**
+     * Metodo que recorre las lineas de la lista en orden
+     * @param consumidor de cada linea
+     */
+    public void forEach(ConsumidorLinea consumidor) {
+        for (int i = 0; i < numLineas; i++) {
+            consumidor.aceptar(productos[i], cantidades[i]);
+        }
+    }
+
+    /**
+     * Metodo que elimina todas las lineas conservando la capacidad
+     */
+    public void vaciar() {
+        numLineas = 0;
     }
 
     @Override
@@ -53,8 +192,11 @@ public class ListaProductos {
      * @return informacion de la lista de productos
      */
     public String toString() {
-        StringBuilder informacion = new StringBuilder("-> Id de la lista: " + idListaProductos);
-        this.lista.forEach((producto, cantidad) -> informacion.append("\n· Producto " + producto + ": " + cantidad + " articulos"));
+        StringBuilder informacion = new StringBuilder("-> Id de la lista: ").append(idListaProductos);
+        for (int i = 0; i < numLineas; i++) {
+            informacion.append("\n· Producto ").append(productos[i]).append(": ").append(cantidades[i])
+                    .append(" articulos");
+        }
         return informacion.toString();
     }
 
@@ -66,4 +208,38 @@ public class ListaProductos {
         this.idListaProductos = idListaProductos;
     }
 
+    /**
+     * Metodo que comprueba que una posicion corresponde a una linea
+     * @param posicion de la linea
+     */
+    private void comprobarPosicion(int posicion) {
+        if (posicion < 0 || posicion >= numLineas) {
+            throw new IndexOutOfBoundsException("La lista no tiene la linea " + posicion);
+        }
+    }
+
+    /**
+     * Metodo que amplia los arrays de lineas para que quepa un numero de ellas
+     * @param capacidad minima de lineas
+     */
+    private void reservar(int capacidad) {
+        if (capacidad > productos.length) {
+            productos = Arrays.copyOf(productos, capacidad);
+            cantidades = Arrays.copyOf(cantidades, capacidad);
+        }
+    }
+
+    /**
+     * Funcion que busca la posicion de un producto recorriendo las lineas
+     * @param producto id del producto
+     * @return posicion de la linea o -1 si no esta
+     */
+    private int buscarPosicion(int producto) {
+        for (int i = 0; i < numLineas; i++) {
+            if (productos[i] == producto) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
@@ -1,9 +1,12 @@
 package es.iespuertolacruz.almacen.api;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
 public class Operacion {
     int idListaProductos;
     int idMuelle;
-    String fecha;
+    LocalDate fecha;
     String tipoOperacion;
     String cif;
 
@@ -18,11 +21,27 @@ public class Operacion {
     public Operacion(int idListaProductos, int idMuelle, String fecha, String tipoOperacion, String cif) {
         this.idListaProductos = idListaProductos;
         this.idMuelle = idMuelle;
-        this.fecha = fecha;
+        this.fecha = parsearFecha(fecha);
         this.tipoOperacion = tipoOperacion;
         this.cif = cif;
     }
 
+    /**
+     * Funcion que crea una operacion con la fecha como LocalDate
+     * @param idListaProductos de operacion
+     * @param idMuelle de operacion
+     * @param fecha de operacion
+     * @param tipoOperacion de operacion
+     * @param cif de operacion
+     * @return operacion creada
+     */
+    public static Operacion conFecha(int idListaProductos, int idMuelle, LocalDate fecha, String tipoOperacion,
+            String cif) {
+        Operacion operacion = new Operacion(idListaProductos, idMuelle, null, tipoOperacion, cif);
+        operacion.fecha = fecha;
+        return operacion;
+    }
+
     /**
      * Funcion getter del id lista de productos de la operacion
      * @return idListaProductos de la operacion
@@ -40,13 +59,42 @@ public class Operacion {
     }
 
     /**
-     * Funcion getter de la fecha de la operacion
-     * @return fecha de la operacion
+     * Funcion getter de la fecha de la operacion en formato yyyy-MM-dd
+     * @return fecha de la operacion o null si no es valida
      */
     public String getFecha() {
+        return this.fecha == null ? null : this.fecha.toString();
+    }
+
+    /**
+     * Funcion getter de la fecha de la operacion
+     * @return fecha de la operacion o null si no es valida
+     */
+    public LocalDate getFechaLocal() {
         return this.fecha;
     }
 
+    /**
+     * Funcion que transforma una fecha yyyy-MM-dd o dd/MM/yyyy, con guiones o
+     * barras, en un LocalDate
+     * @param fecha a transformar
+     * @return fecha o null si no es una fecha valida
+     */
+    public static LocalDate parsearFecha(String fecha) {
+        if (fecha == null || fecha.length() != 10) {
+            return null;
+        }
+        String texto = fecha.replace('/', '-');
+        if (texto.charAt(2) == '-' && texto.charAt(5) == '-') {
+            texto = texto.substring(6) + "-" + texto.substring(3, 5) + "-" + texto.substring(0, 2);
+        }
+        try {
+            return LocalDate.parse(texto);
+        } catch (DateTimeException exception) {
+            return null;
+        }
+    }
+
     /**
      * Funcion getter del tipo de la operacion
      * @return tipoOperacion de la operacion
@@ -71,7 +119,7 @@ public class Operacion {
     public String toString() {
         return "# Id lista de productos: " + this.idListaProductos + 
         "\n# CIF de la empresa asociada: " + this.cif + 
-        "\n# Muelle: " + this.idMuelle + "\n# Fecha: " + this.fecha + 
+        "\n# Muelle: " + this.idMuelle + "\n# Fecha: " + getFecha() + 
         "\n# Tipo de operacion: " + this.tipoOperacion;
     }
 
@@ -3,7 +3,7 @@ package es.iespuertolacruz.almacen.api;
 public class Producto {
     int idProducto;
     String nombre;
-    float precioUnitario;
+    Importe precioUnitario;
     String tipo;
 
     /**
@@ -14,6 +14,17 @@ public class Producto {
      * @param tipo del producto
      */
     public Producto(int idProducto, String nombre, float precioUnitario, String tipo) {
+        this(idProducto, nombre, Importe.deEuros(precioUnitario), tipo);
+    }
+
+    /**
+     * Constructor de la clase con el precio en centimos
+     * @param idProducto del producto
+     * @param nombre del producto
+     * @param precioUnitario del producto
+     * @param tipo del producto
+     */
+    public Producto(int idProducto, String nombre, Importe precioUnitario, String tipo) {
         this.idProducto = idProducto;
         this.nombre = nombre;
         this.precioUnitario = precioUnitario;
@@ -37,10 +48,18 @@ public class Producto {
     }
 
     /**
-     * Funcion getter del precioUnitario del producto
-     * @return precioUnitario del producto
+     * Funcion getter del precioUnitario del producto en euros
+     * @return precioUnitario del producto o 0 si no tiene precio
      */
     public float getPrecioUnitario() {
+        return this.precioUnitario == null ? 0 : (float) this.precioUnitario.getEuros();
+    }
+
+    /**
+     * Funcion getter del precioUnitario del producto en centimos
+     * @return precioUnitario del producto
+     */
+    public Importe getPrecio() {
         return this.precioUnitario;
     }
 
@@ -0,0 +1,52 @@
+package es.iespuertolacruz.almacen.api;
+
+public class ResumenInventario {
+    Importe valorTotal;
+    int huecosOcupados;
+    int huecosTotales;
+
+    /**
+     * Constructor de la clase
+     * @param valorTotal de los productos almacenados
+     * @param huecosOcupados de las estanterias
+     * @param huecosTotales de las estanterias
+     */
+    public ResumenInventario(Importe valorTotal, int huecosOcupados, int huecosTotales) {
+        this.valorTotal = valorTotal;
+        this.huecosOcupados = huecosOcupados;
+        this.huecosTotales = huecosTotales;
+    }
+
+    /**
+     * Funcion getter del valor total del resumen
+     * @return valorTotal de los productos almacenados
+     */
+    public double getValorTotal() {
+        return this.valorTotal.getEuros();
+    }
+
+    /**
+     * Funcion getter del valor total del resumen en centimos
+     * @return valorTotal de los productos almacenados
+     */
+    public Importe getValor() {
+        return this.valorTotal;
+    }
+
+    /**
+     * Funcion getter de los huecos ocupados del resumen
+     * @return huecosOcupados de las estanterias
+     */
+    public int getHuecosOcupados() {
+        return this.huecosOcupados;
+    }
+
+    /**
+     * Funcion getter de los huecos totales del resumen
+     * @return huecosTotales de las estanterias
+     */
+    public int getHuecosTotales() {
+        return this.huecosTotales;
+    }
+
+}
@@ -10,6 +10,10 @@ public class Usuario {
         this.password = password;
     }
 
+    public String getUser() {
+        return this.user;
+    }
+
     public String getPassword() {
         return this.password;
     }
@@ -0,0 +1,189 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import java.util.concurrent.CompletableFuture;
+
+import es.iespuertolacruz.almacen.api.Cliente;
+import es.iespuertolacruz.almacen.api.Empresa;
+import es.iespuertolacruz.almacen.api.Estanteria;
+import es.iespuertolacruz.almacen.api.ListaProductos;
+import es.iespuertolacruz.almacen.api.Muelle;
+import es.iespuertolacruz.almacen.api.Operacion;
+import es.iespuertolacruz.almacen.api.Producto;
+import es.iespuertolacruz.almacen.api.Proveedor;
+import es.iespuertolacruz.almacen.api.Zona;
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+/**
+ * Fachada asincrona de los controladores. Cada llamada devuelve un
+ * CompletableFuture y se ejecuta en el EjecutorAlmacen, de modo que las
+ * consultas independientes se solapan en lugar de esperar una tras otra. Los
+ * errores de los controladores completan el futuro con la excepcion original.
+ *
+ * Ejemplo: producto = almacen.buscarProducto(1); empresa =
+ * almacen.buscarEmpresa(cif); CompletableFuture.allOf(producto, empresa).join();
+ */
+public class AlmacenAsincrono {
+
+    private final EjecutorAlmacen ejecutor;
+    ProductoController productoController;
+    EmpresaController empresaController;
+    ClienteController clienteController;
+    ProveedorController proveedorController;
+    MuelleController muelleController;
+    ZonaController zonaController;
+    EstanteriaController estanteriaController;
+    ListaProductosController listaProductosController;
+    OperacionController operacionController;
+
+    /**
+     * Constructor de la clase con el ejecutor configurado por propiedades
+     * @throws BbddException controlado
+     * @throws FicheroException controlado
+     */
+    public AlmacenAsincrono() throws BbddException, FicheroException {
+        this(EjecutorAlmacen.desdePropiedades());
+    }
+
+    /**
+     * Constructor de la clase
+     * @param ejecutor de las llamadas
+     * @throws BbddException controlado
+     * @throws FicheroException controlado
+     */
+    public AlmacenAsincrono(EjecutorAlmacen ejecutor) throws BbddException, FicheroException {
+        this.ejecutor = ejecutor;
+        productoController = new ProductoController();
+        empresaController = new EmpresaController();
+        clienteController = new ClienteController();
+        proveedorController = new ProveedorController();
+        muelleController = new MuelleController();
+        zonaController = new ZonaController();
+        estanteriaController = new EstanteriaController();
+        listaProductosController = new ListaProductosController();
+        operacionController = new OperacionController();
+    }
+
+    /**
+     * Funcion que ejecuta cualquier llamada a un controlador de forma asincrona
+     * @param llamada a ejecutar
+     * @return futuro con el resultado
+     */
+    public <T> CompletableFuture<T> ejecutar(LlamadaControlador<T> llamada) {
+        return ejecutor.enviar(llamada);
+    }
+
+    /**
+     * Funcion que busca un producto de forma asincrona
+     * @param idProducto a buscar
+     * @return futuro con el producto o null
+     */
+    public CompletableFuture<Producto> buscarProducto(int idProducto) {
+        return ejecutor.enviar(() -> productoController.buscar(idProducto));
+    }
+
+    /**
+     * Funcion que busca una empresa de forma asincrona
+     * @param cif de la empresa
+     * @return futuro con la empresa o null
+     */
+    public CompletableFuture<Empresa> buscarEmpresa(String cif) {
+        return ejecutor.enviar(() -> empresaController.buscar(cif));
+    }
+
+    /**
+     * Funcion que busca un cliente de forma asincrona
+     * @param cif del cliente
+     * @return futuro con el cliente o null
+     */
+    public CompletableFuture<Cliente> buscarCliente(String cif) {
+        return ejecutor.enviar(() -> clienteController.buscar(cif));
+    }
+
+    /**
+     * Funcion que busca un proveedor de forma asincrona
+     * @param cif del proveedor
+     * @return futuro con el proveedor o null
+     */
+    public CompletableFuture<Proveedor> buscarProveedor(String cif) {
+        return ejecutor.enviar(() -> proveedorController.buscar(cif));
+    }
+
+    /**
+     * Funcion que busca un muelle de forma asincrona
+     * @param idMuelle a buscar
+     * @return futuro con el muelle o null
+     */
+    public CompletableFuture<Muelle> buscarMuelle(int idMuelle) {
+        return ejecutor.enviar(() -> muelleController.buscar(idMuelle));
+    }
+
+    /**
+     * Funcion que busca una zona de forma asincrona
+     * @param idZona a buscar
+     * @return futuro con la zona o null
+     */
+    public CompletableFuture<Zona> buscarZona(char idZona) {
+        return ejecutor.enviar(() -> zonaController.buscar(idZona));
+    }
+
+    /**
+     * Funcion que busca una estanteria de forma asincrona
+     * @param idEstanteria a buscar
+     * @return futuro con la estanteria o null
+     */
+    public CompletableFuture<Estanteria> buscarEstanteria(int idEstanteria) {
+        return ejecutor.enviar(() -> estanteriaController.buscar(idEstanteria));
+    }
+
+    /**
+     * Funcion que busca una lista de productos de forma asincrona
+     * @param idListaProductos a buscar
+     * @return futuro con la lista de productos o null
+     */
+    public CompletableFuture<ListaProductos> buscarListaProductos(int idListaProductos) {
+        return ejecutor.enviar(() -> listaProductosController.buscar(idListaProductos));
+    }
+
+    /**
+     * Funcion que busca una operacion de forma asincrona
+     * @param idListaProductos de la operacion
+     * @return futuro con la operacion o null
+     */
+    public CompletableFuture<Operacion> buscarOperacion(int idListaProductos) {
+        return ejecutor.enviar(() -> operacionController.buscar(idListaProductos));
+    }
+
+    /**
+     * Funcion que inserta una operacion de forma asincrona
+     * @param operacion a insertar
+     * @return futuro que se completa al terminar la insercion
+     */
+    public CompletableFuture<Void> insertarOperacion(Operacion operacion) {
+        return ejecutor.enviar(() -> {
+            operacionController.insertar(operacion);
+            return null;
+        });
+    }
+
+    /**
+     * Funcion que registra una operacion con su lista de productos de forma
+     * asincrona, en una unica transaccion
+     * @param operacion      a registrar
+     * @param listaProductos de la operacion
+     * @return futuro que se completa al terminar el registro
+     */
+    public CompletableFuture<Void> registrarOperacion(Operacion operacion, ListaProductos listaProductos) {
+        return ejecutor.enviar(() -> {
+            operacionController.registrar(operacion, listaProductos);
+            return null;
+        });
+    }
+
+    /**
+     * Metodo que cierra el ejecutor de la fachada
+     */
+    public void cerrar() {
+        ejecutor.cerrar();
+    }
+}
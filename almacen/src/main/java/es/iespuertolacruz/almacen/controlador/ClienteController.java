@@ -1,12 +1,14 @@
 package es.iespuertolacruz.almacen.controlador;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import es.iespuertolacruz.almacen.api.Cliente;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 import es.iespuertolacruz.almacen.modelo.ClienteModelo;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 public class ClienteController {
     
     ClienteModelo clienteModelo;
@@ -33,26 +35,45 @@ public class ClienteController {
     }
     
     /**
-     * Funcion que valida un cliente
-     * @param cliente a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba un cliente sin lanzar excepciones
+     * @param cliente a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Cliente cliente) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Cliente cliente) {
         if (cliente == null) {
-            throw new AlmacenException("El cliente no puede ser nulo");
+            return "El cliente no puede ser nulo";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (cliente.getCif() == null || !Validaciones.validarCif(cliente.getCif())) {
-            mensaje += "El cif del cliente no puede ser nulo o no valido\n";
+            mensaje.append("El cif del cliente no puede ser nulo o no valido\n");
         }
         if (cliente.getPorcentajeDesc() < 0) {
-            mensaje += "El porcentaje de descuento del cliente no puede ser menor que 0\n";
+            mensaje.append("El porcentaje de descuento del cliente no puede ser menor que 0\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida un cliente
+     * @param cliente a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Cliente cliente) throws AlmacenException {
+        String mensaje = comprobar(cliente);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de clientes sin lanzar excepciones
+     * @param clientes a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Cliente> validarTodos(List<Cliente> clientes) {
+        return ValidacionMasiva.validar(clientes, this::comprobar);
+    }
+
      /**
      * Metodo que inserta un cliente en la bbdd
      * @param cliente a insertar
@@ -64,6 +85,19 @@ public class ClienteController {
         if(!existe(cliente)) clienteModelo.insertar(cliente);
         else throw new AlmacenException("El cliente ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de clientes e inserta los validos
+     * en una sola escritura por lotes. Los que ya existen en la bbdd, o estan
+     * repetidos en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param clientes a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Cliente> insertarTodos(List<Cliente> clientes) throws BbddException {
+        return ValidacionMasiva.insertar(clientes, this::comprobar, clienteModelo,
+                "El cliente ya existe en la base de datos");
+    }
     /**
      * Metodo que elimina un cliente de la bbdd
      * @param cliente a eliminar
@@ -102,4 +136,15 @@ public class ClienteController {
     public ArrayList<Cliente> buscarTodos() throws BbddException {
         return clienteModelo.buscarTodos();
     }
+
+    /**
+     * Funcion que devuelve una pagina del listado de clientes ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de clientes
+     * @throws BbddException controlado
+     */
+    public Pagina<Cliente> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return clienteModelo.buscarPagina(cursor, limite);
+    }
 }
@@ -0,0 +1,129 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor acotado de las llamadas asincronas a los controladores. Como mucho
+ * ejecuta a la vez tantas llamadas como hilos tenga configurados, que por
+ * defecto coincide con el maximo del pool de conexiones.
+ *
+ * Con la propiedad almacen.async.virtuales=true usa hilos virtuales si la JVM
+ * los ofrece, limitados por un semaforo; en otro caso usa hilos de plataforma.
+ * El proyecto compila con release 17 y los hilos virtuales solo existen desde
+ * Java 21, asi que con el JDK 17 del proyecto la propiedad no tiene efecto y
+ * siempre se usan hilos de plataforma.
+ */
+public class EjecutorAlmacen {
+
+    public static final String PROPIEDAD_HILOS = "almacen.async.hilos";
+    public static final String PROPIEDAD_VIRTUALES = "almacen.async.virtuales";
+
+    private static final int HILOS_DEFECTO = 10;
+
+    private final ExecutorService ejecutor;
+    private final Semaphore permisos;
+    private final boolean virtuales;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param hilos     maximo de llamadas simultaneas
+     * @param virtuales si se deben usar hilos virtuales cuando esten disponibles
+     */
+    public EjecutorAlmacen(int hilos, boolean virtuales) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("El numero de hilos no es valido: " + hilos);
+        }
+        this.permisos = new Semaphore(hilos);
+        ExecutorService ejecutorVirtual = virtuales ? crearEjecutorVirtual() : null;
+        this.virtuales = ejecutorVirtual != null;
+        this.ejecutor = ejecutorVirtual != null ? ejecutorVirtual
+                : Executors.newFixedThreadPool(hilos, new FabricaHilos());
+    }
+
+    /**
+     * Funcion que construye el ejecutor a partir de las propiedades del sistema
+     *
+     * @return ejecutor configurado
+     */
+    public static EjecutorAlmacen desdePropiedades() {
+        return new EjecutorAlmacen(Integer.getInteger(PROPIEDAD_HILOS, HILOS_DEFECTO),
+                Boolean.getBoolean(PROPIEDAD_VIRTUALES));
+    }
+
+    /**
+     * Funcion que ejecuta una llamada de forma asincrona. Si la llamada lanza
+     * una excepcion el futuro se completa con ella
+     *
+     * @param llamada a ejecutar
+     * @return futuro con el resultado de la llamada
+     */
+    public <T> CompletableFuture<T> enviar(LlamadaControlador<T> llamada) {
+        return CompletableFuture.supplyAsync(() -> {
+            permisos.acquireUninterruptibly();
+            try {
+                return llamada.ejecutar();
+            } catch (RuntimeException exception) {
+                throw exception;
+            } catch (Exception exception) {
+                throw new CompletionException(exception);
+            } finally {
+                permisos.release();
+            }
+        }, ejecutor);
+    }
+
+    /**
+     * Funcion que indica si el ejecutor usa hilos virtuales
+     *
+     * @return true/false usa hilos virtuales o no
+     */
+    public boolean usaHilosVirtuales() {
+        return virtuales;
+    }
+
+    /**
+     * Metodo que cierra el ejecutor. Las llamadas ya enviadas terminan
+     */
+    public void cerrar() {
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Funcion que crea un ejecutor de hilos virtuales si la JVM los ofrece. Se
+     * obtiene por reflexion para poder compilar con release 17: en una JVM 17
+     * el metodo no existe y siempre se devuelve null, solo tiene efecto si la
+     * aplicacion se ejecuta en Java 21 o posterior
+     *
+     * @return ejecutor de hilos virtuales o null si no estan disponibles
+     */
+    private static ExecutorService crearEjecutorVirtual() {
+        try {
+            Method metodo = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) metodo.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Fabrica de los hilos de plataforma del ejecutor
+     */
+    private static final class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarea) {
+            Thread hilo = new Thread(tarea, "almacen-async-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.util.List;
+
 import es.iespuertolacruz.almacen.api.Empresa;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 import es.iespuertolacruz.almacen.modelo.EmpresaModelo;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 public class EmpresaController {
     EmpresaModelo empresaModelo;
 
@@ -28,34 +31,53 @@ public class EmpresaController {
     }
     
     /**
-     * Funcion que valida una empresa
-     * @param empresa a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba una empresa sin lanzar excepciones
+     * @param empresa a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Empresa empresa) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Empresa empresa) {
         if (empresa == null) {
-            throw new AlmacenException("La empresa no puede ser nula");
+            return "La empresa no puede ser nula";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (empresa.getCif() == null || !Validaciones.validarCif(empresa.getCif())) {
-            mensaje += "El cif de la empresa no puede ser nulo o no valido\n";
+            mensaje.append("El cif de la empresa no puede ser nulo o no valido\n");
         }
         if (empresa.getNombre() == null || empresa.getNombre().isEmpty()) {
-            mensaje += "El nombre de la empresa no puede ser nulo o vacio\n";
+            mensaje.append("El nombre de la empresa no puede ser nulo o vacio\n");
         }
         if (empresa.getDireccion() == null || empresa.getDireccion().isEmpty()) {
-            mensaje += "La direccion de la empresa no puede ser nula o vacia\n";
+            mensaje.append("La direccion de la empresa no puede ser nula o vacia\n");
         }
         if (empresa.getTelefono() == null || !Validaciones.validarTelefono(empresa.getTelefono())) {
-            mensaje += "El telefono de la empresa no puede ser nulo o no valido\n";
+            mensaje.append("El telefono de la empresa no puede ser nulo o no valido\n");
         }
         if (empresa.getCorreo() == null || !Validaciones.validarCorreo(empresa.getCorreo())) {
-            mensaje += "El correo de la empresa no puede ser nulo o no valido\n";
+            mensaje.append("El correo de la empresa no puede ser nulo o no valido\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida una empresa
+     * @param empresa a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Empresa empresa) throws AlmacenException {
+        String mensaje = comprobar(empresa);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
+
+    /**
+     * Funcion que comprueba en paralelo una lista de empresas sin lanzar excepciones
+     * @param empresas a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Empresa> validarTodos(List<Empresa> empresas) {
+        return ValidacionMasiva.validar(empresas, this::comprobar);
+    }
     
     /**
      * Metodo que inserta una empresa en la bbdd
@@ -68,6 +90,20 @@ public class EmpresaController {
         if(!existe(empresa)) empresaModelo.insertar(empresa);
         else throw new AlmacenException("La empresa ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de empresas e inserta las validas
+     * en una sola escritura por lotes. Las que ya existen en la bbdd, o estan
+     * repetidas en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param empresas a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Empresa> insertarTodos(List<Empresa> empresas) throws BbddException {
+        return ValidacionMasiva.insertar(empresas, this::comprobar, empresaModelo,
+                "La empresa ya existe en la base de datos");
+    }
+
     /**
      * Metodo que elimina una empresa de la bbdd
      * @param empresa a eliminar
@@ -99,4 +135,14 @@ public class EmpresaController {
         return empresaModelo.buscar(cif);
     }
 
+    /**
+     * Funcion que devuelve una pagina del listado de empresas ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de empresas
+     * @throws BbddException controlado
+     */
+    public Pagina<Empresa> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return empresaModelo.buscarPagina(cursor, limite);
+    }
 }
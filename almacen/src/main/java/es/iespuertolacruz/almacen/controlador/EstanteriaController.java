@@ -1,10 +1,13 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.util.List;
+
 import es.iespuertolacruz.almacen.api.Estanteria;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 import es.iespuertolacruz.almacen.modelo.EstanteriaModelo;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 
 public class EstanteriaController {
          
@@ -32,31 +35,50 @@ public class EstanteriaController {
     }
 
     /**
-     * Funcion que valida una estanteria
-     * @param estanteria a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba una estanteria sin lanzar excepciones
+     * @param estanteria a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Estanteria estanteria) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Estanteria estanteria) {
         if (estanteria == null) {
-            throw new AlmacenException("La estanteria no puede ser nula");
+            return "La estanteria no puede ser nula";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (estanteria.getIdEstanteria() <= 0) {
-            mensaje += "El id de la estanteria no puede ser menor o igual que 0\n";
+            mensaje.append("El id de la estanteria no puede ser menor o igual que 0\n");
         }
         if (!Validaciones.validarZona(estanteria.getIdZona())) {
-            mensaje += "El id de la zona debe estar entre la A y la Z\n";
+            mensaje.append("El id de la zona debe estar entre la A y la Z\n");
         }
         if (estanteria.getNumAlturas() <= 0) {
-            mensaje += "El numero de alturas de la estanteria no puede ser menor o igual que 0\n";
+            mensaje.append("El numero de alturas de la estanteria no puede ser menor o igual que 0\n");
         }
         if (estanteria.getNumHuecosOcupados() > estanteria.getNumAlturas()) {
-            mensaje += "El numero de huecos ocupados de la estanteria no puede ser mayor que el numero de alturas\n";
+            mensaje.append("El numero de huecos ocupados de la estanteria no puede ser mayor que el numero de alturas\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida una estanteria
+     * @param estanteria a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Estanteria estanteria) throws AlmacenException {
+        String mensaje = comprobar(estanteria);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
+
+    /**
+     * Funcion que comprueba en paralelo una lista de estanterias sin lanzar excepciones
+     * @param estanterias a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Estanteria> validarTodos(List<Estanteria> estanterias) {
+        return ValidacionMasiva.validar(estanterias, this::comprobar);
+    }
     
       /**
      * Metodo que inserta una estanteria en la bbdd
@@ -69,6 +91,19 @@ public class EstanteriaController {
         if(!existe(estanteria)) estanteriaModelo.insertar(estanteria);
         else throw new AlmacenException("La estanteria ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de estanterias e inserta las validas
+     * en una sola escritura por lotes. Las que ya existen en la bbdd, o estan
+     * repetidas en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param estanterias a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Estanteria> insertarTodos(List<Estanteria> estanterias) throws BbddException {
+        return ValidacionMasiva.insertar(estanterias, this::comprobar, estanteriaModelo,
+                "La estanteria ya existe en la base de datos");
+    }
     /**
      * Metodo que elimina una estanteria de la bbdd
      * @param estanteria a eliminar
@@ -99,4 +134,15 @@ public class EstanteriaController {
     public Estanteria buscar(int idEstanteria) throws BbddException {
         return estanteriaModelo.buscar(String.valueOf(idEstanteria));
     }
+
+    /**
+     * Funcion que devuelve una pagina del listado de estanterias ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de estanterias
+     * @throws BbddException controlado
+     */
+    public Pagina<Estanteria> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return estanteriaModelo.buscarPagina(cursor, limite);
+    }
 }
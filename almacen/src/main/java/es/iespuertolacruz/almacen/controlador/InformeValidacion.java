@@ -0,0 +1,148 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de validar una lista de elementos. Guarda solo los errores, como
+ * posiciones ordenadas y sus mensajes, y la lista de elementos validos en el
+ * orden original, lista para insertarse por lotes.
+ *
+ * @param <T> tipo de los elementos
+ */
+public class InformeValidacion<T> {
+
+    private final int total;
+    private final int[] indices;
+    private final String[] mensajes;
+    private final List<T> validos;
+
+    /**
+     * Constructor de la clase
+     * @param total    de elementos comprobados
+     * @param indices  posiciones con error, en orden creciente
+     * @param mensajes de error de cada posicion
+     * @param validos  elementos sin errores, en orden
+     */
+    InformeValidacion(int total, int[] indices, String[] mensajes, List<T> validos) {
+        this.total = total;
+        this.indices = indices;
+        this.mensajes = mensajes;
+        this.validos = Collections.unmodifiableList(validos);
+    }
+
+    /**
+     * Funcion getter del numero de elementos comprobados
+     * @return total de elementos
+     */
+    public int getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Funcion que obtiene el numero de elementos con errores
+     * @return numero de errores
+     */
+    public int getNumErrores() {
+        return indices.length;
+    }
+
+    /**
+     * Funcion que indica si algun elemento tiene errores
+     * @return true/false hay errores o no
+     */
+    public boolean hayErrores() {
+        return indices.length > 0;
+    }
+
+    /**
+     * Funcion que obtiene la posicion en la lista de un error
+     * @param error numero del error, entre 0 y getNumErrores - 1
+     * @return posicion del elemento en la lista
+     */
+    public int getIndice(int error) {
+        return indices[error];
+    }
+
+    /**
+     * Funcion que obtiene el mensaje de un error
+     * @param error numero del error, entre 0 y getNumErrores - 1
+     * @return mensaje del error
+     */
+    public String getMensaje(int error) {
+        return mensajes[error];
+    }
+
+    /**
+     * Funcion que obtiene el mensaje de error de un elemento
+     * @param indice posicion del elemento en la lista
+     * @return mensaje del error o null si el elemento es valido
+     */
+    public String mensajeDe(int indice) {
+        int error = Arrays.binarySearch(indices, indice);
+        return error < 0 ? null : mensajes[error];
+    }
+
+    /**
+     * Funcion getter de los elementos validos
+     * @return lista no modificable de elementos sin errores
+     */
+    public List<T> getValidos() {
+        return this.validos;
+    }
+
+    /**
+     * Funcion que obtiene un informe en el que algunos elementos validos pasan a
+     * tener un error
+     * @param rechazados array paralelo a getValidos, a true para los elementos
+     *                   que se rechazan
+     * @param mensaje    de error de los elementos rechazados
+     * @return informe con los nuevos errores, o el mismo si no se rechaza ninguno
+     */
+    InformeValidacion<T> rechazar(boolean[] rechazados, String mensaje) {
+        int numRechazados = 0;
+        for (boolean rechazado : rechazados) {
+            numRechazados += rechazado ? 1 : 0;
+        }
+        if (numRechazados == 0) {
+            return this;
+        }
+        int[] nuevosIndices = new int[indices.length + numRechazados];
+        String[] nuevosMensajes = new String[nuevosIndices.length];
+        List<T> nuevosValidos = new ArrayList<>(validos.size() - numRechazados);
+        int error = 0;
+        int valido = 0;
+        int numero = 0;
+        for (int i = 0; i < total; i++) {
+            if (error < indices.length && indices[error] == i) {
+                nuevosIndices[numero] = i;
+                nuevosMensajes[numero++] = mensajes[error++];
+            } else {
+                if (rechazados[valido]) {
+                    nuevosIndices[numero] = i;
+                    nuevosMensajes[numero++] = mensaje;
+                } else {
+                    nuevosValidos.add(validos.get(valido));
+                }
+                valido++;
+            }
+        }
+        return new InformeValidacion<>(total, nuevosIndices, nuevosMensajes, nuevosValidos);
+    }
+
+    @Override
+    /**
+     * Funcion toString del informe
+     * @return resumen y errores por posicion
+     */
+    public String toString() {
+        StringBuilder informacion = new StringBuilder().append(total - indices.length).append(" validos de ")
+                .append(total);
+        for (int i = 0; i < indices.length; i++) {
+            informacion.append("\n[").append(indices[i]).append("] ").append(mensajes[i].strip());
+        }
+        return informacion.toString();
+    }
+}
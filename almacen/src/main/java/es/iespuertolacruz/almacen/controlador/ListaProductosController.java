@@ -1,10 +1,14 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.util.Collection;
+import java.util.List;
+
 import es.iespuertolacruz.almacen.api.ListaProductos;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 import es.iespuertolacruz.almacen.modelo.ListaProductosModelo;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 
 public class ListaProductosController {
     
@@ -32,26 +36,45 @@ public class ListaProductosController {
     }
 
     /**
-     * Funcion que valida una listaProductos
-     * @param listaProductos a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba una listaProductos sin lanzar excepciones
+     * @param listaProductos a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(ListaProductos listaProductos) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(ListaProductos listaProductos) {
         if (listaProductos == null) {
-            throw new AlmacenException("La listaProductos no puede ser nula");
+            return "La listaProductos no puede ser nula";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (listaProductos.getIdListaProductos() <= 0) {
-            mensaje += "El id de la listaProductos no puede ser menor o igual que 0\n";
+            mensaje.append("El id de la listaProductos no puede ser menor o igual que 0\n");
         }
-        if (listaProductos.getLista() == null || listaProductos.getLista().isEmpty()) {
-            mensaje += "La lista de productos de listaProductos no puede estar vacia o ser nula\n";
+        if (listaProductos.estaVacia()) {
+            mensaje.append("La lista de productos de listaProductos no puede estar vacia o ser nula\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida una listaProductos
+     * @param listaProductos a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(ListaProductos listaProductos) throws AlmacenException {
+        String mensaje = comprobar(listaProductos);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de listasProductos sin lanzar excepciones
+     * @param listasProductos a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<ListaProductos> validarTodos(List<ListaProductos> listasProductos) {
+        return ValidacionMasiva.validar(listasProductos, this::comprobar);
+    }
+
       //CRUD listaProductos
 
     /**
@@ -65,6 +88,19 @@ public class ListaProductosController {
         if(!existe(listaProductos)) listaProductosModelo.insertar(listaProductos);
         else throw new AlmacenException("La listaProductos ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de listasProductos e inserta las validas
+     * en una sola escritura por lotes. Las que ya existen en la bbdd, o estan
+     * repetidas en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param listasProductos a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<ListaProductos> insertarTodos(List<ListaProductos> listasProductos) throws BbddException {
+        return ValidacionMasiva.insertar(listasProductos, this::comprobar, listaProductosModelo,
+                "La listaProductos ya existe en la base de datos");
+    }
     /**
      * Metodo que elimina un listaProductos de la bbdd
      * @param listaProductos a eliminar
@@ -96,6 +132,16 @@ public class ListaProductosController {
         return listaProductosModelo.buscar(String.valueOf(idListaProductos));
     }
 
+    /**
+     * Funcion que busca varias listas de productos con consultas agrupadas
+     * @param idsListaProductos de las listas a buscar
+     * @return listas encontradas, ordenadas por id
+     * @throws BbddException controlado
+     */
+    public List<ListaProductos> buscarVarios(Collection<Integer> idsListaProductos) throws BbddException {
+        return listaProductosModelo.buscarVarios(idsListaProductos);
+    }
+
     /**
      * Funcion que obtiene el id mas alto de la lista de productos en la bbdd
      * @return idproducto mas alto
@@ -104,4 +150,15 @@ public class ListaProductosController {
     public int obtenerMaxIdListaProductos() throws BbddException {
         return listaProductosModelo.obtenerMaxIdListaProductos();
     }
+
+    /**
+     * Funcion que devuelve una pagina del listado de listas de productos ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de listas de productos
+     * @throws BbddException controlado
+     */
+    public Pagina<ListaProductos> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return listaProductosModelo.buscarPagina(cursor, limite);
+    }
 }
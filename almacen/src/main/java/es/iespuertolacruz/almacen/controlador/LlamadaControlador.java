@@ -0,0 +1,18 @@
+package es.iespuertolacruz.almacen.controlador;
+
+/**
+ * Llamada a un controlador que se ejecuta de forma asincrona
+ *
+ * @param <T> tipo del resultado
+ */
+@FunctionalInterface
+public interface LlamadaControlador<T> {
+
+    /**
+     * Funcion que realiza la llamada
+     *
+     * @return resultado de la llamada
+     * @throws Exception error del controlador
+     */
+    T ejecutar() throws Exception;
+}
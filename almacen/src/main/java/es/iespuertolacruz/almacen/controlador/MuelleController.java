@@ -1,10 +1,13 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.util.List;
+
 import es.iespuertolacruz.almacen.api.Muelle;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 import es.iespuertolacruz.almacen.modelo.MuelleModelo;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 
 public class MuelleController {
     
@@ -32,26 +35,45 @@ public class MuelleController {
     }
 
     /**
-     * Funcion que valida un muelle
-     * @param muelle a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba un muelle sin lanzar excepciones
+     * @param muelle a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Muelle muelle) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Muelle muelle) {
         if (muelle == null) {
-            throw new AlmacenException("El muelle no puede ser nulo");
+            return "El muelle no puede ser nulo";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (muelle.getIdMuelle() <= 0) {
-            mensaje += "El id del muelle no puede ser menor o igual que 0\n";
+            mensaje.append("El id del muelle no puede ser menor o igual que 0\n");
         }
         if (!Validaciones.validarZona(muelle.getIdZona())) {
-            mensaje += "El id de la zona debe estar entre la A y la Z";
+            mensaje.append("El id de la zona debe estar entre la A y la Z");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida un muelle
+     * @param muelle a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Muelle muelle) throws AlmacenException {
+        String mensaje = comprobar(muelle);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de muelles sin lanzar excepciones
+     * @param muelles a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Muelle> validarTodos(List<Muelle> muelles) {
+        return ValidacionMasiva.validar(muelles, this::comprobar);
+    }
+
      //CRUD muelle
 
     /**
@@ -65,6 +87,19 @@ public class MuelleController {
         if(!existe(muelle)) muelleModelo.insertar(muelle);
         else throw new AlmacenException("El muelle ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de muelles e inserta los validos
+     * en una sola escritura por lotes. Los que ya existen en la bbdd, o estan
+     * repetidos en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param muelles a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Muelle> insertarTodos(List<Muelle> muelles) throws BbddException {
+        return ValidacionMasiva.insertar(muelles, this::comprobar, muelleModelo,
+                "El muelle ya existe en la base de datos");
+    }
     /**
      * Metodo que elimina un muelle de la bbdd
      * @param muelle a eliminar
@@ -95,4 +130,15 @@ public class MuelleController {
     public Muelle buscar(int idMuelle) throws BbddException {
         return muelleModelo.buscar(String.valueOf(idMuelle));
     }
+
+    /**
+     * Funcion que devuelve una pagina del listado de muelles ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de muelles
+     * @throws BbddException controlado
+     */
+    public Pagina<Muelle> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return muelleModelo.buscarPagina(cursor, limite);
+    }
 }
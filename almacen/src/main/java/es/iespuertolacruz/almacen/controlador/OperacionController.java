@@ -1,13 +1,22 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import es.iespuertolacruz.almacen.api.ListaProductos;
 import es.iespuertolacruz.almacen.api.Operacion;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
+import es.iespuertolacruz.almacen.modelo.MotorMovimientos;
 import es.iespuertolacruz.almacen.modelo.OperacionModelo;
+import es.iespuertolacruz.almacen.modelo.Pagina;
+import es.iespuertolacruz.almacen.modelo.Transaccion;
 public class OperacionController {
 
     OperacionModelo operacionModelo;
+    MotorMovimientos motorMovimientos;
     ListaProductosController listaProductosController;
     MuelleController muelleController;
     EmpresaController empresaController;
@@ -22,6 +31,7 @@ public class OperacionController {
         muelleController = new MuelleController();
         empresaController = new EmpresaController();
         operacionModelo = new OperacionModelo();
+        motorMovimientos = new MotorMovimientos();
     }
 
     /**
@@ -35,47 +45,111 @@ public class OperacionController {
     }
 
     /**
-     * Funcion que valida una operacion
-     * @param operacion a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba una operacion sin lanzar excepciones
+     * @param operacion a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Operacion operacion) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Operacion operacion) {
         if (operacion == null) {
-            throw new AlmacenException("La operacion no puede ser nula");
+            return "La operacion no puede ser nula";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (operacion.getIdListaProductos() <= 0) {
-            mensaje += "El id de la lista de productos no puede ser menor o igual que 0\n";
+            mensaje.append("El id de la lista de productos no puede ser menor o igual que 0\n");
         }
         if (operacion.getIdMuelle() <= 0) {
-            mensaje += "El id del muelle no puede ser menor o igual que 0\n";
+            mensaje.append("El id del muelle no puede ser menor o igual que 0\n");
         }
-        if (operacion.getFecha() == null || !Validaciones.validarFecha(operacion.getFecha())) {
-            mensaje += "La fecha de la operacion no puede ser nula o no valida\n";
+        if (operacion.getFechaLocal() == null) {
+            mensaje.append("La fecha de la operacion no puede ser nula o no valida\n");
         }
         if (operacion.getTipoOperacion() == null || !Validaciones.validarTipoOperacion(operacion.getTipoOperacion())) {
-            mensaje += "El tipo de la operacion no puede ser nulo o no valido\n";
+            mensaje.append("El tipo de la operacion no puede ser nulo o no valido\n");
         }
         if (operacion.getCif() == null || !Validaciones.validarCif(operacion.getCif())) {
-            mensaje += "El cif de la operacion no puede ser nulo o no valido\n";
+            mensaje.append("El cif de la operacion no puede ser nulo o no valido\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida una operacion
+     * @param operacion a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Operacion operacion) throws AlmacenException {
+        String mensaje = comprobar(operacion);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de operaciones sin lanzar excepciones
+     * @param operaciones a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Operacion> validarTodos(List<Operacion> operaciones) {
+        return ValidacionMasiva.validar(operaciones, this::comprobar);
+    }
+
       //CRUD operacion
 
     /**
-     * Metodo que inserta un operacion en la bbdd
+     * Metodo que inserta un operacion en la bbdd y aplica el movimiento de stock
+     * de su lista de productos, que ya debe estar guardada, en una unica
+     * transaccion
      * @param operacion a insertar
      * @throws BbddException controlado
      * @throws AlmacenException controlado
      */
     public void insertar(Operacion operacion) throws BbddException, AlmacenException {
         validar(operacion);
-        if(!existe(operacion)) operacionModelo.insertar(operacion);
-        else throw new AlmacenException("La operacion ya existe en la base de datos");
+        Transaccion.ejecutar(transaccion -> {
+            ListaProductos listaProductos = listaProductosController.buscar(operacion.getIdListaProductos());
+            insertar(operacion, listaProductos);
+            return null;
+        });
+    }
+
+    /**
+     * Metodo que inserta una operacion y aplica el movimiento de stock de su
+     * lista de productos. Se llama dentro de una transaccion
+     * @param operacion a insertar
+     * @param listaProductos de la operacion
+     * @throws BbddException controlado
+     * @throws AlmacenException controlado
+     */
+    private void insertar(Operacion operacion, ListaProductos listaProductos) throws BbddException, AlmacenException {
+        if (existe(operacion)) {
+            throw new AlmacenException("La operacion ya existe en la base de datos");
+        }
+        if (listaProductos == null) {
+            throw new AlmacenException("La lista de productos de la operacion no existe en la base de datos");
+        }
+        operacionModelo.insertar(operacion);
+        motorMovimientos.aplicar(operacion, listaProductos);
+    }
+
+    /**
+     * Metodo que registra una operacion junto con su lista de productos y aplica
+     * su movimiento de stock en una unica transaccion, de modo que no se guarda
+     * nada si falla alguno de los pasos
+     * @param operacion a insertar
+     * @param listaProductos de la operacion
+     * @throws BbddException controlado
+     * @throws AlmacenException controlado
+     */
+    public void registrar(Operacion operacion, ListaProductos listaProductos) throws BbddException, AlmacenException {
+        validar(operacion);
+        if (listaProductos == null || listaProductos.getIdListaProductos() != operacion.getIdListaProductos()) {
+            throw new AlmacenException("La lista de productos no corresponde con la operacion");
+        }
+        Transaccion.ejecutar(transaccion -> {
+            listaProductosController.insertar(listaProductos);
+            insertar(operacion, listaProductos);
+            return null;
+        });
     }
     /**
      * Metodo que elimina un operacion de la bbdd
@@ -116,4 +190,39 @@ public class OperacionController {
     public Operacion buscar(String idListaProductos) throws BbddException {
         return operacionModelo.buscar(idListaProductos);
     }
+
+    /**
+     * Funcion que devuelve una pagina del listado de operaciones ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de operaciones
+     * @throws BbddException controlado
+     */
+    public Pagina<Operacion> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return operacionModelo.buscarPagina(cursor, limite);
+    }
+
+    /**
+     * Funcion que busca las operaciones entre dos fechas, ambas incluidas
+     * @param desde fecha inicial
+     * @param hasta fecha final
+     * @return operaciones ordenadas por fecha
+     * @throws BbddException controlado
+     */
+    public ArrayList<Operacion> buscarEntre(LocalDate desde, LocalDate hasta) throws BbddException {
+        return operacionModelo.buscarEntre(desde, hasta);
+    }
+
+    /**
+     * Funcion que busca las operaciones de una empresa entre dos fechas, ambas incluidas
+     * @param cif de la empresa
+     * @param desde fecha inicial
+     * @param hasta fecha final
+     * @return operaciones ordenadas por fecha
+     * @throws BbddException controlado
+     */
+    public ArrayList<Operacion> buscarPorEmpresaYRango(String cif, LocalDate desde, LocalDate hasta)
+            throws BbddException {
+        return operacionModelo.buscarPorEmpresaYRango(cif, desde, hasta);
+    }
 }
@@ -1,11 +1,13 @@
 package es.iespuertolacruz.almacen.controlador;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import es.iespuertolacruz.almacen.api.Producto;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 import es.iespuertolacruz.almacen.modelo.ProductoModelo;
 
 public class ProductoController {
@@ -32,32 +34,53 @@ public class ProductoController {
     }
 
     /**
-     * Funcion que valida un producto
-     * @param producto a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba un producto sin lanzar excepciones
+     * @param producto a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Producto producto) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Producto producto) {
         if (producto == null) {
-            throw new AlmacenException("El producto no puede ser nulo");
+            return "El producto no puede ser nulo";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (producto.getIdProducto() < 1) {
-            mensaje += "El id del producto no puede ser inferior a 1\n";
+            mensaje.append("El id del producto no puede ser inferior a 1\n");
         }
         if (producto.getNombre() == null || producto.getNombre().isEmpty()) {
-            mensaje += "El nombre del producto no puede ser nulo o vacio\n";
+            mensaje.append("El nombre del producto no puede ser nulo o vacio\n");
         }
-        if (producto.getPrecioUnitario() <= 0) {
-            mensaje += "El precio del producto no puede ser menor o igual que 0\n";
+        if (producto.getPrecio() == null) {
+            mensaje.append("El precio del producto no puede ser nulo\n");
+        } else if (!producto.getPrecio().esPositivo()) {
+            mensaje.append("El precio del producto no puede ser menor o igual que 0\n");
         }
         if (producto.getTipo() == null || !Validaciones.validarTipoProducto(producto.getTipo())) {
-            mensaje += "El tipo del producto no puede ser nulo o no valido\n";
+            mensaje.append("El tipo del producto no puede ser nulo o no valido\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida un producto
+     * @param producto a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Producto producto) throws AlmacenException {
+        String mensaje = comprobar(producto);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de productos sin lanzar excepciones
+     * @param productos a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Producto> validarTodos(List<Producto> productos) {
+        return ValidacionMasiva.validar(productos, this::comprobar);
+    }
+
      //CRUD producto
 
     /**
@@ -71,6 +94,20 @@ public class ProductoController {
         if(!existe(producto)) productoModelo.insertar(producto);
         else throw new AlmacenException("El producto ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de productos e inserta los validos
+     * en una sola escritura por lotes. Los que ya existen en la bbdd, o estan
+     * repetidos en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param productos a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Producto> insertarTodos(List<Producto> productos) throws BbddException {
+        return ValidacionMasiva.insertar(productos, this::comprobar, productoModelo,
+                "El producto ya existe en la base de datos");
+    }
+
     /**
      * Metodo que elimina un producto de la bbdd
      * @param producto a eliminar
@@ -128,4 +165,15 @@ public class ProductoController {
     public int obtenerIdUltimo() throws BbddException {
         return productoModelo.obtenerIdUltimo();
     }
+
+    /**
+     * Funcion que devuelve una pagina del listado de productos ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de productos
+     * @throws BbddException controlado
+     */
+    public Pagina<Producto> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return productoModelo.buscarPagina(cursor, limite);
+    }
 }
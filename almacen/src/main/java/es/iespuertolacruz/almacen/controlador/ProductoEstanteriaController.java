@@ -1,9 +1,13 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.util.List;
+
 import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.api.ResumenInventario;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 import es.iespuertolacruz.almacen.modelo.ProductoEstanteriaModelo;
 
 public class ProductoEstanteriaController {
@@ -35,29 +39,48 @@ public class ProductoEstanteriaController {
     }
 
     /**
-     * Funcion que valida un productoEstanteria
-     * @param productoEstanteria a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba un productoEstanteria sin lanzar excepciones
+     * @param productoEstanteria a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(ProductoEstanteria productoEstanteria) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(ProductoEstanteria productoEstanteria) {
         if (productoEstanteria == null) {
-            throw new AlmacenException("El productoEstanteria no puede ser nulo");
+            return "El productoEstanteria no puede ser nulo";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (productoEstanteria.getIdProducto() <= 0) {
-            mensaje += "El id del producto no puede ser menor o igual que 0\n";
+            mensaje.append("El id del producto no puede ser menor o igual que 0\n");
         }
         if (productoEstanteria.getIdEstanteria() <= 0) {
-            mensaje += "El id de la estanteria no puede ser menor o igual que 0\n";
+            mensaje.append("El id de la estanteria no puede ser menor o igual que 0\n");
         }
         if (productoEstanteria.getCantidad() <= 0) {
-            mensaje += "La cantidad de productos no puede ser menor o igual que 0\n";
+            mensaje.append("La cantidad de productos no puede ser menor o igual que 0\n");
         }
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida un productoEstanteria
+     * @param productoEstanteria a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(ProductoEstanteria productoEstanteria) throws AlmacenException {
+        String mensaje = comprobar(productoEstanteria);
         if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de productosEstanteria sin lanzar excepciones
+     * @param productosEstanteria a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<ProductoEstanteria> validarTodos(List<ProductoEstanteria> productosEstanteria) {
+        return ValidacionMasiva.validar(productosEstanteria, this::comprobar);
+    }
+
     /**
      * Metodo que inserta un productoEstanteria en la bbdd
      * 
@@ -73,6 +96,19 @@ public class ProductoEstanteriaController {
             throw new AlmacenException("El producto estanteria ya existe en la base de datos");
     }
 
+    /**
+     * Funcion que valida en paralelo una lista de productosEstanteria e inserta los validos
+     * en una sola escritura por lotes. Los que ya existen en la bbdd, o estan
+     * repetidos en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param productosEstanteria a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<ProductoEstanteria> insertarTodos(List<ProductoEstanteria> productosEstanteria) throws BbddException {
+        return ValidacionMasiva.insertar(productosEstanteria, this::comprobar, productoEstanteriaModelo,
+                "El producto estanteria ya existe en la base de datos");
+    }
+
     /**
      * Metodo que elimina un productoEstanteria de la bbdd
      * 
@@ -114,6 +150,18 @@ public class ProductoEstanteriaController {
         return productoEstanteriaModelo.buscar(String.valueOf(idProducto), String.valueOf(idEstanteria));
     }
 
+    /**
+     * Funcion que obtiene la cantidad de un producto en una estanteria
+     * 
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     * @return cantidad o -1 si el producto no esta en la estanteria
+     * @throws BbddException controlado
+     */
+    public int obtenerCantidad(int idProducto, int idEstanteria) throws BbddException {
+        return productoEstanteriaModelo.obtenerCantidad(idProducto, idEstanteria);
+    }
+
     /**
      * Funcion que obtiene el valor total de todos los productos en el almacen
      * @return valor total
@@ -148,6 +196,29 @@ public class ProductoEstanteriaController {
      * @throws BbddException controlado
      */
     public Integer[] obtenerHuecos() throws BbddException {
-        return new Integer[] { obtenerHuecosOcupados(), obtenerHuecosTotales() };
+        ResumenInventario resumen = productoEstanteriaModelo.obtenerResumen();
+        return new Integer[] { resumen.getHuecosOcupados(), resumen.getHuecosTotales() };
+    }
+
+    /**
+     * Funcion que obtiene el valor total y los huecos de una zona del almacen
+     * 
+     * @param idZona de la zona
+     * @return resumen del inventario de la zona
+     * @throws BbddException controlado
+     */
+    public ResumenInventario obtenerResumen(char idZona) throws BbddException {
+        return productoEstanteriaModelo.obtenerResumen(String.valueOf(idZona));
+    }
+
+    /**
+     * Funcion que devuelve una pagina del listado de productos en estanterias ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de productos en estanterias
+     * @throws BbddException controlado
+     */
+    public Pagina<ProductoEstanteria> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return productoEstanteriaModelo.buscarPagina(cursor, limite);
     }
 }
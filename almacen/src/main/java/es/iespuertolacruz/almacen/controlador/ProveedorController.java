@@ -1,11 +1,13 @@
 package es.iespuertolacruz.almacen.controlador;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import es.iespuertolacruz.almacen.api.Proveedor;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 import es.iespuertolacruz.almacen.modelo.ProveedorModelo;
 
 public class ProveedorController {
@@ -34,26 +36,45 @@ public class ProveedorController {
     }
 
     /**
-     * Funcion que valida un proveedor
-     * @param proveedor a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba un proveedor sin lanzar excepciones
+     * @param proveedor a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Proveedor proveedor) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Proveedor proveedor) {
         if (proveedor == null) {
-            throw new AlmacenException("El proveedor no puede ser nulo");
+            return "El proveedor no puede ser nulo";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (proveedor.getCif() == null || !Validaciones.validarCif(proveedor.getCif())) {
-            mensaje += "El cif del proveedor no puede ser nulo o no valido\n";
+            mensaje.append("El cif del proveedor no puede ser nulo o no valido\n");
         }
         if (proveedor.getTipoProducto() == null || !Validaciones.validarTipoProducto(proveedor.getTipoProducto())) {
-            mensaje += "El tipo de producto del proveedor no puede ser nulo o no valido\n";
+            mensaje.append("El tipo de producto del proveedor no puede ser nulo o no valido\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida un proveedor
+     * @param proveedor a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Proveedor proveedor) throws AlmacenException {
+        String mensaje = comprobar(proveedor);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de proveedores sin lanzar excepciones
+     * @param proveedores a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Proveedor> validarTodos(List<Proveedor> proveedores) {
+        return ValidacionMasiva.validar(proveedores, this::comprobar);
+    }
+
      /**
      * Metodo que inserta un proveedor en la bbdd
      * @param proveedor a insertar
@@ -65,6 +86,19 @@ public class ProveedorController {
         if(!existe(proveedor)) proveedorModelo.insertar(proveedor);
         else throw new AlmacenException("El proveedor ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de proveedores e inserta los validos
+     * en una sola escritura por lotes. Los que ya existen en la bbdd, o estan
+     * repetidos en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param proveedores a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Proveedor> insertarTodos(List<Proveedor> proveedores) throws BbddException {
+        return ValidacionMasiva.insertar(proveedores, this::comprobar, proveedorModelo,
+                "El proveedor ya existe en la base de datos");
+    }
     /**
      * Metodo que elimina un proveedor de la bbdd
      * @param proveedor a eliminar
@@ -104,5 +138,14 @@ public class ProveedorController {
         return proveedorModelo.buscarTodos();
     }
 
-
+    /**
+     * Funcion que devuelve una pagina del listado de proveedores ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de proveedores
+     * @throws BbddException controlado
+     */
+    public Pagina<Proveedor> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return proveedorModelo.buscarPagina(cursor, limite);
+    }
 }
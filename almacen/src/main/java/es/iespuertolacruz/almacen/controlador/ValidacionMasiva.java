@@ -0,0 +1,185 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.modelo.InsercionMasiva;
+
+/**
+ * Validacion de listas de elementos en paralelo. La lista se divide en tramos
+ * que se comprueban en el ForkJoinPool comun y los errores de cada tramo se
+ * guardan en arrays de posiciones y mensajes, que se unen en orden. No se
+ * lanza ninguna excepcion por elemento: el resultado es un InformeValidacion.
+ */
+public class ValidacionMasiva {
+
+    private static final int UMBRAL = 1024;
+
+    /**
+     * Interfaz de la comprobacion de un elemento
+     *
+     * @param <T> tipo del elemento
+     */
+    @FunctionalInterface
+    public interface Comprobacion<T> {
+        /**
+         * Funcion que comprueba un elemento
+         * @param elemento a comprobar
+         * @return errores del elemento o cadena vacia si es valido
+         */
+        String comprobar(T elemento);
+    }
+
+    private ValidacionMasiva() {
+    }
+
+    /**
+     * Funcion que comprueba en paralelo todos los elementos de una lista
+     * @param <T>         tipo de los elementos
+     * @param elementos   a comprobar
+     * @param comprobacion de cada elemento
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public static <T> InformeValidacion<T> validar(List<T> elementos, Comprobacion<T> comprobacion) {
+        List<T> lista = elementos instanceof RandomAccess ? elementos : new ArrayList<>(elementos);
+        Errores errores = lista.size() <= UMBRAL ? comprobarTramo(lista, comprobacion, 0, lista.size())
+                : ForkJoinPool.commonPool().invoke(new Tarea<>(lista, comprobacion, 0, lista.size()));
+        List<T> validos = new ArrayList<>(lista.size() - errores.numero);
+        int siguienteError = 0;
+        for (int i = 0; i < lista.size(); i++) {
+            if (siguienteError < errores.numero && errores.indices[siguienteError] == i) {
+                siguienteError++;
+            } else {
+                validos.add(lista.get(i));
+            }
+        }
+        return new InformeValidacion<>(lista.size(), Arrays.copyOf(errores.indices, errores.numero),
+                Arrays.copyOf(errores.mensajes, errores.numero), validos);
+    }
+
+    /**
+     * Funcion que comprueba en paralelo una lista de elementos e inserta por
+     * lotes los validos. Los elementos cuya clave ya existe en la bbdd, o
+     * aparece antes en la lista, se anaden al informe con el mensaje indicado
+     * en lugar de hacer fallar el lote
+     * @param <T>             tipo de los elementos
+     * @param elementos       a insertar
+     * @param comprobacion    de cada elemento
+     * @param modelo          que inserta los elementos
+     * @param mensajeRepetido error de los elementos que ya existen
+     * @return informe con los errores de cada posicion y los elementos insertados
+     * @throws BbddException controlado
+     */
+    public static <T> InformeValidacion<T> insertar(List<T> elementos, Comprobacion<T> comprobacion,
+            InsercionMasiva<T> modelo, String mensajeRepetido) throws BbddException {
+        InformeValidacion<T> informe = validar(elementos, comprobacion);
+        informe = informe.rechazar(modelo.repetidos(informe.getValidos()), mensajeRepetido);
+        modelo.insertarTodos(informe.getValidos());
+        return informe;
+    }
+
+    /**
+     * Funcion que comprueba los elementos de un tramo de la lista
+     * @param <T>          tipo de los elementos
+     * @param lista        de elementos
+     * @param comprobacion de cada elemento
+     * @param desde        posicion inicial, incluida
+     * @param hasta        posicion final, excluida
+     * @return errores del tramo en orden
+     */
+    private static <T> Errores comprobarTramo(List<T> lista, Comprobacion<T> comprobacion, int desde, int hasta) {
+        Errores errores = new Errores();
+        for (int i = desde; i < hasta; i++) {
+            String mensaje = comprobacion.comprobar(lista.get(i));
+            if (mensaje != null && !mensaje.isBlank()) {
+                errores.anadir(i, mensaje);
+            }
+        }
+        return errores;
+    }
+
+    /**
+     * Tarea que divide un tramo en dos mitades hasta llegar al umbral
+     *
+     * @param <T> tipo de los elementos
+     */
+    private static class Tarea<T> extends RecursiveTask<Errores> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<T> lista;
+        private final transient Comprobacion<T> comprobacion;
+        private final int desde;
+        private final int hasta;
+
+        Tarea(List<T> lista, Comprobacion<T> comprobacion, int desde, int hasta) {
+            this.lista = lista;
+            this.comprobacion = comprobacion;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Errores compute() {
+            if (hasta - desde <= UMBRAL) {
+                return comprobarTramo(lista, comprobacion, desde, hasta);
+            }
+            int mitad = (desde + hasta) >>> 1;
+            Tarea<T> derecha = new Tarea<>(lista, comprobacion, mitad, hasta);
+            derecha.fork();
+            Errores errores = new Tarea<>(lista, comprobacion, desde, mitad).compute();
+            errores.unir(derecha.join());
+            return errores;
+        }
+    }
+
+    /**
+     * Errores de un tramo en dos arrays paralelos de posiciones y mensajes
+     */
+    private static class Errores {
+
+        int[] indices = new int[0];
+        String[] mensajes = new String[0];
+        int numero;
+
+        /**
+         * Metodo que anade el error de una posicion
+         * @param indice  del elemento
+         * @param mensaje de error
+         */
+        void anadir(int indice, String mensaje) {
+            reservar(numero + 1);
+            indices[numero] = indice;
+            mensajes[numero] = mensaje;
+            numero++;
+        }
+
+        /**
+         * Metodo que anade al final los errores de un tramo posterior
+         * @param otros errores del tramo posterior
+         */
+        void unir(Errores otros) {
+            reservar(numero + otros.numero);
+            System.arraycopy(otros.indices, 0, indices, numero, otros.numero);
+            System.arraycopy(otros.mensajes, 0, mensajes, numero, otros.numero);
+            numero += otros.numero;
+        }
+
+        /**
+         * Metodo que amplia los arrays para que quepa un numero de errores
+         * @param capacidad minima
+         */
+        private void reservar(int capacidad) {
+            if (capacidad > indices.length) {
+                int nueva = Math.max(capacidad, Math.max(4, indices.length * 2));
+                indices = Arrays.copyOf(indices, nueva);
+                mensajes = Arrays.copyOf(mensajes, nueva);
+            }
+        }
+    }
+}
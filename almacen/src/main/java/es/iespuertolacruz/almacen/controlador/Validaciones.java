@@ -1,10 +1,20 @@
 package es.iespuertolacruz.almacen.controlador;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Validaciones de formato de los controladores. Los formatos fijos (zona, cif,
+ * telefono, fecha y tipos) se comprueban recorriendo los caracteres, sin
+ * expresiones regulares ni objetos intermedios. El correo usa un patron
+ * compilado una sola vez.
+ */
 public class Validaciones {
 
+    private static final Pattern PATRON_CORREO = Pattern.compile(".+@.+\\..+");
+    private static final int LONGITUD_CIF = 9;
+    private static final int LONGITUD_TELEFONO = 9;
+    private static final int LONGITUD_FECHA = 10;
+
     private Validaciones(){}
 
     /**
@@ -13,19 +23,60 @@ public class Validaciones {
      * @param valor a comprobar
      * @return true/false se cumple o no
      */
-    private static boolean validar(String patron, String valor) {
-        Pattern pattern = Pattern.compile(patron);
-        Matcher matcher = pattern.matcher(valor);
-        return matcher.matches();
+    private static boolean validar(Pattern patron, String valor) {
+        return valor != null && patron.matcher(valor).matches();
+    }
+
+    /**
+     * Funcion que comprueba si un caracter es un digito del 0 al 9
+     * @param caracter a comprobar
+     * @return true/false es digito o no
+     */
+    private static boolean esDigito(char caracter) {
+        return caracter >= '0' && caracter <= '9';
     }
-    
+
+    /**
+     * Funcion que comprueba si un caracter es una letra mayuscula de la A a la Z
+     * @param caracter a comprobar
+     * @return true/false es mayuscula o no
+     */
+    private static boolean esMayuscula(char caracter) {
+        return caracter >= 'A' && caracter <= 'Z';
+    }
+
+    /**
+     * Funcion que comprueba si un tramo de un texto son todo digitos
+     * @param valor a comprobar
+     * @param desde posicion inicial incluida
+     * @param hasta posicion final excluida
+     * @return true/false son digitos o no
+     */
+    private static boolean sonDigitos(String valor, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (!esDigito(valor.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Funcion que comprueba si un caracter separa las partes de una fecha
+     * @param caracter a comprobar
+     * @return true/false es - o /
+     */
+    private static boolean esSeparadorFecha(char caracter) {
+        return caracter == '-' || caracter == '/';
+    }
+
     /**
      * Funcion que comprueba si un id de zona es valido
      * @param idZona a validar
      * @return true/false es valido o no
      */
     public static boolean validarZona(char idZona) {
-        return validar("[A-Z]", String.valueOf(idZona));
+        return esMayuscula(idZona);
     }
 
     /**
@@ -34,7 +85,8 @@ public class Validaciones {
      * @return true/false es valido o no
      */
     public static boolean validarCif(String cif) {
-        return validar("[A-Z][0-9]{8}", cif);
+        return cif != null && cif.length() == LONGITUD_CIF && esMayuscula(cif.charAt(0))
+                && sonDigitos(cif, 1, LONGITUD_CIF);
     }
 
     /**
@@ -43,7 +95,7 @@ public class Validaciones {
      * @return true/false es valido o no
      */
     public static boolean validarTipoProducto(String tipoProducto) {
-        return validar("Normal|Frio|Congelados", tipoProducto);
+        return "Normal".equals(tipoProducto) || "Frio".equals(tipoProducto) || "Congelados".equals(tipoProducto);
     }
 
     /**
@@ -52,7 +104,8 @@ public class Validaciones {
      * @return true/false es valido o no
      */
     public static boolean validarTelefono(String telefono) {
-        return validar("[0-9]{9}", telefono);
+        return telefono != null && telefono.length() == LONGITUD_TELEFONO
+                && sonDigitos(telefono, 0, LONGITUD_TELEFONO);
     }
 
     /**
@@ -61,7 +114,7 @@ public class Validaciones {
      * @return true/false es valido o no
      */
     public static boolean validarCorreo(String correo) {
-        return validar(".+@.+\\..+", correo);
+        return validar(PATRON_CORREO, correo);
     }
 
     /**
@@ -70,7 +123,14 @@ public class Validaciones {
      * @return true/false es valida o no
      */
     public static boolean validarFecha(String fecha) {
-        return validar("[0-9]{4}[-/][0-9]{2}[-/][0-9]{2}|[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}", fecha);
+        if (fecha == null || fecha.length() != LONGITUD_FECHA) {
+            return false;
+        }
+        if (esSeparadorFecha(fecha.charAt(4)) && esSeparadorFecha(fecha.charAt(7))) {
+            return sonDigitos(fecha, 0, 4) && sonDigitos(fecha, 5, 7) && sonDigitos(fecha, 8, 10);
+        }
+        return esSeparadorFecha(fecha.charAt(2)) && esSeparadorFecha(fecha.charAt(5)) && sonDigitos(fecha, 0, 2)
+                && sonDigitos(fecha, 3, 5) && sonDigitos(fecha, 6, 10);
     }
 
     /**
@@ -79,6 +139,6 @@ public class Validaciones {
      * @return true/false es valido o no
      */
     public static boolean validarTipoOperacion(String tipoOperacion) {
-        return validar("Entrada|Salida", tipoOperacion);
+        return "Entrada".equals(tipoOperacion) || "Salida".equals(tipoOperacion);
     }
 }
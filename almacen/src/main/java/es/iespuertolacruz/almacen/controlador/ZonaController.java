@@ -1,9 +1,12 @@
 package es.iespuertolacruz.almacen.controlador;
 
+import java.util.List;
+
 import es.iespuertolacruz.almacen.api.Zona;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 import es.iespuertolacruz.almacen.modelo.ZonaModelo;
 
 public class ZonaController {
@@ -30,26 +33,45 @@ public class ZonaController {
     }
 
     /**
-     * Funcion que valida una zona
-     * @param zona a validar
-     * @throws AlmacenException controlado
+     * Funcion que comprueba una zona sin lanzar excepciones
+     * @param zona a comprobar
+     * @return errores encontrados, uno por linea, o cadena vacia si es valido
      */
-    public void validar(Zona zona) throws AlmacenException {
-        String mensaje = "";
+    public String comprobar(Zona zona) {
         if (zona == null) {
-            throw new AlmacenException("La zona no puede ser nula");
+            return "La zona no puede ser nula";
         }
+        StringBuilder mensaje = new StringBuilder();
         if (!Validaciones.validarZona(zona.getIdZona())) {
-            mensaje += "El id de la zona debe estar entre la A y la Z\n";
+            mensaje.append("El id de la zona debe estar entre la A y la Z\n");
         }
         if (zona.getTipo() == null || !Validaciones.validarTipoProducto(zona.getTipo())) {
-            mensaje += "El tipo de la zona no puede ser nulo o no valido\n";
+            mensaje.append("El tipo de la zona no puede ser nulo o no valido\n");
         }
-        if(!mensaje.isBlank()) {
+        return mensaje.toString();
+    }
+
+    /**
+     * Funcion que valida una zona
+     * @param zona a validar
+     * @throws AlmacenException controlado
+     */
+    public void validar(Zona zona) throws AlmacenException {
+        String mensaje = comprobar(zona);
+        if (!mensaje.isBlank()) {
             throw new AlmacenException(mensaje);
         }
     }
 
+    /**
+     * Funcion que comprueba en paralelo una lista de zonas sin lanzar excepciones
+     * @param zonas a comprobar
+     * @return informe con los errores de cada posicion y los elementos validos
+     */
+    public InformeValidacion<Zona> validarTodos(List<Zona> zonas) {
+        return ValidacionMasiva.validar(zonas, this::comprobar);
+    }
+
     /**
      * Metodo que inserta una zona en la bbdd
      * @param zona a insertar
@@ -61,6 +83,19 @@ public class ZonaController {
         if(!existe(zona)) zonaModelo.insertar(zona);
         else throw new AlmacenException("La zona ya existe en la base de datos");
     }
+
+    /**
+     * Funcion que valida en paralelo una lista de zonas e inserta las validas
+     * en una sola escritura por lotes. Las que ya existen en la bbdd, o estan
+     * repetidas en la lista, se anaden al informe en lugar de hacer fallar el lote
+     * @param zonas a insertar
+     * @return informe con los errores de cada posicion
+     * @throws BbddException controlado
+     */
+    public InformeValidacion<Zona> insertarTodos(List<Zona> zonas) throws BbddException {
+        return ValidacionMasiva.insertar(zonas, this::comprobar, zonaModelo,
+                "La zona ya existe en la base de datos");
+    }
     /**
      * Metodo que elimina una zona de la bbdd
      * @param zona a eliminar
@@ -92,4 +127,14 @@ public class ZonaController {
         return zonaModelo.buscar(String.valueOf(idZona));
     }
 
+    /**
+     * Funcion que devuelve una pagina del listado de zonas ordenado por su clave
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de zonas
+     * @throws BbddException controlado
+     */
+    public Pagina<Zona> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        return zonaModelo.buscarPagina(cursor, limite);
+    }
 }
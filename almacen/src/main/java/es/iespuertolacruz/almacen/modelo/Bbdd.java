@@ -1,13 +1,23 @@
 package es.iespuertolacruz.almacen.modelo;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
@@ -15,6 +25,10 @@ import es.iespuertolacruz.almacen.exception.FicheroException;
 public class Bbdd {
 
     private static final String SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA = "Se ha producido un error realizando la consulta";
+    private static final Map<String, PoolConexiones> POOLS = new ConcurrentHashMap<>();
+    private static final Logger LOGGER = Logger.getLogger(Bbdd.class.getName());
+    static final int TAMANIO_LOTE = 1000;
+    private static final int MAXIMO_FILAS_SENTENCIA = 500;
 
     protected String nombreTabla;
     protected String clave;
@@ -22,6 +36,9 @@ public class Bbdd {
     protected String url;
     protected String usuario;
     protected String password;
+    protected PoolConexiones pool;
+    protected CarrilEscritura carril;
+    protected Dialecto dialecto;
 
     /**
      * Constructor de la clase
@@ -43,75 +60,194 @@ public class Bbdd {
         this.url = url;
         this.usuario = usuario;
         this.password = password;
-        inicializarTabla(nombreTabla);
+        this.pool = POOLS.computeIfAbsent(claveBbdd(driver, url, usuario),
+                k -> new PoolConexiones(this::crearConexion, ConfiguracionPool.desdePropiedades()));
+        this.carril = crearCarril();
+        this.dialecto = crearDialecto();
+        GestorEsquema.asegurar(this);
     }
 
     /**
-     * Metodo que carga las tablas e inserciones en la base de datos
+     * Funcion que realiza las inserciones en las tablas. Todo el script se
+     * ejecuta en lotes sobre una unica conexion y una unica transaccion, de modo
+     * que si falla una sentencia no se inserta ninguna
      * 
-     * @param driver de la base de datos
-     * @throws BbddException    controlado
-     * @throws FicheroException controlado
+     * @param cadena de texto que contiene las inserciones
+     * @return numero de filas insertadas
+     * @throws BbddException controlado
      */
-    private void inicializarTabla(String nombreTabla) throws BbddException, FicheroException {
-        DatabaseMetaData databaseMetaData;
-        Connection connection = null;
-        ResultSet resultSet = null;
-        ArrayList<String> listaTablas = new ArrayList<>();
-        try {
-            connection = getConnection();
-            databaseMetaData = connection.getMetaData();
-            resultSet = databaseMetaData.getTables(null, null, null, new String[] {"TABLE"});
-            while (resultSet.next()) {
-                listaTablas.add(resultSet.getString("TABLE_NAME"));
-            }
-            if (!listaTablas.contains(nombreTabla)) {
-                String crearTabla = new Fichero().leer("resources/sql/sqlite/" + nombreTabla + ".crear.sql");
-                actualizar(crearTabla);
-                String insertElemento = new Fichero().leer("resources/sql/sqlite/" + nombreTabla + ".insertar.sql");
-                insertarElementos(insertElemento);
+    protected int insertarElementos(String cadena) throws BbddException {
+        List<String> sentencias = GestorEsquema.dividirSentencias(cadena);
+        if (sentencias.isEmpty()) {
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        int insertadas = escribir(connection -> {
+            int filas = 0;
+            try (Statement statement = connection.createStatement()) {
+                for (int i = 0; i < sentencias.size(); i++) {
+                    statement.addBatch(sentencias.get(i));
+                    if ((i + 1) % TAMANIO_LOTE == 0 || i == sentencias.size() - 1) {
+                        filas += contarFilas(statement.executeBatch());
+                    }
+                }
             }
+            return filas;
+        });
+        long milisegundos = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        LOGGER.info(() -> "Insertadas " + insertadas + " filas en " + milisegundos + " ms ("
+                + (insertadas * 1000L / milisegundos) + " filas/s)");
+        return insertadas;
+    }
 
-        } catch (Exception e) {
-            throw new BbddException("Se ha producido un error en la inicializacion de la BBDD", e);
-        } finally {
-            closeConnection(connection, null, resultSet);
+    /**
+     * Funcion que suma las filas afectadas por un lote. Las sentencias de las que
+     * el driver no informa cuentan como una fila
+     * 
+     * @param resultados de executeBatch
+     * @return filas afectadas
+     */
+    private static int contarFilas(int[] resultados) {
+        int filas = 0;
+        for (int resultado : resultados) {
+            filas += resultado == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, resultado);
         }
+        return filas;
     }
 
     /**
-     * Metodo que realiza las inserciones en las tablas
-     * 
-     * @param cadena de texto que contiene las inserciones
-     * @throws BbddException controlado
+     * Funcion que genera la clave con la que se comparte el pool entre todas las
+     * instancias que apuntan a la misma bbdd
+     *
+     * @param driver  de la bbdd
+     * @param url     de la bbdd
+     * @param usuario de la bbdd
+     * @return clave del pool
      */
-    protected void insertarElementos(String cadena) throws BbddException {
-        String[] cadenaSeparada = cadena.split(";");
-        for (String sentencia : cadenaSeparada) {
-            actualizar(sentencia);
+    private static String claveBbdd(String driver, String url, String usuario) {
+        return driver + "|" + url + "|" + usuario;
+    }
+
+    /**
+     * Funcion encargada de abrir una conexion fisica con la BBDD. Solo la utiliza
+     * el pool cuando necesita una conexion nueva
+     *
+     * @return la conexion fisica
+     * @throws SQLException error de la bbdd
+     */
+    protected Connection crearConexion() throws SQLException {
+        try {
+            Class.forName(driver);
+        } catch (ClassNotFoundException exception) {
+            throw new SQLException("No se ha encontrado el driver " + driver, exception);
+        }
+        if (usuario == null || password == null) {
+            return DriverManager.getConnection(url);
         }
+        return DriverManager.getConnection(url, usuario, password);
+    }
+
+    /**
+     * Funcion que crea el carril de escritura de la bbdd. Por defecto no hay
+     * carril y cada escritura usa una conexion del pool
+     *
+     * @return carril de escritura o null
+     */
+    protected CarrilEscritura crearCarril() {
+        return null;
+    }
+
+    /**
+     * Funcion que crea el dialecto SQL de la bbdd. Por defecto el de SQLite
+     *
+     * @return dialecto de la bbdd
+     */
+    protected Dialecto crearDialecto() {
+        return new DialectoSqlite();
     }
 
     /**
-     * Funcion encargada de realizar la conexion con la BBDD
+     * Funcion que obtiene el directorio con los scripts de creacion y las
+     * migraciones en el dialecto de la bbdd
+     *
+     * @return directorio de los scripts sql
+     */
+    protected String getDirectorioSql() {
+        return GestorEsquema.DIRECTORIO_SQL;
+    }
+
+    /**
+     * Funcion encargada de obtener una conexion del pool de la BBDD. Al cerrarla
+     * vuelve al pool. Si el hilo tiene una transaccion activa se devuelve la
+     * conexion de la transaccion
      * 
      * @return la coneccion
      * @throws BbddException controlado
      */
     protected Connection getConnection() throws BbddException {
-        Connection connection = null;
+        Transaccion transaccion = Transaccion.actual();
+        if (transaccion != null) {
+            return transaccion.getConexion(this);
+        }
+        return pool.obtener();
+    }
 
+    /**
+     * Funcion que ejecuta una escritura de forma atomica. Dentro de una
+     * transaccion usa su conexion; si la bbdd tiene carril de escritura se
+     * encola en el; y en otro caso usa una conexion del pool con su propia
+     * transaccion
+     * 
+     * @param tarea de escritura
+     * @return resultado de la tarea
+     * @throws BbddException controlado
+     */
+    protected <T> T escribir(TareaEscritura<T> tarea) throws BbddException {
+        Transaccion transaccion = Transaccion.actual();
+        if (transaccion == null && carril != null) {
+            return carril.enviar(tarea);
+        }
+        Connection connection = null;
         try {
-            Class.forName(driver);
-            if (usuario == null || password == null) {
-                connection = DriverManager.getConnection(url);
-            } else {
-                DriverManager.getConnection(url, usuario, password);
+            connection = getConnection();
+            boolean local = connection.getAutoCommit();
+            if (local) {
+                connection.setAutoCommit(false);
             }
-        } catch (Exception exception) {
-            throw new BbddException("No se ha podido establecer la coneccion con la BBDD", exception);
+            T resultado = tarea.ejecutar(connection);
+            if (local) {
+                connection.commit();
+            }
+            return resultado;
+        } catch (SQLException exception) {
+            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
+        } finally {
+            closeConnection(connection, null, null);
         }
-        return connection;
+    }
+
+    /**
+     * Funcion getter del pool de conexiones de la bbdd
+     * @return pool de conexiones
+     */
+    public PoolConexiones getPool() {
+        return this.pool;
+    }
+
+    /**
+     * Funcion getter del carril de escritura de la bbdd
+     * @return carril de escritura o null si no tiene
+     */
+    public CarrilEscritura getCarril() {
+        return this.carril;
+    }
+
+    /**
+     * Funcion getter del dialecto SQL de la bbdd
+     * @return dialecto de la bbdd
+     */
+    public Dialecto getDialecto() {
+        return this.dialecto;
     }
 
     /**
@@ -131,7 +267,7 @@ public class Bbdd {
             if (statement != null) {
                 statement.close();
             }
-            if (connection != null) {
+            if (connection != null && !Transaccion.retiene(connection)) {
                 connection.close();
             }
         } catch (Exception exception) {
@@ -140,44 +276,295 @@ public class Bbdd {
     }
 
     /**
-     * Metodo encargado de realizar la actualizacion de la BBDD
+     * Metodo encargado de ejecutar una sentencia sql completa sin parametros,
+     * como las de creacion de tablas. No pasa por la cache de sentencias
      * 
      * @param sql a ejecutar
      * @throws BbddException error controlado
      */
-    protected void actualizar(String sql) throws BbddException {
-        Statement statement = null;
+    protected void ejecutar(String sql) throws BbddException {
+        escribir(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate(sql);
+            }
+        });
+    }
+
+    /**
+     * Funcion encargada de realizar la actualizacion de la BBDD con una sentencia
+     * parametrizada
+     * 
+     * @param sql        a ejecutar
+     * @param parametros de la sentencia, en orden
+     * @return numero de filas afectadas
+     * @throws BbddException error controlado
+     */
+    protected int actualizar(String sql, Object... parametros) throws BbddException {
+        return escribir(connection -> {
+            PreparedStatement statement = preparar(connection, sql);
+            asignarParametros(statement, parametros);
+            return statement.executeUpdate();
+        });
+    }
+
+    /**
+     * Metodo que ejecuta la misma sentencia parametrizada para cada fila de
+     * parametros en un unico lote y una unica transaccion
+     * 
+     * @param sql   a ejecutar
+     * @param filas de parametros, una por ejecucion
+     * @throws BbddException error controlado
+     */
+    protected void actualizarLote(String sql, List<Object[]> filas) throws BbddException {
+        if (filas.isEmpty()) {
+            return;
+        }
+        escribir(connection -> {
+            PreparedStatement statement = preparar(connection, sql);
+            statement.clearBatch();
+            for (Object[] parametros : filas) {
+                asignarParametros(statement, parametros);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+
+    /**
+     * Funcion que inserta varias filas de la forma mas rapida del dialecto: en
+     * lotes si el driver los reescribe o en sentencias de varias filas en caso
+     * contrario. Todas las filas se insertan en una unica transaccion
+     * 
+     * @param tabla    en la que se inserta
+     * @param columnas de cada fila
+     * @param filas    de valores, en el orden de las columnas
+     * @return numero de filas insertadas
+     * @throws BbddException error controlado
+     */
+    protected int insertarVarios(String tabla, String[] columnas, List<Object[]> filas) throws BbddException {
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        if (dialecto.reescribeLotes()) {
+            actualizarLote(dialecto.insertarVarios(tabla, columnas, 1), filas);
+            return filas.size();
+        }
+        int porSentencia = Math.max(1,
+                Math.min(MAXIMO_FILAS_SENTENCIA, dialecto.getMaximoParametros() / columnas.length));
+        return escribir(connection -> {
+            int insertadas = 0;
+            for (int inicio = 0; inicio < filas.size(); inicio += porSentencia) {
+                List<Object[]> bloque = filas.subList(inicio, Math.min(filas.size(), inicio + porSentencia));
+                PreparedStatement statement = preparar(connection,
+                        dialecto.insertarVarios(tabla, columnas, bloque.size()));
+                Object[] parametros = new Object[bloque.size() * columnas.length];
+                for (int i = 0; i < bloque.size(); i++) {
+                    System.arraycopy(bloque.get(i), 0, parametros, i * columnas.length, columnas.length);
+                }
+                asignarParametros(statement, parametros);
+                insertadas += statement.executeUpdate();
+            }
+            return insertadas;
+        });
+    }
+
+    /**
+     * Funcion que ejecuta una insercion y devuelve la clave que ha generado la
+     * bbdd para la fila
+     * 
+     * @param sql        de la insercion
+     * @param parametros de la sentencia, en orden
+     * @return clave generada o 0 si la bbdd no ha generado ninguna
+     * @throws BbddException error controlado
+     */
+    protected long insertarConClave(String sql, Object... parametros) throws BbddException {
+        return escribir(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                asignarParametros(statement, parametros);
+                statement.executeUpdate();
+                try (ResultSet claves = statement.getGeneratedKeys()) {
+                    return claves.next() ? claves.getLong(1) : 0L;
+                }
+            }
+        });
+    }
+
+    /**
+     * Funcion que realiza una consulta sobre una sentencia sql dada y transforma
+     * cada fila con el mapeador. La sentencia y la conexion se liberan antes de
+     * devolver el resultado
+     * 
+     * @param sql        de la consulta
+     * @param mapeador   de cada fila del resultado
+     * @param parametros de la consulta, en orden
+     * @return lista resultados (0..n)
+     * @throws BbddException error controlado
+     */
+    protected <T> ArrayList<T> consultar(String sql, MapeadorFila<T> mapeador, Object... parametros)
+            throws BbddException {
+        ArrayList<T> lista = new ArrayList<>();
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
         Connection connection = null;
         try {
             connection = getConnection();
-            statement = connection.createStatement();
-            statement.executeUpdate(sql);
-        } catch (Exception exception) {
+            statement = preparar(connection, sql);
+            asignarParametros(statement, parametros);
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                lista.add(mapeador.mapear(resultSet));
+            }
+        } catch (SQLException exception) {
             throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
         } finally {
-            closeConnection(connection, statement, null);
+            closeConnection(connection, null, resultSet);
         }
-
+        return lista;
     }
 
     /**
-     * Funcion que realiza una consulta sobre una sentencia sql dada
+     * Funcion que realiza una consulta de la que solo interesa la primera fila
      * 
-     * @param sql de la consulta
-     * @return lista resultados (0..n) Usuasios
-     * @throws PersistenciaException error controlado
+     * @param sql        de la consulta
+     * @param mapeador   de la fila del resultado
+     * @param parametros de la consulta, en orden
+     * @return elemento encontrado o null si no hay resultados
+     * @throws BbddException error controlado
      */
-    protected ResultSet buscarElementos(String sql) throws BbddException {
+    protected <T> T consultarUno(String sql, MapeadorFila<T> mapeador, Object... parametros) throws BbddException {
+        T elemento = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         Connection connection = null;
         try {
             connection = getConnection();
-            statement = connection.prepareStatement(sql);
+            statement = preparar(connection, sql);
+            asignarParametros(statement, parametros);
             resultSet = statement.executeQuery();
+            if (resultSet.next()) {
+                elemento = mapeador.mapear(resultSet);
+            }
         } catch (SQLException exception) {
-            throw new BbddException("Se ha producido un error en la busqueda", exception);
+            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
+        } finally {
+            closeConnection(connection, null, resultSet);
+        }
+        return elemento;
+    }
+
+    /**
+     * Funcion que realiza una consulta y devuelve sus filas como un flujo que se
+     * lee bajo demanda con un cursor de solo avance. La conexion y la sentencia
+     * quedan abiertas hasta que se cierra el flujo, por lo que debe usarse con
+     * try-with-resources. La sentencia no pasa por la cache para que otra
+     * consulta sobre la misma conexion no cierre el cursor
+     * 
+     * @param sql         de la consulta
+     * @param tamanioLote filas que el driver trae en cada viaje a la bbdd
+     * @param mapeador    de cada fila del resultado
+     * @param parametros  de la consulta, en orden
+     * @return flujo de resultados
+     * @throws BbddException error controlado
+     */
+    protected <T> Stream<T> consultarFlujo(String sql, int tamanioLote, MapeadorFila<T> mapeador,
+            Object... parametros) throws BbddException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = getConnection();
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(tamanioLote);
+            asignarParametros(statement, parametros);
+            resultSet = statement.executeQuery();
+        } catch (SQLException exception) {
+            closeConnection(connection, statement, resultSet);
+            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
+        }
+        Connection conexionFlujo = connection;
+        PreparedStatement sentenciaFlujo = statement;
+        ResultSet resultadoFlujo = resultSet;
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                try {
+                    if (!resultadoFlujo.next()) {
+                        return false;
+                    }
+                    accion.accept(mapeador.mapear(resultadoFlujo));
+                    return true;
+                } catch (SQLException exception) {
+                    throw new IllegalStateException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
+                }
+            }
+        }, false).onClose(() -> {
+            try {
+                closeConnection(conexionFlujo, sentenciaFlujo, resultadoFlujo);
+            } catch (BbddException exception) {
+                throw new IllegalStateException(exception.getMessage(), exception);
+            }
+        });
+    }
+
+    /**
+     * Funcion que prepara los parametros de una consulta IN (?, ...). Los
+     * valores se completan repitiendo el ultimo hasta la siguiente potencia de
+     * 2, sin pasar del maximo, de modo que solo se preparan unas pocas
+     * sentencias distintas y las habituales no se desalojan de la cache
+     * 
+     * @param valores de la consulta, al menos uno
+     * @param maximo  de parametros por consulta
+     * @return parametros completados
+     */
+    static Object[] parametrosIn(List<?> valores, int maximo) {
+        int tamanio = valores.size() <= 1 ? 1 : Integer.highestOneBit(valores.size() - 1) << 1;
+        Object[] parametros = new Object[Math.max(valores.size(), Math.min(tamanio, maximo))];
+        for (int i = 0; i < parametros.length; i++) {
+            parametros[i] = valores.get(Math.min(i, valores.size() - 1));
+        }
+        return parametros;
+    }
+
+    /**
+     * Funcion que genera los marcadores de una consulta IN
+     * 
+     * @param numero de marcadores
+     * @return marcadores separados por comas
+     */
+    static String marcadores(int numero) {
+        return String.join(", ", Collections.nCopies(numero, "?"));
+    }
+
+    /**
+     * Funcion que obtiene la sentencia preparada de la cache de la conexion. La
+     * sentencia pertenece a la conexion y no se cierra al terminar
+     * 
+     * @param connection prestada por el pool
+     * @param sql        de la sentencia
+     * @return sentencia preparada
+     * @throws SQLException error de la bbdd
+     */
+    protected PreparedStatement preparar(Connection connection, String sql) throws SQLException {
+        return PoolConexiones.preparar(connection, sql);
+    }
+
+    /**
+     * Metodo que asigna los parametros de una sentencia en orden. Los float se
+     * asignan por su representacion decimal para no arrastrar el error de
+     * precision al convertirlos a double
+     * 
+     * @param statement  a completar
+     * @param parametros de la sentencia
+     * @throws SQLException error de la bbdd
+     */
+    protected void asignarParametros(PreparedStatement statement, Object... parametros) throws SQLException {
+        for (int i = 0; i < parametros.length; i++) {
+            Object parametro = parametros[i];
+            if (parametro instanceof Float) {
+                parametro = Double.parseDouble(parametro.toString());
+            }
+            statement.setObject(i + 1, parametro);
         }
-        return resultSet;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU acotada de sentencias preparadas de una unica conexion fisica. No
+ * es segura entre hilos: solo la usa el hilo al que se ha prestado la conexion
+ */
+class CacheSentencias {
+
+    private final Connection conexion;
+    private final EstadisticasSentencias estadisticas;
+    private final LinkedHashMap<String, PreparedStatement> sentencias;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param conexion     fisica sobre la que se preparan las sentencias
+     * @param capacidad    maxima de sentencias en la cache
+     * @param estadisticas compartidas del pool
+     */
+    CacheSentencias(Connection conexion, int capacidad, EstadisticasSentencias estadisticas) {
+        this.conexion = conexion;
+        this.estadisticas = estadisticas;
+        this.sentencias = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacidad) {
+                    cerrar(eldest.getValue());
+                    estadisticas.registrarDesalojo();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Funcion que devuelve la sentencia preparada de un sql, preparandola solo la
+     * primera vez que se usa en esta conexion
+     *
+     * @param sql de la sentencia
+     * @return sentencia preparada y sin parametros
+     * @throws SQLException error de la bbdd
+     */
+    PreparedStatement preparar(String sql) throws SQLException {
+        PreparedStatement sentencia = sentencias.get(sql);
+        if (sentencia != null && !sentencia.isClosed()) {
+            estadisticas.registrarAcierto();
+            sentencia.clearParameters();
+            return sentencia;
+        }
+        long inicio = System.nanoTime();
+        sentencia = conexion.prepareStatement(sql);
+        estadisticas.registrarFallo(System.nanoTime() - inicio);
+        sentencias.put(sql, sentencia);
+        return sentencia;
+    }
+
+    /**
+     * Metodo que cierra todas las sentencias de la cache
+     */
+    void vaciar() {
+        sentencias.values().forEach(CacheSentencias::cerrar);
+        sentencias.clear();
+    }
+
+    /**
+     * Metodo que cierra una sentencia ignorando los errores
+     *
+     * @param sentencia a cerrar
+     */
+    private static void cerrar(PreparedStatement sentencia) {
+        try {
+            sentencia.close();
+        } catch (SQLException exception) {
+            // La sentencia se descarta igualmente
+        }
+    }
+}
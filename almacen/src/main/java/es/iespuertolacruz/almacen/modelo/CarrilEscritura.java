@@ -0,0 +1,375 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Carril unico de escritura de una bbdd SQLite. Un hilo propio con una unica
+ * conexion ejecuta en orden todas las escrituras de los modelos. Las escrituras
+ * que se acumulan en la cola se confirman juntas (group commit), cada una
+ * protegida por su propio punto de guardado para que un fallo solo deshaga la
+ * suya. Las transacciones toman la conexion en exclusiva hasta terminar.
+ */
+public class CarrilEscritura {
+
+    private static final Logger LOGGER = Logger.getLogger(CarrilEscritura.class.getName());
+    private static final int MAXIMO_GRUPO = 256;
+
+    private final PoolConexiones poolEscritura;
+    private final LinkedBlockingQueue<Pendiente> cola = new LinkedBlockingQueue<>();
+    private final Thread hilo;
+    private Connection conexion;
+    private volatile Exclusiva enCurso;
+
+    private final AtomicLong gruposConfirmados = new AtomicLong();
+    private final AtomicLong escriturasConfirmadas = new AtomicLong();
+    private final AtomicLong transacciones = new AtomicLong();
+
+    /**
+     * Constructor de la clase
+     *
+     * @param nombre        de la bbdd, para nombrar el hilo
+     * @param poolEscritura pool de una unica conexion del que se toma la de
+     *                      escritura
+     */
+    CarrilEscritura(String nombre, PoolConexiones poolEscritura) {
+        this.poolEscritura = poolEscritura;
+        this.hilo = new Thread(this::procesar, "almacen-escritura-" + nombre);
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Funcion que encola una escritura y espera a que se confirme
+     *
+     * @param tarea a ejecutar
+     * @return resultado de la tarea
+     * @throws BbddException si la tarea o la confirmacion fallan
+     */
+    <T> T enviar(TareaEscritura<T> tarea) throws BbddException {
+        if (Thread.currentThread() == hilo) {
+            throw new BbddException("El carril de escritura no admite escrituras anidadas");
+        }
+        Escritura<T> escritura = new Escritura<>(tarea);
+        cola.add(escritura);
+        try {
+            return escritura.resultado.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BbddException("Se ha interrumpido la espera de una escritura", exception);
+        } catch (ExecutionException exception) {
+            throw new BbddException("Se ha producido un error realizando la consulta", causa(exception));
+        }
+    }
+
+    /**
+     * Funcion que toma la conexion de escritura en exclusiva para una
+     * transaccion. Se debe llamar a devolver al terminar
+     *
+     * @return conexion de escritura
+     * @throws BbddException si no se obtiene en el tiempo de espera del pool
+     */
+    Connection adquirir() throws BbddException {
+        Exclusiva exclusiva = new Exclusiva();
+        cola.add(exclusiva);
+        long espera = poolEscritura.getConfiguracion().getTiempoEspera();
+        try {
+            return exclusiva.concedida.get(espera, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            if (exclusiva.cancelar()) {
+                throw new BbddException("Se ha agotado el tiempo de espera para obtener la conexion de escritura",
+                        exception);
+            }
+            return exclusiva.concedida.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            if (!exclusiva.cancelar()) {
+                exclusiva.liberada.countDown();
+            }
+            throw new BbddException("Se ha interrumpido la espera de la conexion de escritura", exception);
+        } catch (ExecutionException exception) {
+            throw new BbddException("No se ha podido obtener la conexion de escritura", causa(exception));
+        }
+    }
+
+    /**
+     * Metodo que devuelve la conexion tomada con adquirir. La transaccion ya
+     * debe estar confirmada o deshecha
+     */
+    void devolver() {
+        Exclusiva actual = enCurso;
+        if (actual != null) {
+            actual.liberada.countDown();
+        }
+    }
+
+    /**
+     * Metodo que ejecuta el bucle del hilo de escritura
+     */
+    private void procesar() {
+        List<Escritura<?>> grupo = new ArrayList<>();
+        while (true) {
+            try {
+                Pendiente primera = cola.take();
+                if (primera instanceof Exclusiva) {
+                    conceder((Exclusiva) primera);
+                    continue;
+                }
+                grupo.add((Escritura<?>) primera);
+                Pendiente siguiente;
+                while (grupo.size() < MAXIMO_GRUPO && (siguiente = cola.peek()) instanceof Escritura) {
+                    grupo.add((Escritura<?>) cola.poll());
+                }
+                confirmarGrupo(grupo);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException exception) {
+                LOGGER.log(Level.SEVERE, "Error inesperado en el carril de escritura", exception);
+            } finally {
+                grupo.clear();
+            }
+        }
+    }
+
+    /**
+     * Metodo que ejecuta un grupo de escrituras y lo confirma una sola vez
+     *
+     * @param grupo de escrituras
+     */
+    private void confirmarGrupo(List<Escritura<?>> grupo) {
+        Connection connection;
+        try {
+            connection = obtenerConexion();
+        } catch (SQLException | BbddException exception) {
+            grupo.forEach(escritura -> escritura.resultado.completeExceptionally(exception));
+            return;
+        }
+        List<Escritura<?>> correctas = new ArrayList<>(grupo.size());
+        if (grupo.size() == 1) {
+            if (!grupo.get(0).ejecutar(connection)) {
+                deshacer(connection);
+                return;
+            }
+            correctas.add(grupo.get(0));
+        } else {
+            for (Escritura<?> escritura : grupo) {
+                if (ejecutarProtegida(connection, escritura)) {
+                    correctas.add(escritura);
+                }
+            }
+        }
+        try {
+            connection.commit();
+            gruposConfirmados.incrementAndGet();
+            escriturasConfirmadas.addAndGet(correctas.size());
+            correctas.forEach(Escritura::completar);
+        } catch (SQLException exception) {
+            deshacer(connection);
+            correctas.forEach(escritura -> escritura.resultado.completeExceptionally(exception));
+        }
+    }
+
+    /**
+     * Funcion que ejecuta una escritura del grupo dentro de un punto de guardado
+     *
+     * @param connection de escritura
+     * @param escritura  a ejecutar
+     * @return true si la escritura ha terminado correctamente
+     */
+    private boolean ejecutarProtegida(Connection connection, Escritura<?> escritura) {
+        Savepoint puntoGuardado;
+        try {
+            puntoGuardado = connection.setSavepoint();
+        } catch (SQLException exception) {
+            escritura.resultado.completeExceptionally(exception);
+            return false;
+        }
+        boolean correcta = escritura.ejecutar(connection);
+        try {
+            if (correcta) {
+                connection.releaseSavepoint(puntoGuardado);
+            } else {
+                connection.rollback(puntoGuardado);
+            }
+        } catch (SQLException exception) {
+            LOGGER.log(Level.WARNING, "No se ha podido cerrar el punto de guardado", exception);
+        }
+        return correcta;
+    }
+
+    /**
+     * Metodo que cede la conexion a una transaccion y espera a que la devuelva
+     *
+     * @param exclusiva peticion de la transaccion
+     * @throws InterruptedException si se interrumpe el hilo de escritura
+     */
+    private void conceder(Exclusiva exclusiva) throws InterruptedException {
+        Connection connection;
+        try {
+            connection = obtenerConexion();
+        } catch (SQLException | BbddException exception) {
+            exclusiva.concedida.completeExceptionally(exception);
+            return;
+        }
+        if (!exclusiva.conceder()) {
+            return;
+        }
+        enCurso = exclusiva;
+        try {
+            exclusiva.concedida.complete(connection);
+            exclusiva.liberada.await();
+            transacciones.incrementAndGet();
+        } finally {
+            enCurso = null;
+            deshacer(connection);
+        }
+    }
+
+    /**
+     * Funcion que obtiene la conexion de escritura, abriendola la primera vez
+     *
+     * @return conexion de escritura sin autocommit
+     * @throws BbddException controlado
+     * @throws SQLException  error de la bbdd
+     */
+    private Connection obtenerConexion() throws BbddException, SQLException {
+        if (conexion == null || conexion.isClosed()) {
+            Connection nueva = poolEscritura.obtener();
+            nueva.setAutoCommit(false);
+            conexion = nueva;
+        }
+        return conexion;
+    }
+
+    /**
+     * Metodo que deshace lo pendiente en la conexion ignorando los errores
+     *
+     * @param connection de escritura
+     */
+    private static void deshacer(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException exception) {
+            LOGGER.log(Level.WARNING, "No se ha podido deshacer la escritura", exception);
+        }
+    }
+
+    /**
+     * Funcion que obtiene la causa real de un fallo de una escritura
+     *
+     * @param exception lanzada por el futuro
+     * @return causa
+     */
+    private static Exception causa(ExecutionException exception) {
+        Throwable causa = exception.getCause();
+        return causa instanceof Exception ? (Exception) causa : exception;
+    }
+
+    /**
+     * Funcion getter de los grupos de escrituras confirmados
+     * @return grupos confirmados
+     */
+    public long getGruposConfirmados() {
+        return gruposConfirmados.get();
+    }
+
+    /**
+     * Funcion getter de las escrituras confirmadas fuera de transacciones
+     * @return escrituras confirmadas
+     */
+    public long getEscriturasConfirmadas() {
+        return escriturasConfirmadas.get();
+    }
+
+    /**
+     * Funcion getter de las transacciones que han usado la conexion en exclusiva
+     * @return transacciones terminadas
+     */
+    public long getTransacciones() {
+        return transacciones.get();
+    }
+
+    /**
+     * Funcion que obtiene el numero de peticiones en cola
+     * @return peticiones pendientes
+     */
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    @Override
+    /**
+     * Funcion toString del carril
+     * @return estadisticas del carril
+     */
+    public String toString() {
+        return "CarrilEscritura[grupos=" + getGruposConfirmados() + ", escrituras=" + getEscriturasConfirmadas()
+                + ", transacciones=" + getTransacciones() + ", pendientes=" + getPendientes() + "]";
+    }
+
+    /**
+     * Peticion en la cola del carril
+     */
+    private interface Pendiente {
+    }
+
+    /**
+     * Escritura encolada junto al futuro de su resultado
+     */
+    private static final class Escritura<T> implements Pendiente {
+        private final TareaEscritura<T> tarea;
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+        private T valor;
+
+        private Escritura(TareaEscritura<T> tarea) {
+            this.tarea = tarea;
+        }
+
+        private boolean ejecutar(Connection connection) {
+            try {
+                valor = tarea.ejecutar(connection);
+                return true;
+            } catch (SQLException | RuntimeException exception) {
+                resultado.completeExceptionally(exception);
+                return false;
+            }
+        }
+
+        private void completar() {
+            resultado.complete(valor);
+        }
+    }
+
+    /**
+     * Peticion de uso exclusivo de la conexion por una transaccion
+     */
+    private static final class Exclusiva implements Pendiente {
+        private final CompletableFuture<Connection> concedida = new CompletableFuture<>();
+        private final CountDownLatch liberada = new CountDownLatch(1);
+        private final AtomicBoolean resuelta = new AtomicBoolean();
+
+        private boolean conceder() {
+            return resuelta.compareAndSet(false, true);
+        }
+
+        private boolean cancelar() {
+            return resuelta.compareAndSet(false, true);
+        }
+    }
+}
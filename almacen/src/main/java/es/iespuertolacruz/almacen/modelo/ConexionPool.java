@@ -0,0 +1,179 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conexion fisica gestionada por el pool. Cada prestamo se entrega a los
+ * modelos envuelto en un proxy nuevo cuyo close() la devuelve al pool en lugar
+ * de cerrarla. Una vez cerrado, el proxy queda inutilizado aunque la conexion
+ * fisica se preste despues a otro modelo. Cada conexion mantiene su propia
+ * cache de sentencias preparadas.
+ */
+class ConexionPool {
+
+    private final PoolConexiones pool;
+    private final Connection fisica;
+    private final CacheSentencias sentencias;
+    private volatile long ultimoUso;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param pool   propietario de la conexion
+     * @param fisica conexion real con la bbdd
+     */
+    ConexionPool(PoolConexiones pool, Connection fisica) {
+        this.pool = pool;
+        this.fisica = fisica;
+        this.sentencias = new CacheSentencias(fisica, pool.getConfiguracion().getCapacidadSentencias(),
+                pool.getEstadisticasSentencias());
+        this.ultimoUso = System.currentTimeMillis();
+    }
+
+    /**
+     * Funcion que devuelve un proxy nuevo de la conexion para un prestamo
+     *
+     * @return proxy de la conexion
+     */
+    Connection prestar() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Prestamo());
+    }
+
+    /**
+     * Metodo que registra el ultimo uso de la conexion y deja la conexion
+     * fisica en su estado por defecto para el siguiente prestamo
+     *
+     * @throws SQLException error de la bbdd
+     */
+    void liberar() throws SQLException {
+        ultimoUso = System.currentTimeMillis();
+        if (!fisica.getAutoCommit()) {
+            fisica.rollback();
+            fisica.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Funcion que comprueba si la conexion fisica sigue siendo utilizable
+     *
+     * @param segundos de espera maxima
+     * @return true/false valida o no
+     */
+    boolean validar(int segundos) {
+        try {
+            return !fisica.isClosed() && fisica.isValid(segundos);
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Metodo que cierra la conexion fisica ignorando los errores
+     */
+    void cerrarFisica() {
+        sentencias.vaciar();
+        try {
+            fisica.close();
+        } catch (SQLException exception) {
+            // La conexion se descarta igualmente
+        }
+    }
+
+    /**
+     * Funcion getter de la conexion fisica
+     * @return conexion fisica
+     */
+    Connection getFisica() {
+        return this.fisica;
+    }
+
+    /**
+     * Funcion getter del instante del ultimo uso
+     * @return ms del ultimo uso
+     */
+    long getUltimoUso() {
+        return this.ultimoUso;
+    }
+
+    /**
+     * Prestamo de la conexion a un modelo, que atiende las llamadas a su proxy.
+     * El primer close() devuelve la conexion al pool y los siguientes no hacen
+     * nada. Tras cerrarlo, cualquier otra llamada lanza una SQLException
+     */
+    class Prestamo implements InvocationHandler {
+
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+
+        /**
+         * Funcion que obtiene la sentencia preparada de la cache de la conexion
+         *
+         * @param sql de la sentencia
+         * @return sentencia preparada, que no debe cerrarse
+         * @throws SQLException error de la bbdd
+         */
+        PreparedStatement preparar(String sql) throws SQLException {
+            comprobarAbierto();
+            return sentencias.preparar(sql);
+        }
+
+        @Override
+        public Object invoke(Object instancia, Method metodo, Object[] argumentos) throws Throwable {
+            String nombre = metodo.getName();
+            if (metodo.getDeclaringClass() == Object.class) {
+                return invocarObject(instancia, nombre, argumentos);
+            }
+            if ("close".equals(nombre)) {
+                if (cerrado.compareAndSet(false, true)) {
+                    pool.devolver(ConexionPool.this);
+                }
+                return null;
+            }
+            if ("isClosed".equals(nombre)) {
+                return cerrado.get() || fisica.isClosed();
+            }
+            comprobarAbierto();
+            try {
+                return metodo.invoke(fisica, argumentos);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        }
+
+        /**
+         * Metodo que comprueba que el prestamo no se ha cerrado
+         *
+         * @throws SQLException si la conexion ya se ha devuelto al pool
+         */
+        private void comprobarAbierto() throws SQLException {
+            if (cerrado.get()) {
+                throw new SQLException("La conexion ya ha sido devuelta al pool");
+            }
+        }
+    }
+
+    /**
+     * Funcion que resuelve los metodos de Object sobre el propio proxy
+     *
+     * @param instancia  proxy invocado
+     * @param nombre     del metodo
+     * @param argumentos del metodo
+     * @return resultado del metodo
+     */
+    private Object invocarObject(Object instancia, String nombre, Object[] argumentos) {
+        if ("equals".equals(nombre)) {
+            return instancia == argumentos[0];
+        }
+        if ("hashCode".equals(nombre)) {
+            return System.identityHashCode(instancia);
+        }
+        return "ConexionPool[" + fisica + "]";
+    }
+}
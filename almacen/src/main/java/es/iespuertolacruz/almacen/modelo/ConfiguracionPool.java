@@ -0,0 +1,111 @@
+package es.iespuertolacruz.almacen.modelo;
+
+public class ConfiguracionPool {
+
+    public static final String PROPIEDAD_MINIMO = "almacen.pool.minimo";
+    public static final String PROPIEDAD_MAXIMO = "almacen.pool.maximo";
+    public static final String PROPIEDAD_ESPERA = "almacen.pool.espera";
+    public static final String PROPIEDAD_INACTIVIDAD = "almacen.pool.inactividad";
+    public static final String PROPIEDAD_VALIDACION = "almacen.pool.validacion";
+    public static final String PROPIEDAD_SENTENCIAS = "almacen.pool.sentencias";
+
+    private static final int MINIMO_DEFECTO = 1;
+    private static final int MAXIMO_DEFECTO = 10;
+    private static final long ESPERA_DEFECTO = 30000;
+    private static final long INACTIVIDAD_DEFECTO = 60000;
+    private static final int VALIDACION_DEFECTO = 2;
+    private static final int SENTENCIAS_DEFECTO = 64;
+
+    private final int minimo;
+    private final int maximo;
+    private final long tiempoEspera;
+    private final long tiempoInactividad;
+    private final int tiempoValidacion;
+    private final int capacidadSentencias;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param minimo            de conexiones que se mantienen abiertas
+     * @param maximo            de conexiones abiertas a la vez
+     * @param tiempoEspera      maximo en ms para obtener una conexion
+     * @param tiempoInactividad en ms tras el que se cierra una conexion libre
+     * @param tiempoValidacion  en segundos para validar una conexion al prestarla
+     * @param capacidadSentencias maxima de sentencias preparadas por conexion
+     */
+    public ConfiguracionPool(int minimo, int maximo, long tiempoEspera, long tiempoInactividad,
+            int tiempoValidacion, int capacidadSentencias) {
+        if (minimo < 0 || maximo < 1 || minimo > maximo) {
+            throw new IllegalArgumentException("El tamanio del pool no es valido: " + minimo + ".." + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tiempoEspera = tiempoEspera;
+        this.tiempoInactividad = tiempoInactividad;
+        this.tiempoValidacion = tiempoValidacion;
+        this.capacidadSentencias = capacidadSentencias;
+    }
+
+    /**
+     * Funcion que construye la configuracion a partir de las propiedades del
+     * sistema, usando los valores por defecto cuando no estan definidas
+     *
+     * @return configuracion del pool
+     */
+    public static ConfiguracionPool desdePropiedades() {
+        return new ConfiguracionPool(Integer.getInteger(PROPIEDAD_MINIMO, MINIMO_DEFECTO),
+                Integer.getInteger(PROPIEDAD_MAXIMO, MAXIMO_DEFECTO),
+                Long.getLong(PROPIEDAD_ESPERA, ESPERA_DEFECTO),
+                Long.getLong(PROPIEDAD_INACTIVIDAD, INACTIVIDAD_DEFECTO),
+                Integer.getInteger(PROPIEDAD_VALIDACION, VALIDACION_DEFECTO),
+                Integer.getInteger(PROPIEDAD_SENTENCIAS, SENTENCIAS_DEFECTO));
+    }
+
+    /**
+     * Funcion getter del minimo de conexiones
+     * @return minimo de conexiones
+     */
+    public int getMinimo() {
+        return this.minimo;
+    }
+
+    /**
+     * Funcion getter del maximo de conexiones
+     * @return maximo de conexiones
+     */
+    public int getMaximo() {
+        return this.maximo;
+    }
+
+    /**
+     * Funcion getter del tiempo maximo de espera en ms
+     * @return tiempo de espera
+     */
+    public long getTiempoEspera() {
+        return this.tiempoEspera;
+    }
+
+    /**
+     * Funcion getter del tiempo de inactividad en ms
+     * @return tiempo de inactividad
+     */
+    public long getTiempoInactividad() {
+        return this.tiempoInactividad;
+    }
+
+    /**
+     * Funcion getter del tiempo de validacion en segundos
+     * @return tiempo de validacion
+     */
+    public int getTiempoValidacion() {
+        return this.tiempoValidacion;
+    }
+
+    /**
+     * Funcion getter de la capacidad de la cache de sentencias de cada conexion
+     * @return capacidad de la cache de sentencias
+     */
+    public int getCapacidadSentencias() {
+        return this.capacidadSentencias;
+    }
+}
@@ -0,0 +1,99 @@
+package es.iespuertolacruz.almacen.modelo;
+
+/**
+ * Dialecto SQL de una bbdd. Genera las sentencias cuya sintaxis cambia entre
+ * motores para que los modelos no dependan de ninguno. Las implementaciones
+ * por defecto usan la forma comun a SQLite y MySQL.
+ */
+public interface Dialecto {
+
+    /**
+     * Funcion que limita el numero de filas de una consulta. El limite se pasa
+     * como ultimo parametro de la sentencia
+     *
+     * @param consulta a limitar
+     * @return consulta con el limite
+     */
+    default String limitar(String consulta) {
+        return consulta + " LIMIT ?";
+    }
+
+    /**
+     * Funcion que pagina una consulta. El limite y el desplazamiento se pasan
+     * como los dos ultimos parametros de la sentencia
+     *
+     * @param consulta a paginar
+     * @return consulta paginada
+     */
+    default String paginar(String consulta) {
+        return consulta + " LIMIT ? OFFSET ?";
+    }
+
+    /**
+     * Funcion que genera una insercion de varias filas en una unica sentencia
+     *
+     * @param tabla    en la que se inserta
+     * @param columnas de cada fila
+     * @param filas    numero de filas de la sentencia
+     * @return sentencia INSERT ... VALUES (...), (...)
+     */
+    default String insertarVarios(String tabla, String[] columnas, int filas) {
+        StringBuilder fila = new StringBuilder("(");
+        for (int i = 0; i < columnas.length; i++) {
+            fila.append(i == 0 ? "?" : ", ?");
+        }
+        fila.append(')');
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tabla).append(" (")
+                .append(String.join(", ", columnas)).append(") VALUES ");
+        for (int i = 0; i < filas; i++) {
+            sql.append(i == 0 ? "" : ", ").append(fila);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Funcion que genera una insercion que actualiza la fila si la clave ya
+     * existe
+     *
+     * @param tabla    en la que se inserta
+     * @param columnas de la fila, incluidas las de la clave
+     * @param claves   columnas de la clave
+     * @return sentencia de insercion o actualizacion
+     */
+    String insertarOActualizar(String tabla, String[] columnas, String[] claves);
+
+    /**
+     * Funcion que obtiene el numero maximo de parametros de una sentencia
+     *
+     * @return maximo de parametros
+     */
+    default int getMaximoParametros() {
+        return 999;
+    }
+
+    /**
+     * Funcion que indica si el driver ya reescribe los lotes de inserciones en
+     * sentencias de varias filas, en cuyo caso es preferible usar lotes
+     *
+     * @return true/false reescribe o no
+     */
+    default boolean reescribeLotes() {
+        return false;
+    }
+
+    /**
+     * Funcion que indica si una columna forma parte de la clave
+     *
+     * @param columna a comprobar
+     * @param claves  columnas de la clave
+     * @return true/false es clave o no
+     */
+    static boolean esClave(String columna, String[] claves) {
+        for (String clave : claves) {
+            if (clave.equalsIgnoreCase(columna)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
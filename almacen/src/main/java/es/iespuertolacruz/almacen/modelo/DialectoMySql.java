@@ -0,0 +1,37 @@
+package es.iespuertolacruz.almacen.modelo;
+
+/**
+ * Dialecto de MySQL. El driver se configura con rewriteBatchedStatements, por
+ * lo que las inserciones masivas se envian como lotes y el propio driver las
+ * convierte en sentencias de varias filas.
+ */
+public class DialectoMySql implements Dialecto {
+
+    private static final int MAXIMO_PARAMETROS = 65535;
+
+    @Override
+    public String insertarOActualizar(String tabla, String[] columnas, String[] claves) {
+        StringBuilder sql = new StringBuilder(insertarVarios(tabla, columnas, 1)).append(" ON DUPLICATE KEY UPDATE ");
+        boolean primera = true;
+        for (String columna : columnas) {
+            if (!Dialecto.esClave(columna, claves)) {
+                sql.append(primera ? "" : ", ").append(columna).append(" = VALUES(").append(columna).append(')');
+                primera = false;
+            }
+        }
+        if (primera) {
+            sql.append(claves[0]).append(" = ").append(claves[0]);
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public int getMaximoParametros() {
+        return MAXIMO_PARAMETROS;
+    }
+
+    @Override
+    public boolean reescribeLotes() {
+        return true;
+    }
+}
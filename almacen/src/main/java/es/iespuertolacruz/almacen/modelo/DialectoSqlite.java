@@ -0,0 +1,35 @@
+package es.iespuertolacruz.almacen.modelo;
+
+/**
+ * Dialecto de SQLite. Las inserciones masivas se hacen con sentencias de varias
+ * filas, que reducen las llamadas al motor frente a un lote fila a fila.
+ */
+public class DialectoSqlite implements Dialecto {
+
+    @Override
+    public String insertarOActualizar(String tabla, String[] columnas, String[] claves) {
+        StringBuilder sql = new StringBuilder(insertarVarios(tabla, columnas, 1)).append(" ON CONFLICT (")
+                .append(String.join(", ", claves)).append(") DO ");
+        String asignaciones = asignaciones(columnas, claves);
+        sql.append(asignaciones.isEmpty() ? "NOTHING" : "UPDATE SET " + asignaciones);
+        return sql.toString();
+    }
+
+    /**
+     * Funcion que genera las asignaciones de las columnas que no son clave
+     *
+     * @param columnas de la fila
+     * @param claves   columnas de la clave
+     * @return asignaciones separadas por comas
+     */
+    private static String asignaciones(String[] columnas, String[] claves) {
+        StringBuilder asignaciones = new StringBuilder();
+        for (String columna : columnas) {
+            if (!Dialecto.esClave(columna, claves)) {
+                asignaciones.append(asignaciones.length() == 0 ? "" : ", ").append(columna)
+                        .append(" = excluded.").append(columna);
+            }
+        }
+        return asignaciones.toString();
+    }
+}
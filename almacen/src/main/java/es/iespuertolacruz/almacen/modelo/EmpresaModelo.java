@@ -2,17 +2,16 @@ package es.iespuertolacruz.almacen.modelo;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 
 import es.iespuertolacruz.almacen.api.Empresa;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
-public class EmpresaModelo {
+public class EmpresaModelo extends ModeloBase<Empresa, String> {
 
-    SqLiteBbdd persistencia;
     private static final String TABLA = "empresa";
     private static final String CLAVE = "cif";
+    private static final String[] COLUMNAS = { "nombre", "direccion", "telefono", "correo" };
 
     /**
      * Constructor de la clase
@@ -21,116 +20,31 @@ public class EmpresaModelo {
      * @throws FicheroException controlado
      */
     public EmpresaModelo() throws BbddException, FicheroException {
-        persistencia = new SqLiteBbdd(TABLA, CLAVE, null, null);
+        super(TABLA, new String[] { CLAVE }, COLUMNAS);
     }
 
     /**
-     * Metodo encargado de realizar la insercion de un estanteria
+     * Funcion encargada de transformar la fila actual de un ResultSet en una empresa
      * 
-     * @param estanteria a insertar
-     * @throws BbddException error controlado
+     * @param resultSet posicionado en la fila
+     * @return empresa de la fila
+     * @throws SQLException error de la bbdd
      */
-    public void insertar(Empresa empresa) throws BbddException {
-        String sql = "INSERT INTO empresa VALUES ('" + empresa.getCif() + "', '" + empresa.getNombre() + "', '"
-                + empresa.getDireccion() + "', '" + empresa.getTelefono() + "', '" + empresa.getCorreo() + "')";
-        persistencia.actualizar(sql);
+    @Override
+    protected Empresa mapear(ResultSet resultSet) throws SQLException {
+        return new Empresa(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3),
+                resultSet.getString(4), resultSet.getString(5));
     }
 
     /**
-     * Metodo encargado de eliminar una empresa
+     * Funcion que obtiene los valores de una empresa en el orden de las columnas
      * 
-     * @param empresa a eliminar
-     * @throws BbddException error controlado
+     * @param empresa del que se obtienen los valores
+     * @return valores de la fila
      */
-    public void eliminar(Empresa empresa) throws BbddException {
-        String sql = "DELETE FROM empresa WHERE cif = '" + empresa.getCif() + "'";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Metodo encargado de realizar la modificacion de una empresa
-     * 
-     * @param empresa a modificar
-     * @throws BbddException error controlado
-     */
-    public void modificar(Empresa empresa) throws BbddException {
-        String sql = "UPDATE empresa SET nombre = '" + empresa.getNombre() + "', direccion = '" + empresa.getDireccion()
-                + "', " + "telefono = '" + empresa.getTelefono() + "', correo = '" + empresa.getCorreo()
-                + "' WHERE cif = '" + empresa.getCif() + "'";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Funcion que busca un empresa en la bbdd
-     * 
-     * @param identificador del empresa
-     * @return empresa encontrado
-     * @throws BbddException error controlado
-     */
-    public Empresa buscar(String identificador) throws BbddException {
-        Empresa empresaEncontrado = null;
-        String sql = "SELECT * FROM " + TABLA + " WHERE " + CLAVE + "='" + identificador + "'";
-        ResultSet resultSet;
-        ArrayList<Empresa> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-
-        if (!lista.isEmpty()) {
-            empresaEncontrado = lista.get(0);
-        }
-        return empresaEncontrado;
-    }
-
-    /**
-     * Funcion encargada de transformar un ResultSet en una lista de resultados
-     * 
-     * @param resultSet de entrada
-     * @return lista de clientes
-     * @throws PersistenciaException error controlado
-     */
-    private ArrayList<Empresa> buscar(ResultSet resultSet) throws BbddException {
-        ArrayList<Empresa> lista = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                String cif = resultSet.getString("cif");
-                String nombre = resultSet.getString("nombre");
-                String direccion = resultSet.getString("direccion");
-                String telefono = resultSet.getString("telefono");
-                String correo = resultSet.getString("correo");
-                Empresa empresa = new Empresa(cif, nombre, direccion, telefono, correo);
-                lista.add(empresa);
-            }
-        } catch (SQLException e) {
-            throw new BbddException("Se ha producido un error realizando la transformacion a Cliente", e);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return lista;
-    }
-
-    /**
-     * Funcion encargada de buscar todos las empresas en la bbdd
-     * @return arraylist de empresas
-     * @throws BbddException controlado
-     */
-    public ArrayList<Empresa> buscarTodos() throws BbddException {
-        String sql = "SELECT * FROM " + TABLA;
-        ResultSet resultSet;
-        ArrayList<Empresa> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-        return lista;
+    @Override
+    protected Object[] valores(Empresa empresa) {
+        return new Object[] { empresa.getCif(), empresa.getNombre(), empresa.getDireccion(), empresa.getTelefono(),
+                empresa.getCorreo() };
     }
 }
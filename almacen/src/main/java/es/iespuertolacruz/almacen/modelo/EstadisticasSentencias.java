@@ -0,0 +1,91 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de la cache de sentencias preparadas de todas las conexiones de un
+ * pool
+ */
+public class EstadisticasSentencias {
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong nanosPreparacion = new AtomicLong();
+
+    /**
+     * Metodo que registra una sentencia encontrada en la cache
+     */
+    void registrarAcierto() {
+        aciertos.incrementAndGet();
+    }
+
+    /**
+     * Metodo que registra una sentencia que ha tenido que prepararse
+     *
+     * @param nanos empleados en prepararla
+     */
+    void registrarFallo(long nanos) {
+        fallos.incrementAndGet();
+        nanosPreparacion.addAndGet(nanos);
+    }
+
+    /**
+     * Metodo que registra una sentencia expulsada de la cache por falta de sitio
+     */
+    void registrarDesalojo() {
+        desalojos.incrementAndGet();
+    }
+
+    /**
+     * Funcion getter de los aciertos de la cache
+     * @return aciertos
+     */
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    /**
+     * Funcion getter de los fallos de la cache
+     * @return fallos
+     */
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    /**
+     * Funcion getter de las sentencias desalojadas
+     * @return desalojos
+     */
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    /**
+     * Funcion que obtiene la proporcion de sentencias servidas desde la cache
+     * @return tasa de aciertos entre 0 y 1
+     */
+    public double getTasaAciertos() {
+        long totales = getAciertos() + getFallos();
+        return totales == 0 ? 0 : (double) getAciertos() / totales;
+    }
+
+    /**
+     * Funcion que obtiene el tiempo total empleado en preparar sentencias
+     * @return tiempo de preparacion en microsegundos
+     */
+    public long getTiempoPreparacion() {
+        return TimeUnit.NANOSECONDS.toMicros(nanosPreparacion.get());
+    }
+
+    @Override
+    /**
+     * Funcion toString de las estadisticas
+     * @return informacion de las estadisticas
+     */
+    public String toString() {
+        return "Sentencias[aciertos=" + getAciertos() + ", fallos=" + getFallos() + ", desalojos=" + getDesalojos()
+                + ", preparacion_us=" + getTiempoPreparacion() + "]";
+    }
+}
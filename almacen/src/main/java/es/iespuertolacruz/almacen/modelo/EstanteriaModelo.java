@@ -2,17 +2,16 @@ package es.iespuertolacruz.almacen.modelo;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 
 import es.iespuertolacruz.almacen.api.Estanteria;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
-public class EstanteriaModelo {
+public class EstanteriaModelo extends ModeloBase<Estanteria, String> {
 
-    SqLiteBbdd persistencia;
     private static final String TABLA = "estanteria";
     private static final String CLAVE = "id_estanteria";
+    private static final String[] COLUMNAS = { "id_zona", "num_alturas" };
 
     /**
      * Constructor de la clase
@@ -21,114 +20,31 @@ public class EstanteriaModelo {
      * @throws FicheroException controlado
      */
     public EstanteriaModelo() throws BbddException, FicheroException {
-        persistencia = new SqLiteBbdd(TABLA, CLAVE, null, null);
+        super(TABLA, new String[] { CLAVE }, COLUMNAS, "num_huecos_ocupados");
     }
 
     /**
-     * Metodo encargado de realizar la insercion de una estanteria
+     * Funcion encargada de transformar la fila actual de un ResultSet en una estanteria
      * 
-     * @param estanteria a insertar
-     * @throws BbddException error controlado
+     * @param resultSet posicionado en la fila
+     * @return estanteria de la fila
+     * @throws SQLException error de la bbdd
      */
-    public void insertar(Estanteria estanteria) throws BbddException {
-        String sql = "INSERT INTO estanteria (id_estanteria, id_zona, num_alturas) VALUES ('" + estanteria.getIdEstanteria() + "', '" + estanteria.getIdZona() + "'," + " '"
-                + estanteria.getNumAlturas() + "')";
-        persistencia.actualizar(sql);
+    @Override
+    protected Estanteria mapear(ResultSet resultSet) throws SQLException {
+        return new Estanteria(resultSet.getInt(1), resultSet.getString(2).charAt(0), resultSet.getInt(3),
+                resultSet.getInt(4));
     }
 
     /**
-     * Metodo encargado de eliminar una estanteria
+     * Funcion que obtiene los valores de una estanteria en el orden de las columnas
      * 
-     * @param estanteria a eliminar
-     * @throws BbddException error controlado
+     * @param estanteria del que se obtienen los valores
+     * @return valores de la fila
      */
-    public void eliminar(Estanteria estanteria) throws BbddException {
-        String sql = "DELETE FROM estanteria WHERE id_estanteria = '" + estanteria.getIdEstanteria() + "'";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Metodo encargado de realizar la modificacion de una estanteria
-     * 
-     * @param estanteria a modificar
-     * @throws BbddException error controlado
-     */
-    public void modificar(Estanteria estanteria) throws BbddException {
-        String sql = "UPDATE estanteria SET id_zona = '" + estanteria.getIdZona() + "'," + " num_alturas = '"
-                + estanteria.getNumAlturas() + "'" + " WHERE id_estanteria = '" + estanteria.getIdEstanteria() + "'";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Funcion que busca un estanteria en la bbdd
-     * 
-     * @param identificador del estanteria
-     * @return estanteria encontrado
-     * @throws BbddException error controlado
-     */
-    public Estanteria buscar(String identificador) throws BbddException {
-        Estanteria estanteriaEncontrado = null;
-        String sql = "SELECT * FROM " + TABLA + " WHERE " + CLAVE + "='" + identificador + "'";
-        ResultSet resultSet;
-        ArrayList<Estanteria> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-
-        if (!lista.isEmpty()) {
-            estanteriaEncontrado = lista.get(0);
-        }
-        return estanteriaEncontrado;
-    }
-
-    /**
-     * Funcion encargada de transformar un ResultSet en una lista de resultados
-     * 
-     * @param resultSet de entrada
-     * @return lista de clientes
-     * @throws PersistenciaException error controlado
-     */
-    private ArrayList<Estanteria> buscar(ResultSet resultSet) throws BbddException {
-        ArrayList<Estanteria> lista = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                int idEstanteria = resultSet.getInt(CLAVE);
-                char idZona = resultSet.getString("id_zona").charAt(0);
-                int numAlturas = resultSet.getInt("num_alturas");
-                int numHuecosOcupados = resultSet.getInt("num_huecos_ocupados");
-                Estanteria estanteria = new Estanteria(idEstanteria, idZona, numAlturas, numHuecosOcupados);
-                lista.add(estanteria);
-            }
-        } catch (SQLException e) {
-            throw new BbddException("Se ha producido un error realizando la transformacion a Cliente", e);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return lista;
-    }
-
-    /**
-     * Funcion encargada de buscar todas las estanterias en la bbdd
-     * @return arraylist de estanterias
-     * @throws BbddException controlado
-     */
-    public ArrayList<Estanteria> buscarTodos() throws BbddException {
-        String sql = "SELECT * FROM " + TABLA;
-        ResultSet resultSet;
-        ArrayList<Estanteria> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-        return lista;
+    @Override
+    protected Object[] valores(Estanteria estanteria) {
+        return new Object[] { estanteria.getIdEstanteria(), String.valueOf(estanteria.getIdZona()),
+                estanteria.getNumAlturas() };
     }
 }
@@ -0,0 +1,58 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.Locale;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+/**
+ * Fabrica que crea la bbdd de los modelos segun la propiedad almacen.bbdd:
+ * sqlite (por defecto) o mysql. La conexion a MySQL se configura con las
+ * propiedades almacen.mysql.url, almacen.mysql.usuario y almacen.mysql.password
+ */
+public class FabricaBbdd {
+
+    public static final String PROPIEDAD_BBDD = "almacen.bbdd";
+    public static final String SQLITE = "sqlite";
+    public static final String MYSQL = "mysql";
+
+    /**
+     * Constructor de la clase, solo tiene metodos estaticos
+     */
+    private FabricaBbdd() {
+    }
+
+    /**
+     * Funcion que crea la bbdd configurada para una tabla
+     *
+     * @param tabla de la bbdd
+     * @param clave de la tabla
+     * @return bbdd configurada
+     * @throws BbddException    si el tipo de bbdd no es valido
+     * @throws FicheroException controlado
+     */
+    public static Bbdd crear(String tabla, String clave) throws BbddException, FicheroException {
+        return crear(System.getProperty(PROPIEDAD_BBDD, SQLITE), tabla, clave);
+    }
+
+    /**
+     * Funcion que crea una bbdd del tipo indicado para una tabla
+     *
+     * @param tipo  de bbdd, sqlite o mysql
+     * @param tabla de la bbdd
+     * @param clave de la tabla
+     * @return bbdd del tipo indicado
+     * @throws BbddException    si el tipo de bbdd no es valido
+     * @throws FicheroException controlado
+     */
+    static Bbdd crear(String tipo, String tabla, String clave) throws BbddException, FicheroException {
+        switch (tipo.trim().toLowerCase(Locale.ROOT)) {
+            case SQLITE:
+                return new SqLiteBbdd(tabla, clave, null, null);
+            case MYSQL:
+                return new MySqlBbdd(tabla, clave);
+            default:
+                throw new BbddException("El tipo de bbdd no es valido: " + tipo);
+        }
+    }
+}
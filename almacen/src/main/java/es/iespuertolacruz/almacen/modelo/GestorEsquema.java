@@ -0,0 +1,327 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+/**
+ * Gestor del esquema de la bbdd. Aplica una unica vez por proceso y por bbdd
+ * las migraciones pendientes y registra las versiones aplicadas en la tabla
+ * version_esquema, de modo que los modelos posteriores no realizan ninguna
+ * comprobacion al crearse.
+ *
+ * La version 1 es el esquema base: crea y rellena cada tabla que no exista a
+ * partir de sus ficheros .crear.sql e .insertar.sql. Las siguientes versiones
+ * son los ficheros NNN.descripcion.sql del directorio de migraciones.
+ *
+ * Cada bbdd indica su directorio de scripts, con los .crear.sql y las
+ * migraciones en su dialecto. Los .insertar.sql son SQL estandar y se leen
+ * siempre del directorio de SQLite.
+ */
+public class GestorEsquema {
+
+    public static final String TABLA_VERSION = "version_esquema";
+    public static final String DIRECTORIO_SQL = "resources/sql/sqlite/";
+    public static final String DIRECTORIO_MIGRACIONES = DIRECTORIO_SQL + "migraciones/";
+
+    private static final int VERSION_BASE = 1;
+    private static final String[] TABLAS_BASE = { "zona", "producto", "estanteria", "muelle", "empresa", "cliente",
+            "proveedor", "producto_estanteria", "lista_productos", "operacion", "usuarios" };
+    private static final Pattern FICHERO_MIGRACION = Pattern.compile("^(\\d+)\\.(.+)\\.sql$");
+    private static final Set<String> INICIALIZADAS = ConcurrentHashMap.newKeySet();
+
+    private static final String SQL_CREAR_VERSION = "CREATE TABLE IF NOT EXISTS " + TABLA_VERSION
+            + " (version INTEGER PRIMARY KEY, descripcion TEXT, fecha_aplicacion TEXT)";
+    private static final String SQL_BUSCAR_VERSIONES = "SELECT version FROM " + TABLA_VERSION;
+    private static final String SQL_INSERTAR_VERSION = "INSERT INTO " + TABLA_VERSION
+            + " (version, descripcion, fecha_aplicacion) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+    private final Bbdd bbdd;
+    private final String directorioSql;
+    private final String directorioMigraciones;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param bbdd                  sobre la que se aplican las migraciones
+     * @param directorioMigraciones con los ficheros NNN.descripcion.sql
+     */
+    GestorEsquema(Bbdd bbdd, String directorioMigraciones) {
+        this.bbdd = bbdd;
+        this.directorioSql = bbdd.getDirectorioSql();
+        this.directorioMigraciones = directorioMigraciones;
+    }
+
+    /**
+     * Metodo que deja el esquema de la bbdd en la ultima version. Solo la primera
+     * llamada del proceso para cada bbdd realiza trabajo
+     *
+     * @param bbdd a comprobar
+     * @throws BbddException controlado
+     */
+    static void asegurar(Bbdd bbdd) throws BbddException {
+        String clave = bbdd.driver + "|" + bbdd.url;
+        if (INICIALIZADAS.contains(clave)) {
+            return;
+        }
+        synchronized (GestorEsquema.class) {
+            if (!INICIALIZADAS.contains(clave)) {
+                new GestorEsquema(bbdd, bbdd.getDirectorioSql() + "migraciones/").migrar();
+                INICIALIZADAS.add(clave);
+            }
+        }
+    }
+
+    /**
+     * Funcion que aplica las migraciones pendientes
+     *
+     * @return numero de migraciones aplicadas
+     * @throws BbddException controlado
+     */
+    public int migrar() throws BbddException {
+        try {
+            bbdd.ejecutar(SQL_CREAR_VERSION);
+            Set<Integer> aplicadas = new HashSet<>(bbdd.consultar(SQL_BUSCAR_VERSIONES, r -> r.getInt(1)));
+            int numAplicadas = 0;
+            if (!aplicadas.contains(VERSION_BASE)) {
+                aplicarBase();
+                numAplicadas++;
+            }
+            for (File fichero : obtenerMigraciones()) {
+                Matcher matcher = FICHERO_MIGRACION.matcher(fichero.getName());
+                matcher.matches();
+                int version = Integer.parseInt(matcher.group(1));
+                if (!aplicadas.contains(version)) {
+                    aplicar(version, matcher.group(2), new Fichero().leer(fichero.getPath()));
+                    numAplicadas++;
+                }
+            }
+            return numAplicadas;
+        } catch (FicheroException exception) {
+            throw new BbddException("Se ha producido un error leyendo las migraciones de la BBDD", exception);
+        }
+    }
+
+    /**
+     * Metodo que aplica el esquema base creando y rellenando las tablas que no
+     * existen todavia. Las tablas, sus datos y el registro de la version se
+     * escriben en la misma transaccion, como las demas migraciones
+     *
+     * @throws BbddException    controlado
+     * @throws FicheroException controlado
+     */
+    private void aplicarBase() throws BbddException, FicheroException {
+        Set<String> existentes = obtenerTablas();
+        List<String> creaciones = new ArrayList<>();
+        List<String> inserciones = new ArrayList<>();
+        for (String tabla : TABLAS_BASE) {
+            if (!existentes.contains(tabla)) {
+                creaciones.add(new Fichero().leer(directorioSql + tabla + ".crear.sql"));
+                inserciones.addAll(dividirSentencias(new Fichero().leer(DIRECTORIO_SQL + tabla + ".insertar.sql")));
+            }
+        }
+        try {
+            bbdd.escribir(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String creacion : creaciones) {
+                        statement.executeUpdate(creacion);
+                    }
+                    for (int i = 0; i < inserciones.size(); i++) {
+                        statement.addBatch(inserciones.get(i));
+                        if ((i + 1) % Bbdd.TAMANIO_LOTE == 0 || i == inserciones.size() - 1) {
+                            statement.executeBatch();
+                        }
+                    }
+                }
+                PreparedStatement registro = bbdd.preparar(connection, SQL_INSERTAR_VERSION);
+                bbdd.asignarParametros(registro, VERSION_BASE, "esquema base");
+                return registro.executeUpdate();
+            });
+        } catch (BbddException exception) {
+            throw new BbddException("Se ha producido un error aplicando el esquema base", exception);
+        }
+    }
+
+    /**
+     * Metodo que aplica una migracion y registra su version en la misma
+     * transaccion
+     *
+     * @param version     de la migracion
+     * @param descripcion de la migracion
+     * @param script      con las sentencias de la migracion
+     * @throws BbddException controlado
+     */
+    private void aplicar(int version, String descripcion, String script) throws BbddException {
+        List<String> sentencias = dividirSentencias(script);
+        try {
+            bbdd.escribir(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sentencia : sentencias) {
+                        statement.executeUpdate(sentencia);
+                    }
+                }
+                PreparedStatement registro = bbdd.preparar(connection, SQL_INSERTAR_VERSION);
+                bbdd.asignarParametros(registro, version, descripcion);
+                return registro.executeUpdate();
+            });
+        } catch (BbddException exception) {
+            throw new BbddException("Se ha producido un error aplicando la migracion " + version, exception);
+        }
+    }
+
+    /**
+     * Funcion que obtiene los nombres de las tablas existentes
+     *
+     * @return nombres de las tablas
+     * @throws BbddException controlado
+     */
+    private Set<String> obtenerTablas() throws BbddException {
+        Set<String> tablas = new HashSet<>();
+        Connection connection = null;
+        ResultSet resultSet = null;
+        try {
+            connection = bbdd.getConnection();
+            resultSet = connection.getMetaData().getTables(connection.getCatalog(), null, null, new String[] { "TABLE" });
+            while (resultSet.next()) {
+                tablas.add(resultSet.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+            }
+        } catch (SQLException exception) {
+            throw new BbddException("Se ha producido un error en la inicializacion de la BBDD", exception);
+        } finally {
+            bbdd.closeConnection(connection, null, resultSet);
+        }
+        return tablas;
+    }
+
+    /**
+     * Funcion que obtiene los ficheros de migracion ordenados por version
+     *
+     * @return ficheros de migracion
+     */
+    private List<File> obtenerMigraciones() {
+        File[] ficheros = new File(directorioMigraciones)
+                .listFiles(fichero -> FICHERO_MIGRACION.matcher(fichero.getName()).matches());
+        if (ficheros == null) {
+            return new ArrayList<>();
+        }
+        List<File> migraciones = new ArrayList<>(Arrays.asList(ficheros));
+        migraciones.sort(Comparator.comparingInt(fichero -> {
+            Matcher matcher = FICHERO_MIGRACION.matcher(fichero.getName());
+            matcher.matches();
+            return Integer.parseInt(matcher.group(1));
+        }));
+        return migraciones;
+    }
+
+    /**
+     * Funcion que divide un script en sentencias por el caracter ';', sin partir
+     * los literales ni los cuerpos BEGIN ... END de los triggers. Los
+     * comentarios de linea y de bloque se descartan antes de buscar palabras o
+     * comillas, y las palabras incluyen letras, digitos y '_', de modo que un
+     * identificador como fecha_end no cuenta como END
+     *
+     * @param script a dividir
+     * @return sentencias no vacias
+     */
+    static List<String> dividirSentencias(String script) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        StringBuilder palabra = new StringBuilder();
+        int bloques = 0;
+        char comilla = 0;
+        for (int i = 0; i < script.length(); i++) {
+            char caracter = script.charAt(i);
+            if (comilla != 0) {
+                if (caracter == comilla) {
+                    comilla = 0;
+                }
+                actual.append(caracter);
+                continue;
+            }
+            if (Character.isLetterOrDigit(caracter) || caracter == '_') {
+                palabra.append(caracter);
+                actual.append(caracter);
+                continue;
+            }
+            bloques += cambioBloque(palabra.toString());
+            palabra.setLength(0);
+            int finComentario = finComentario(script, i);
+            if (finComentario > i) {
+                actual.append(' ');
+                i = finComentario - 1;
+                continue;
+            }
+            if (caracter == '\'' || caracter == '"' || caracter == '`') {
+                comilla = caracter;
+            } else if (caracter == ';' && bloques == 0) {
+                anadirSentencia(sentencias, actual);
+                continue;
+            }
+            actual.append(caracter);
+        }
+        anadirSentencia(sentencias, actual);
+        return sentencias;
+    }
+
+    /**
+     * Funcion que obtiene el final de un comentario que empieza en una posicion
+     *
+     * @param script   que se divide
+     * @param posicion del caracter actual
+     * @return posicion siguiente al comentario, o la misma si no empieza uno
+     */
+    private static int finComentario(String script, int posicion) {
+        if (script.startsWith("--", posicion)) {
+            int fin = script.indexOf('\n', posicion);
+            return fin < 0 ? script.length() : fin;
+        }
+        if (script.startsWith("/*", posicion)) {
+            int fin = script.indexOf("*/", posicion + 2);
+            return fin < 0 ? script.length() : fin + 2;
+        }
+        return posicion;
+    }
+
+    /**
+     * Funcion que indica si una palabra abre o cierra un bloque
+     *
+     * @param palabra leida
+     * @return 1 si abre, -1 si cierra o 0
+     */
+    private static int cambioBloque(String palabra) {
+        if ("BEGIN".equalsIgnoreCase(palabra) || "CASE".equalsIgnoreCase(palabra)) {
+            return 1;
+        }
+        return "END".equalsIgnoreCase(palabra) ? -1 : 0;
+    }
+
+    /**
+     * Metodo que anade la sentencia acumulada si no esta vacia
+     *
+     * @param sentencias lista de sentencias
+     * @param actual     sentencia acumulada, que se vacia
+     */
+    private static void anadirSentencia(List<String> sentencias, StringBuilder actual) {
+        String sentencia = actual.toString().trim();
+        if (!sentencia.isEmpty()) {
+            sentencias.add(sentencia);
+        }
+        actual.setLength(0);
+    }
+}
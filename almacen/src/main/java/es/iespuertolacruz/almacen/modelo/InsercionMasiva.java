@@ -0,0 +1,32 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.List;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Interfaz de los modelos que insertan listas de elementos por lotes
+ *
+ * @param <T> tipo del elemento
+ */
+public interface InsercionMasiva<T> {
+
+    /**
+     * Funcion que indica que elementos no pueden insertarse porque su clave ya
+     * existe en la bbdd o aparece antes en la misma lista
+     *
+     * @param elementos a comprobar
+     * @return array paralelo a la lista, a true para los elementos repetidos
+     * @throws BbddException controlado
+     */
+    boolean[] repetidos(List<T> elementos) throws BbddException;
+
+    /**
+     * Metodo que inserta varios elementos en una sola escritura por lotes. Si
+     * falla alguna fila no se inserta ninguna
+     *
+     * @param elementos a insertar
+     * @throws BbddException controlado
+     */
+    void insertarTodos(List<T> elementos) throws BbddException;
+}
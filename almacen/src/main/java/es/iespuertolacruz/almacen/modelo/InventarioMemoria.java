@@ -0,0 +1,245 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Copia en memoria de las cantidades de producto_estanteria, opcional y
+ * activada con la propiedad almacen.inventario.memoria. Se carga una vez por
+ * bbdd al crear el primer modelo y guarda cada cantidad en un MapaLongInt con
+ * la clave (producto, estanteria), sin objetos por entrada.
+ *
+ * Las lecturas son optimistas con un StampedLock y no bloquean. Los modelos
+ * que escriben en producto_estanteria actualizan la copia tras confirmar la
+ * transaccion, de modo que un cambio deshecho nunca llega a la memoria. Las
+ * escrituras que no pasan por los modelos no se reflejan.
+ */
+public class InventarioMemoria {
+
+    public static final String PROPIEDAD_ACTIVO = "almacen.inventario.memoria";
+    public static final int SIN_STOCK = -1;
+
+    private static final Map<String, InventarioMemoria> INVENTARIOS = new ConcurrentHashMap<>();
+    private static final String SQL_CARGAR = "SELECT id_producto, id_estanteria, cantidad FROM producto_estanteria";
+    private static final String SQL_CONTAR = "SELECT COUNT(*) FROM producto_estanteria";
+
+    private final MapaLongInt cantidades;
+    private final StampedLock cerrojo = new StampedLock();
+
+    /**
+     * Constructor de la clase
+     *
+     * @param elementos que se espera guardar
+     */
+    InventarioMemoria(int elementos) {
+        cantidades = new MapaLongInt(elementos);
+    }
+
+    /**
+     * Funcion que indica si el inventario en memoria esta activado
+     *
+     * @return true/false activado o no
+     */
+    public static boolean activado() {
+        return Boolean.getBoolean(PROPIEDAD_ACTIVO);
+    }
+
+    /**
+     * Funcion que obtiene el inventario de una bbdd, cargandolo la primera vez
+     *
+     * @param bbdd del inventario
+     * @return inventario de la bbdd
+     * @throws BbddException controlado
+     */
+    static InventarioMemoria de(Bbdd bbdd) throws BbddException {
+        String clave = bbdd.driver + "|" + bbdd.url;
+        InventarioMemoria inventario = INVENTARIOS.get(clave);
+        if (inventario != null) {
+            return inventario;
+        }
+        synchronized (INVENTARIOS) {
+            inventario = INVENTARIOS.get(clave);
+            if (inventario == null) {
+                inventario = cargar(bbdd);
+                INVENTARIOS.put(clave, inventario);
+            }
+        }
+        return inventario;
+    }
+
+    /**
+     * Funcion que obtiene el inventario de una bbdd solo si ya se ha cargado
+     *
+     * @param bbdd del inventario
+     * @return inventario de la bbdd o null
+     */
+    static InventarioMemoria cargado(Bbdd bbdd) {
+        return INVENTARIOS.get(bbdd.driver + "|" + bbdd.url);
+    }
+
+    /**
+     * Metodo que descarta el inventario cargado de una bbdd, de modo que el
+     * siguiente modelo lo vuelva a cargar
+     *
+     * @param bbdd del inventario
+     */
+    static void descartar(Bbdd bbdd) {
+        INVENTARIOS.remove(bbdd.driver + "|" + bbdd.url);
+    }
+
+    /**
+     * Funcion que carga todas las cantidades de producto_estanteria recorriendo
+     * la tabla con un cursor
+     *
+     * @param bbdd de la que se carga
+     * @return inventario cargado
+     * @throws BbddException controlado
+     */
+    private static InventarioMemoria cargar(Bbdd bbdd) throws BbddException {
+        Integer filas = bbdd.consultarUno(SQL_CONTAR, resultSet -> resultSet.getInt(1));
+        InventarioMemoria inventario = new InventarioMemoria(filas == null ? 0 : filas);
+        try (Stream<long[]> lineas = bbdd.consultarFlujo(SQL_CARGAR, ModeloBase.tamanioLote(),
+                resultSet -> new long[] { MapaLongInt.clave(resultSet.getInt(1), resultSet.getInt(2)),
+                        resultSet.getInt(3) })) {
+            lineas.forEach(linea -> inventario.cantidades.poner(linea[0], (int) linea[1]));
+        }
+        return inventario;
+    }
+
+    /**
+     * Funcion que obtiene la cantidad de un producto en una estanteria
+     *
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     * @return cantidad o SIN_STOCK si el producto no esta en la estanteria
+     */
+    public int obtenerCantidad(int idProducto, int idEstanteria) {
+        long clave = MapaLongInt.clave(idProducto, idEstanteria);
+        long sello = cerrojo.tryOptimisticRead();
+        int cantidad = cantidades.obtener(clave, SIN_STOCK);
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                cantidad = cantidades.obtener(clave, SIN_STOCK);
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        return cantidad;
+    }
+
+    /**
+     * Funcion que obtiene el numero de lineas del inventario
+     *
+     * @return numero de pares producto estanteria
+     */
+    public int tamanio() {
+        long sello = cerrojo.readLock();
+        try {
+            return cantidades.tamanio();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Metodo que fija la cantidad de un producto en una estanteria cuando se
+     * confirme la transaccion activa, o en el momento si no hay ninguna
+     *
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     * @param cantidad     nueva
+     */
+    void fijar(int idProducto, int idEstanteria, int cantidad) {
+        long clave = MapaLongInt.clave(idProducto, idEstanteria);
+        trasConfirmar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                cantidades.poner(clave, cantidad);
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        });
+    }
+
+    /**
+     * Metodo que cambia la cantidad de un producto que ya esta en una
+     * estanteria cuando se confirme la transaccion activa, o en el momento si
+     * no hay ninguna
+     *
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     * @param cantidad     nueva
+     */
+    void modificar(int idProducto, int idEstanteria, int cantidad) {
+        long clave = MapaLongInt.clave(idProducto, idEstanteria);
+        trasConfirmar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                if (cantidades.contiene(clave)) {
+                    cantidades.poner(clave, cantidad);
+                }
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        });
+    }
+
+    /**
+     * Metodo que suma una cantidad a un producto en una estanteria cuando se
+     * confirme la transaccion activa, o en el momento si no hay ninguna
+     *
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     * @param cantidad     a sumar, negativa para restar
+     */
+    void sumar(int idProducto, int idEstanteria, int cantidad) {
+        long clave = MapaLongInt.clave(idProducto, idEstanteria);
+        trasConfirmar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                cantidades.sumar(clave, cantidad);
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        });
+    }
+
+    /**
+     * Metodo que elimina un producto de una estanteria cuando se confirme la
+     * transaccion activa, o en el momento si no hay ninguna
+     *
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     */
+    void eliminar(int idProducto, int idEstanteria) {
+        long clave = MapaLongInt.clave(idProducto, idEstanteria);
+        trasConfirmar(() -> {
+            long sello = cerrojo.writeLock();
+            try {
+                cantidades.eliminar(clave);
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        });
+    }
+
+    /**
+     * Metodo que ejecuta una accion tras confirmar la transaccion activa del
+     * hilo, o en el momento si no hay ninguna
+     *
+     * @param accion a ejecutar
+     */
+    private static void trasConfirmar(Runnable accion) {
+        Transaccion transaccion = Transaccion.actual();
+        if (transaccion == null) {
+            accion.run();
+        } else {
+            transaccion.trasConfirmar(accion);
+        }
+    }
+}
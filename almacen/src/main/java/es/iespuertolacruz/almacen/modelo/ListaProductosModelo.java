@@ -3,19 +3,40 @@ package es.iespuertolacruz.almacen.modelo;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import es.iespuertolacruz.almacen.api.ListaProductos;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
-public class ListaProductosModelo {
+public class ListaProductosModelo implements InsercionMasiva<ListaProductos> {
 
-    private static final String SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA = "Se ha producido un error realizando la consulta";
-    SqLiteBbdd persistencia;
+    Bbdd persistencia;
     private static final String TABLA = "lista_productos";
     private static final String CLAVE = "id_lista_productos";
     private static final String CLAVESEC = "id_producto";
+    private static final String[] COLUMNAS = { CLAVE, CLAVESEC, "cantidad" };
+    private static final String SQL_ELIMINAR = "DELETE FROM " + TABLA + " WHERE " + CLAVE + " = ?";
+    private static final String ORDEN = " ORDER BY " + CLAVE;
+    private static final String SQL_BUSCAR_TODOS = "SELECT " + String.join(", ", COLUMNAS) + " FROM " + TABLA;
+    private static final String SQL_BUSCAR = SQL_BUSCAR_TODOS + " WHERE " + CLAVE + " = ?";
+    private static final String SQL_BUSCAR_IDS = "SELECT DISTINCT " + CLAVE + " FROM " + TABLA + " WHERE " + CLAVE
+            + " IN (";
+    private static final String SQL_IDS = "SELECT DISTINCT " + CLAVE + " FROM " + TABLA;
+    private static final int MAXIMO_BLOQUE = 500;
+
+    private final String sqlPrimeraPagina;
+    private final String sqlSiguientePagina;
 
     /**
      * Constructor de la clase
@@ -24,22 +45,77 @@ public class ListaProductosModelo {
      * @throws FicheroException controlado
      */
     public ListaProductosModelo() throws BbddException, FicheroException {
-        persistencia = new SqLiteBbdd(TABLA, CLAVE, null, null);
+        persistencia = FabricaBbdd.crear(TABLA, CLAVE);
+        sqlPrimeraPagina = persistencia.getDialecto().limitar(SQL_IDS + ORDEN);
+        sqlSiguientePagina = persistencia.getDialecto().limitar(SQL_IDS + " WHERE " + CLAVE + " > ?" + ORDEN);
     }
 
     /**
-     * Metodo encargado de realizar la insercion de una listaProductos
+     * Metodo encargado de realizar la insercion de una listaProductos. Todas las
+     * lineas se insertan de una vez con la forma masiva del dialecto
      * 
      * @param listaProductos a insertar
      * @throws BbddException error controlado
      */
     public void insertar(ListaProductos listaProductos) throws BbddException {
-        HashMap<Integer, Integer> mapaListaProductos = listaProductos.getLista();
-        StringBuilder sql = new StringBuilder();
-        mapaListaProductos.forEach((producto, cantidad) -> sql
-                .append("INSERT INTO lista_productos (id_lista_productos, id_producto, cantidad) VALUES ('"
-                        + listaProductos.getIdListaProductos() + "'," + producto + ", " + cantidad + ");"));
-        persistencia.insertarElementos(sql.toString());
+        List<Object[]> filas = new ArrayList<>(listaProductos.tamanio());
+        for (int i = 0; i < listaProductos.tamanio(); i++) {
+            filas.add(new Object[] { listaProductos.getIdListaProductos(), listaProductos.getProducto(i),
+                    listaProductos.getCantidad(i) });
+        }
+        persistencia.insertarVarios(TABLA, COLUMNAS, filas);
+    }
+
+    /**
+     * Metodo encargado de insertar varias listaProductos. Las lineas de todas las
+     * listas se insertan de una vez con la forma masiva del dialecto
+     * 
+     * @param listasProductos a insertar
+     * @throws BbddException error controlado
+     */
+    @Override
+    public void insertarTodos(List<ListaProductos> listasProductos) throws BbddException {
+        List<Object[]> filas = new ArrayList<>();
+        for (ListaProductos listaProductos : listasProductos) {
+            for (int i = 0; i < listaProductos.tamanio(); i++) {
+                filas.add(new Object[] { listaProductos.getIdListaProductos(), listaProductos.getProducto(i),
+                        listaProductos.getCantidad(i) });
+            }
+        }
+        persistencia.insertarVarios(TABLA, COLUMNAS, filas);
+    }
+
+    /**
+     * Funcion que indica que listaProductos tienen un id que ya existe en la bbdd
+     * o aparece antes en la misma lista
+     * 
+     * @param listasProductos a comprobar
+     * @return array paralelo a la lista, a true para las listas repetidas
+     * @throws BbddException error controlado
+     */
+    @Override
+    public boolean[] repetidos(List<ListaProductos> listasProductos) throws BbddException {
+        boolean[] repetidos = new boolean[listasProductos.size()];
+        Map<Integer, Integer> posiciones = new HashMap<>();
+        ArrayList<Integer> pendientes = new ArrayList<>();
+        for (int i = 0; i < listasProductos.size(); i++) {
+            int id = listasProductos.get(i).getIdListaProductos();
+            if (posiciones.putIfAbsent(id, i) == null) {
+                pendientes.add(id);
+            } else {
+                repetidos[i] = true;
+            }
+        }
+        int bloque = Math.min(MAXIMO_BLOQUE, persistencia.getDialecto().getMaximoParametros());
+        for (int inicio = 0; inicio < pendientes.size(); inicio += bloque) {
+            Object[] parametros = Bbdd.parametrosIn(pendientes.subList(inicio,
+                    Math.min(inicio + bloque, pendientes.size())), bloque);
+            for (Integer id : persistencia.consultar(SQL_BUSCAR_IDS + Bbdd.marcadores(parametros.length) + ")",
+                    resultSet -> resultSet.getInt(1), parametros)) {
+                repetidos[posiciones.get(id)] = true;
+            }
+        }
+        return repetidos;
     }
 
     /**
@@ -49,117 +125,165 @@ public class ListaProductosModelo {
      * @throws BbddException error controlado
      */
     public void eliminar(ListaProductos listaProducto) throws BbddException {
-        String sql = "DELETE FROM lista_productos WHERE id_lista_productos = '" + listaProducto.getIdListaProductos()
-                + "'";
-        persistencia.actualizar(sql);
+        persistencia.actualizar(SQL_ELIMINAR, listaProducto.getIdListaProductos());
     }
 
     /**
-     * Metodo encargado de realizar la modificacion de una listaProducto
+     * Metodo encargado de realizar la modificacion de una listaProducto. El
+     * borrado y la nueva insercion se realizan en la misma transaccion
      * 
      * @param listaProducto a modificar
      * @throws BbddException error controlado
      */
     public void modificar(ListaProductos listaProducto) throws BbddException {
-        eliminar(listaProducto);
-        insertar(listaProducto);
+        Transaccion.ejecutar(transaccion -> {
+            eliminar(listaProducto);
+            insertar(listaProducto);
+            return null;
+        });
     }
 
     /**
-     * Funcion que busca un producto en la bbdd
+     * Funcion que busca una lista de productos en la bbdd con una unica consulta
+     * de sus lineas
      * 
-     * @param identificador del producto
-     * @return producto encontrado
+     * @param identificador de la lista de productos
+     * @return lista de productos encontrada o null
      * @throws BbddException error controlado
      */
     public ListaProductos buscar(String identificador) throws BbddException {
-        ListaProductos listaProductosEncontrado = null;
-        String sql = "SELECT * FROM " + TABLA + " WHERE " + CLAVE + "='" + identificador + "'";
-        ResultSet resultSet;
-        ArrayList<ListaProductos> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-
-        if (!lista.isEmpty()) {
-            listaProductosEncontrado = lista.get(0);
-        }
-        return listaProductosEncontrado;
+        ArrayList<ListaProductos> lista = agrupar(
+                persistencia.consultar(SQL_BUSCAR, this::mapearLinea, identificador));
+        return lista.isEmpty() ? null : lista.get(0);
     }
 
     /**
-     * Funcion encargada de transformar un ResultSet en una lista de resultados
+     * Funcion que busca varias listas de productos. Los ids se consultan en
+     * bloques con IN (?, ...) del tamanio que admite la bbdd, en lugar de una
+     * consulta por lista. El numero de marcadores se redondea a potencias de 2
+     * para no llenar la cache de sentencias
      * 
-     * @param resultSet de entrada
-     * @return lista de clientes
-     * @throws PersistenciaException error controlado
+     * @param ids de las listas de productos
+     * @return listas encontradas, ordenadas por id
+     * @throws BbddException error controlado
      */
-    private ArrayList<ListaProductos> buscar(ResultSet resultSet) throws BbddException {
-        ArrayList<ListaProductos> lista = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                int idListaProductos = resultSet.getInt(CLAVE);
-                HashMap<Integer, Integer> mapaListaProducto = obtenerHashMapListaProducto(idListaProductos);
-                ListaProductos listaProductos = new ListaProductos(idListaProductos, mapaListaProducto);
-                lista.add(listaProductos);
-            }
-        } catch (SQLException e) {
-            throw new BbddException("Se ha producido un error realizando la transformacion a Cliente", e);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
+    public ArrayList<ListaProductos> buscarVarios(Collection<Integer> ids) throws BbddException {
+        ArrayList<Integer> pendientes = new ArrayList<>(new TreeSet<>(ids));
+        int bloque = Math.min(MAXIMO_BLOQUE, persistencia.getDialecto().getMaximoParametros());
+        ArrayList<int[]> lineas = new ArrayList<>();
+        for (int inicio = 0; inicio < pendientes.size(); inicio += bloque) {
+            List<Integer> parte = pendientes.subList(inicio, Math.min(inicio + bloque, pendientes.size()));
+            Object[] parametros = Bbdd.parametrosIn(parte, bloque);
+            String sql = SQL_BUSCAR_TODOS + " WHERE " + CLAVE + " IN (" + Bbdd.marcadores(parametros.length) + ")"
+                    + ORDEN;
+            lineas.addAll(persistencia.consultar(sql, this::mapearLinea, parametros));
         }
-        return lista;
+        return agrupar(lineas);
     }
 
     /**
-     * Funcion encargada de buscar todas las listaproductos en la bbdd
+     * Funcion encargada de buscar todas las listaproductos en la bbdd. Las lineas
+     * se recorren con una unica consulta ordenada y se agrupan por lista
      * @return arraylist de listaproductos
      * @throws BbddException controlado
      */
     public ArrayList<ListaProductos> buscarTodos() throws BbddException {
-        String sql = "SELECT * FROM " + TABLA;
-        ResultSet resultSet;
-        ArrayList<ListaProductos> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
+        try (Stream<ListaProductos> listas = stream()) {
+            return listas.collect(Collectors.toCollection(ArrayList::new));
         }
-        return lista;
     }
 
     /**
-     * Funcion que obtiene el hashmap de una lista de productos
-     * @param idListaProductos a buscar
-     * @return hashmap<idProdcto, cantidad>
+     * Funcion que recorre todas las listas de productos bajo demanda. Las lineas
+     * se leen con un cursor ordenado por id, en lotes del tamanio de la
+     * propiedad almacen.consulta.lote, y cada lista se entrega en cuanto se lee
+     * su ultima linea, por lo que solo se mantiene en memoria la lista actual.
+     * El flujo debe cerrarse al terminar
+     * 
+     * @return flujo de listas de productos
+     * @throws BbddException controlado
+     */
+    public Stream<ListaProductos> stream() throws BbddException {
+        Stream<int[]> lineas = persistencia.consultarFlujo(SQL_BUSCAR_TODOS + ORDEN, ModeloBase.tamanioLote(),
+                this::mapearLinea);
+        Spliterator<int[]> origen = lineas.spliterator();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<ListaProductos>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int[] pendiente;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super ListaProductos> accion) {
+                if (pendiente == null && !origen.tryAdvance(linea -> pendiente = linea)) {
+                    return false;
+                }
+                ListaProductos actual = new ListaProductos();
+                actual.setIdListaProducto(pendiente[0]);
+                do {
+                    actual.poner(pendiente[1], pendiente[2]);
+                    pendiente = null;
+                } while (origen.tryAdvance(linea -> pendiente = linea)
+                        && pendiente[0] == actual.getIdListaProductos());
+                accion.accept(actual);
+                return true;
+            }
+        }, false).onClose(lineas::close);
+    }
+
+    /**
+     * Funcion que obtiene la pagina de listas de productos que siguen a un
+     * cursor, ordenadas por id. Se consultan primero los ids de la pagina, con
+     * uno de mas para saber si hay pagina siguiente, y despues sus lineas
+     * 
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de listas de la pagina
+     * @return pagina de listas de productos
      * @throws BbddException controlado
      */
-    private HashMap<Integer, Integer> obtenerHashMapListaProducto(int idListaProductos) throws BbddException {
-        String sql = "SELECT id_producto, cantidad FROM lista_productos WHERE id_lista_productos = "
-                        + idListaProductos;
-        ResultSet resultSet;
-        HashMap<Integer, Integer> lista = new HashMap<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            while (resultSet.next()) {
-                int idProducto = resultSet.getInt(CLAVESEC);
-                int cantidad = resultSet.getInt("cantidad");
-                lista.put(idProducto, cantidad);
+    public Pagina<ListaProductos> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        if (limite < 1) {
+            throw new BbddException("El limite de la pagina debe ser mayor que 0");
+        }
+        ArrayList<Integer> ids = cursor == null
+                ? persistencia.consultar(sqlPrimeraPagina, resultSet -> resultSet.getInt(1), limite + 1)
+                : persistencia.consultar(sqlSiguientePagina, resultSet -> resultSet.getInt(1), cursor[0],
+                        limite + 1);
+        if (ids.size() <= limite) {
+            return new Pagina<>(buscarVarios(ids), null);
+        }
+        List<Integer> pagina = ids.subList(0, limite);
+        return new Pagina<>(buscarVarios(pagina), new Object[] { pagina.get(limite - 1) });
+    }
+
+    /**
+     * Funcion encargada de obtener una linea de la fila actual de un ResultSet
+     * 
+     * @param resultSet posicionado en la fila
+     * @return id de la lista, id del producto y cantidad
+     * @throws SQLException error de la bbdd
+     */
+    private int[] mapearLinea(ResultSet resultSet) throws SQLException {
+        return new int[] { resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3) };
+    }
+
+    /**
+     * Funcion que agrupa en listas de productos unas lineas ordenadas por el id
+     * de la lista
+     * 
+     * @param lineas ordenadas por id de lista
+     * @return listas de productos
+     */
+    private static ArrayList<ListaProductos> agrupar(Iterable<int[]> lineas) {
+        ArrayList<ListaProductos> resultado = new ArrayList<>();
+        ListaProductos actual = null;
+        for (int[] linea : lineas) {
+            if (actual == null || actual.getIdListaProductos() != linea[0]) {
+                actual = new ListaProductos();
+                actual.setIdListaProducto(linea[0]);
+                resultado.add(actual);
             }
-        } catch (Exception e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
+            actual.poner(linea[1], linea[2]);
         }
-        return lista;
+        return resultado;
     }
 
     /**
@@ -169,18 +293,7 @@ public class ListaProductosModelo {
      */
     public int obtenerMaxIdListaProductos() throws BbddException {
         String sql = "SELECT MAX(id_lista_productos) AS max_id FROM lista_productos";
-        int maxIdListaProductos = 0;
-        ResultSet resultSet;
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            while (resultSet.next()) {
-                maxIdListaProductos = resultSet.getInt("max_id");
-            }
-        } catch (SQLException e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-        return maxIdListaProductos;
+        Integer maxIdListaProductos = persistencia.consultarUno(sql, resultSet -> resultSet.getInt(1));
+        return maxIdListaProductos == null ? 0 : maxIdListaProductos;
     }
 }
@@ -0,0 +1,256 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de claves long a valores int con direccionamiento abierto y sondeo
+ * lineal sobre dos arrays paralelos, sin objetos por entrada ni conversion a
+ * Long o Integer. La clave 0 marca los huecos libres, por lo que su valor se
+ * guarda aparte. Al eliminar se desplazan las entradas siguientes en lugar de
+ * dejar marcas de borrado.
+ *
+ * No es seguro para hilos: quien lo comparte debe sincronizar los accesos.
+ * Las lecturas con obtener no fallan aunque otro hilo modifique el mapa a la
+ * vez, de modo que pueden hacerse en modo optimista y validarse despues.
+ */
+public class MapaLongInt {
+
+    private static final int CAPACIDAD_MINIMA = 16;
+    private static final long MEZCLA = 0x9E3779B97F4A7C15L;
+
+    private long[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamanio;
+    private int limite;
+    private boolean tieneCero;
+    private int valorCero;
+
+    /**
+     * Constructor de la clase
+     */
+    public MapaLongInt() {
+        this(CAPACIDAD_MINIMA);
+    }
+
+    /**
+     * Constructor de la clase con una capacidad inicial
+     *
+     * @param elementos que se espera guardar sin redimensionar
+     */
+    public MapaLongInt(int elementos) {
+        int capacidad = CAPACIDAD_MINIMA;
+        while (capacidad * 3 / 4 < elementos) {
+            capacidad <<= 1;
+        }
+        reservar(capacidad);
+    }
+
+    /**
+     * Funcion que empaqueta dos enteros en una clave long
+     *
+     * @param alto  entero de los 32 bits altos
+     * @param bajo  entero de los 32 bits bajos
+     * @return clave empaquetada
+     */
+    public static long clave(int alto, int bajo) {
+        return ((long) alto << 32) | (bajo & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Funcion que obtiene el valor de una clave
+     *
+     * @param clave      a buscar
+     * @param porDefecto valor si la clave no esta
+     * @return valor de la clave o porDefecto
+     */
+    public int obtener(long clave, int porDefecto) {
+        if (clave == 0) {
+            return tieneCero ? valorCero : porDefecto;
+        }
+        long[] arrayClaves = claves;
+        int[] arrayValores = valores;
+        int mascaraActual = arrayClaves.length - 1;
+        int posicion = posicion(clave, mascaraActual);
+        for (int i = 0; i <= mascaraActual; i++) {
+            long actual = arrayClaves[posicion];
+            if (actual == clave) {
+                return posicion < arrayValores.length ? arrayValores[posicion] : porDefecto;
+            }
+            if (actual == 0) {
+                return porDefecto;
+            }
+            posicion = (posicion + 1) & mascaraActual;
+        }
+        return porDefecto;
+    }
+
+    /**
+     * Funcion que indica si el mapa contiene una clave
+     *
+     * @param clave a buscar
+     * @return true/false contiene o no
+     */
+    public boolean contiene(long clave) {
+        if (clave == 0) {
+            return tieneCero;
+        }
+        return buscarPosicion(clave) >= 0;
+    }
+
+    /**
+     * Metodo que asigna el valor de una clave
+     *
+     * @param clave a asignar
+     * @param valor de la clave
+     */
+    public void poner(long clave, int valor) {
+        if (clave == 0) {
+            tamanio += tieneCero ? 0 : 1;
+            tieneCero = true;
+            valorCero = valor;
+            return;
+        }
+        int posicion = posicion(clave, mascara);
+        while (claves[posicion] != 0) {
+            if (claves[posicion] == clave) {
+                valores[posicion] = valor;
+                return;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        claves[posicion] = clave;
+        valores[posicion] = valor;
+        if (++tamanio > limite) {
+            redimensionar(claves.length << 1);
+        }
+    }
+
+    /**
+     * Funcion que suma una cantidad al valor de una clave, que empieza en 0 si
+     * no estaba
+     *
+     * @param clave    a modificar
+     * @param cantidad a sumar
+     * @return nuevo valor de la clave
+     */
+    public int sumar(long clave, int cantidad) {
+        int valor = obtener(clave, 0) + cantidad;
+        poner(clave, valor);
+        return valor;
+    }
+
+    /**
+     * Funcion que elimina una clave
+     *
+     * @param clave a eliminar
+     * @return true si la clave estaba en el mapa
+     */
+    public boolean eliminar(long clave) {
+        if (clave == 0) {
+            boolean estaba = tieneCero;
+            tamanio -= estaba ? 1 : 0;
+            tieneCero = false;
+            return estaba;
+        }
+        int hueco = buscarPosicion(clave);
+        if (hueco < 0) {
+            return false;
+        }
+        int siguiente = (hueco + 1) & mascara;
+        while (claves[siguiente] != 0) {
+            int ideal = posicion(claves[siguiente], mascara);
+            if (((siguiente - ideal) & mascara) >= ((siguiente - hueco) & mascara)) {
+                claves[hueco] = claves[siguiente];
+                valores[hueco] = valores[siguiente];
+                hueco = siguiente;
+            }
+            siguiente = (siguiente + 1) & mascara;
+        }
+        claves[hueco] = 0;
+        tamanio--;
+        return true;
+    }
+
+    /**
+     * Funcion que obtiene el numero de claves del mapa
+     *
+     * @return numero de claves
+     */
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Metodo que vacia el mapa conservando su capacidad
+     */
+    public void vaciar() {
+        Arrays.fill(claves, 0);
+        tamanio = 0;
+        tieneCero = false;
+    }
+
+    /**
+     * Funcion que busca la posicion de una clave distinta de 0
+     *
+     * @param clave a buscar
+     * @return posicion o -1 si no esta
+     */
+    private int buscarPosicion(long clave) {
+        int posicion = posicion(clave, mascara);
+        while (claves[posicion] != 0) {
+            if (claves[posicion] == clave) {
+                return posicion;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Metodo que mueve las entradas a unos arrays de otra capacidad
+     *
+     * @param capacidad nueva, potencia de 2
+     */
+    private void redimensionar(int capacidad) {
+        long[] anterioresClaves = claves;
+        int[] anterioresValores = valores;
+        reservar(capacidad);
+        for (int i = 0; i < anterioresClaves.length; i++) {
+            long clave = anterioresClaves[i];
+            if (clave != 0) {
+                int posicion = posicion(clave, mascara);
+                while (claves[posicion] != 0) {
+                    posicion = (posicion + 1) & mascara;
+                }
+                claves[posicion] = clave;
+                valores[posicion] = anterioresValores[i];
+            }
+        }
+    }
+
+    /**
+     * Metodo que crea los arrays vacios de una capacidad
+     *
+     * @param capacidad potencia de 2
+     */
+    private void reservar(int capacidad) {
+        long[] nuevasClaves = new long[capacidad];
+        valores = new int[capacidad];
+        claves = nuevasClaves;
+        mascara = capacidad - 1;
+        limite = capacidad * 3 / 4;
+    }
+
+    /**
+     * Funcion que calcula la posicion ideal de una clave mezclando sus bits
+     *
+     * @param clave   de la entrada
+     * @param mascara de la capacidad
+     * @return posicion ideal
+     */
+    private static int posicion(long clave, int mascara) {
+        long mezcla = clave * MEZCLA;
+        return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,22 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Interfaz encargada de transformar la fila actual de un ResultSet en un objeto
+ *
+ * @param <T> tipo del objeto resultante
+ */
+@FunctionalInterface
+public interface MapeadorFila<T> {
+
+    /**
+     * Funcion que transforma la fila actual del ResultSet
+     *
+     * @param resultSet posicionado en la fila a transformar
+     * @return objeto de la fila
+     * @throws SQLException error de la bbdd
+     */
+    T mapear(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,419 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+/**
+ * Modelo generico de una tabla. Las sentencias CRUD se generan una sola vez a
+ * partir de la lista explicita de columnas, de modo que cada consulta devuelve
+ * siempre las columnas en el mismo orden: primero las de la clave, despues las
+ * modificables y por ultimo las de solo lectura. Los mapeadores leen por indice
+ * (1..n) en ese orden y no buscan las columnas por nombre en cada fila.
+ *
+ * Los listados grandes se recorren con buscarPagina, que continua por la clave
+ * primaria desde el ultimo elemento de la pagina anterior en lugar de cargar
+ * toda la tabla en memoria. Los recorridos completos usan stream, que lee la
+ * tabla con un cursor en memoria constante.
+ *
+ * @param <T> tipo del elemento de la tabla
+ * @param <K> tipo del identificador del elemento
+ */
+public abstract class ModeloBase<T, K> implements InsercionMasiva<T> {
+
+    public static final String PROPIEDAD_LOTE = "almacen.consulta.lote";
+    private static final int LOTE_DEFECTO = 500;
+    private static final int MAXIMO_CLAVES = 500;
+
+    Bbdd persistencia;
+    protected final String tabla;
+    protected final String seleccion;
+    private final String[] claves;
+    private final String[] columnas;
+    private final String sqlInsertar;
+    private final String sqlEliminar;
+    private final String sqlModificar;
+    private final String sqlBuscar;
+    private final String sqlBuscarTodos;
+    private final String sqlPrimeraPagina;
+    private final String sqlSiguientePagina;
+    private final String sqlClaves;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param tabla       del modelo
+     * @param claves      columnas de la clave primaria
+     * @param columnas    modificables que no forman parte de la clave
+     * @param soloLectura columnas que se consultan pero no se insertan ni se
+     *                    modifican
+     * @throws BbddException    controlado
+     * @throws FicheroException controlado
+     */
+    protected ModeloBase(String tabla, String[] claves, String[] columnas, String... soloLectura)
+            throws BbddException, FicheroException {
+        this.tabla = tabla;
+        this.claves = claves;
+        this.columnas = columnas;
+        this.persistencia = FabricaBbdd.crear(tabla, claves[0]);
+        String[] escritura = concatenar(claves, columnas);
+        String condicion = condicion(claves);
+        this.seleccion = "SELECT " + String.join(", ", concatenar(escritura, soloLectura)) + " FROM " + tabla;
+        this.sqlInsertar = persistencia.getDialecto().insertarVarios(tabla, escritura, 1);
+        this.sqlEliminar = "DELETE FROM " + tabla + " WHERE " + condicion;
+        this.sqlModificar = "UPDATE " + tabla + " SET " + String.join(" = ?, ", columnas) + " = ? WHERE "
+                + condicion;
+        this.sqlBuscar = seleccion + " WHERE " + condicion;
+        this.sqlBuscarTodos = seleccion;
+        this.sqlClaves = "SELECT " + String.join(", ", claves) + " FROM " + tabla + " WHERE ";
+        String orden = " ORDER BY " + String.join(", ", claves);
+        this.sqlPrimeraPagina = persistencia.getDialecto().limitar(seleccion + orden);
+        this.sqlSiguientePagina = persistencia.getDialecto()
+                .limitar(seleccion + " WHERE " + condicionSiguiente(claves) + orden);
+    }
+
+    /**
+     * Funcion encargada de transformar la fila actual de un ResultSet en un
+     * elemento, leyendo las columnas por indice
+     *
+     * @param resultSet posicionado en la fila
+     * @return elemento de la fila
+     * @throws SQLException error de la bbdd
+     */
+    protected abstract T mapear(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Funcion que obtiene los valores de un elemento en el orden de las columnas
+     * de la clave seguidas de las modificables
+     *
+     * @param elemento del que se obtienen los valores
+     * @return valores del elemento
+     */
+    protected abstract Object[] valores(T elemento);
+
+    /**
+     * Funcion que transforma un identificador en los valores de la clave
+     *
+     * @param identificador del elemento
+     * @return valores de la clave
+     */
+    protected Object[] clave(K identificador) {
+        return new Object[] { identificador };
+    }
+
+    /**
+     * Metodo encargado de realizar la insercion de un elemento
+     *
+     * @param elemento a insertar
+     * @throws BbddException error controlado
+     */
+    public void insertar(T elemento) throws BbddException {
+        persistencia.actualizar(sqlInsertar, valores(elemento));
+    }
+
+    /**
+     * Funcion que indica que elementos tienen una clave que ya existe en la bbdd
+     * o aparece antes en la misma lista. Las claves se consultan por bloques, con
+     * un numero de marcadores redondeado a potencias de 2
+     *
+     * @param elementos a comprobar
+     * @return array paralelo a la lista, a true para los elementos repetidos
+     * @throws BbddException error controlado
+     */
+    @Override
+    public boolean[] repetidos(List<T> elementos) throws BbddException {
+        boolean[] repetidos = new boolean[elementos.size()];
+        Map<List<String>, Integer> posiciones = new HashMap<>();
+        List<Object[]> pendientes = new ArrayList<>();
+        for (int i = 0; i < elementos.size(); i++) {
+            Object[] clave = Arrays.copyOf(valores(elementos.get(i)), claves.length);
+            if (posiciones.putIfAbsent(normalizar(clave), i) == null) {
+                pendientes.add(clave);
+            } else {
+                repetidos[i] = true;
+            }
+        }
+        int bloque = Math.max(1,
+                Math.min(MAXIMO_CLAVES, persistencia.getDialecto().getMaximoParametros() / claves.length));
+        for (int inicio = 0; inicio < pendientes.size(); inicio += bloque) {
+            Object[] filas = Bbdd.parametrosIn(pendientes.subList(inicio, Math.min(inicio + bloque,
+                    pendientes.size())), bloque);
+            Object[] parametros = new Object[filas.length * claves.length];
+            for (int i = 0; i < filas.length; i++) {
+                System.arraycopy(filas[i], 0, parametros, i * claves.length, claves.length);
+            }
+            for (List<String> clave : persistencia.consultar(sqlClaves + condicionClaves(filas.length),
+                    this::leerClave, parametros)) {
+                Integer posicion = posiciones.get(clave);
+                if (posicion != null) {
+                    repetidos[posicion] = true;
+                }
+            }
+        }
+        return repetidos;
+    }
+
+    /**
+     * Metodo encargado de insertar varios elementos en una sola escritura por
+     * lotes. Si falla alguna fila no se inserta ninguna
+     *
+     * @param elementos a insertar
+     * @throws BbddException error controlado
+     */
+    @Override
+    public void insertarTodos(List<T> elementos) throws BbddException {
+        List<Object[]> filas = new ArrayList<>(elementos.size());
+        for (T elemento : elementos) {
+            filas.add(valores(elemento));
+        }
+        persistencia.insertarVarios(tabla, concatenar(claves, columnas), filas);
+    }
+
+    /**
+     * Metodo encargado de eliminar un elemento
+     *
+     * @param elemento a eliminar
+     * @throws BbddException error controlado
+     */
+    public void eliminar(T elemento) throws BbddException {
+        Object[] valores = valores(elemento);
+        Object[] parametros = new Object[claves.length];
+        System.arraycopy(valores, 0, parametros, 0, claves.length);
+        persistencia.actualizar(sqlEliminar, parametros);
+    }
+
+    /**
+     * Metodo encargado de realizar la modificacion de un elemento
+     *
+     * @param elemento a modificar
+     * @throws BbddException error controlado
+     */
+    public void modificar(T elemento) throws BbddException {
+        Object[] valores = valores(elemento);
+        Object[] parametros = new Object[valores.length];
+        System.arraycopy(valores, claves.length, parametros, 0, columnas.length);
+        System.arraycopy(valores, 0, parametros, columnas.length, claves.length);
+        persistencia.actualizar(sqlModificar, parametros);
+    }
+
+    /**
+     * Funcion que busca un elemento en la bbdd
+     *
+     * @param identificador del elemento
+     * @return elemento encontrado o null
+     * @throws BbddException error controlado
+     */
+    public T buscar(K identificador) throws BbddException {
+        return persistencia.consultarUno(sqlBuscar, this::mapear, clave(identificador));
+    }
+
+    /**
+     * Funcion encargada de buscar todos los elementos en la bbdd
+     *
+     * @return arraylist de elementos
+     * @throws BbddException controlado
+     */
+    public ArrayList<T> buscarTodos() throws BbddException {
+        return persistencia.consultar(sqlBuscarTodos, this::mapear);
+    }
+
+    /**
+     * Funcion que recorre todos los elementos de la tabla bajo demanda, trayendo
+     * de la bbdd las filas en lotes del tamanio de la propiedad
+     * almacen.consulta.lote. El flujo debe cerrarse al terminar
+     *
+     * @return flujo de elementos
+     * @throws BbddException controlado
+     */
+    public Stream<T> stream() throws BbddException {
+        return stream(tamanioLote());
+    }
+
+    /**
+     * Funcion que recorre todos los elementos de la tabla bajo demanda. El flujo
+     * mantiene una conexion hasta que se cierra
+     *
+     * @param tamanioLote filas que se traen de la bbdd en cada viaje
+     * @return flujo de elementos
+     * @throws BbddException controlado
+     */
+    public Stream<T> stream(int tamanioLote) throws BbddException {
+        return persistencia.consultarFlujo(sqlBuscarTodos, tamanioLote, this::mapear);
+    }
+
+    /**
+     * Funcion que obtiene el tamanio de lote configurado para los flujos
+     *
+     * @return filas por viaje a la bbdd
+     */
+    protected static int tamanioLote() {
+        return Integer.getInteger(PROPIEDAD_LOTE, LOTE_DEFECTO);
+    }
+
+    /**
+     * Funcion que obtiene la primera pagina de elementos ordenados por la clave
+     *
+     * @param limite de elementos de la pagina
+     * @return primera pagina
+     * @throws BbddException controlado
+     */
+    public Pagina<T> buscarPagina(int limite) throws BbddException {
+        return buscarPagina(null, limite);
+    }
+
+    /**
+     * Funcion que obtiene la pagina de elementos que siguen a un cursor. Se
+     * consulta un elemento de mas para saber si hay pagina siguiente sin
+     * realizar otra consulta
+     *
+     * @param cursor de la pagina anterior o null para la primera
+     * @param limite de elementos de la pagina
+     * @return pagina de elementos
+     * @throws BbddException controlado
+     */
+    public Pagina<T> buscarPagina(Object[] cursor, int limite) throws BbddException {
+        if (limite < 1) {
+            throw new BbddException("El limite de la pagina debe ser mayor que 0");
+        }
+        ArrayList<T> elementos;
+        if (cursor == null) {
+            elementos = persistencia.consultar(sqlPrimeraPagina, this::mapear, limite + 1);
+        } else {
+            Object[] parametros = parametrosSiguiente(cursor);
+            parametros[parametros.length - 1] = limite + 1;
+            elementos = persistencia.consultar(sqlSiguientePagina, this::mapear, parametros);
+        }
+        if (elementos.size() <= limite) {
+            return new Pagina<>(elementos, null);
+        }
+        elementos.remove(limite);
+        Object[] siguiente = Arrays.copyOf(valores(elementos.get(limite - 1)), claves.length);
+        return new Pagina<>(elementos, siguiente);
+    }
+
+    /**
+     * Funcion que obtiene las sentencias del modelo que filtran por la clave, que
+     * deben resolverse siempre con un indice
+     *
+     * @return sentencias filtradas por la clave
+     */
+    String[] sentenciasPorClave() {
+        return new String[] { sqlBuscar, sqlEliminar, sqlModificar, sqlSiguientePagina };
+    }
+
+    /**
+     * Funcion que genera los parametros de la condicion de pagina siguiente,
+     * dejando un hueco al final para el limite
+     *
+     * @param cursor valores de la clave del ultimo elemento
+     * @return parametros de la consulta
+     */
+    private Object[] parametrosSiguiente(Object[] cursor) {
+        Object[] parametros = new Object[2 * claves.length];
+        int posicion = 0;
+        for (int i = 0; i < claves.length - 1; i++) {
+            parametros[posicion++] = cursor[i];
+            parametros[posicion++] = cursor[i];
+        }
+        parametros[posicion] = cursor[claves.length - 1];
+        return parametros;
+    }
+
+    /**
+     * Funcion que genera la condicion de las filas posteriores a un cursor sobre
+     * una clave de una o varias columnas: k1 &gt;= ? AND (k1 &gt; ? OR k2 &gt; ?).
+     * La primera comparacion acota el rango, de modo que la bbdd busca en el
+     * indice de la clave en lugar de recorrerlo desde el principio
+     *
+     * @param claves columnas de la clave
+     * @return condicion de pagina siguiente
+     */
+    private static String condicionSiguiente(String[] claves) {
+        StringBuilder condicion = new StringBuilder();
+        for (int i = 0; i < claves.length - 1; i++) {
+            condicion.append(claves[i]).append(" >= ? AND (").append(claves[i]).append(" > ? OR ");
+        }
+        condicion.append(claves[claves.length - 1]).append(" > ?");
+        for (int i = 0; i < claves.length - 1; i++) {
+            condicion.append(')');
+        }
+        return condicion.toString();
+    }
+
+    /**
+     * Funcion que genera la condicion de igualdad sobre varias columnas
+     *
+     * @param columnas de la condicion
+     * @return condicion col1 = ? AND col2 = ?
+     */
+    private static String condicion(String[] columnas) {
+        return String.join(" = ? AND ", columnas) + " = ?";
+    }
+
+    /**
+     * Funcion que genera la condicion que busca varias claves. Las claves de
+     * una columna se buscan con IN y las compuestas con una condicion por clave
+     *
+     * @param numero de claves
+     * @return condicion con los marcadores de las claves
+     */
+    private String condicionClaves(int numero) {
+        if (claves.length == 1) {
+            return claves[0] + " IN (" + Bbdd.marcadores(numero) + ")";
+        }
+        return String.join(" OR ", Collections.nCopies(numero, "(" + condicion(claves) + ")"));
+    }
+
+    /**
+     * Funcion que lee la clave de la fila actual como texto
+     *
+     * @param resultSet posicionado en la fila
+     * @return valores de la clave
+     * @throws SQLException error de la bbdd
+     */
+    private List<String> leerClave(ResultSet resultSet) throws SQLException {
+        String[] clave = new String[claves.length];
+        for (int i = 0; i < clave.length; i++) {
+            clave[i] = resultSet.getString(i + 1);
+        }
+        return Arrays.asList(clave);
+    }
+
+    /**
+     * Funcion que transforma los valores de una clave en texto para compararlos
+     * con los leidos de la bbdd
+     *
+     * @param clave valores de la clave
+     * @return valores como texto
+     */
+    private static List<String> normalizar(Object[] clave) {
+        String[] texto = new String[clave.length];
+        for (int i = 0; i < clave.length; i++) {
+            texto[i] = clave[i] == null ? null : String.valueOf(clave[i]);
+        }
+        return Arrays.asList(texto);
+    }
+
+    /**
+     * Funcion que concatena dos listas de columnas
+     *
+     * @param primeras columnas
+     * @param segundas columnas
+     * @return columnas concatenadas
+     */
+    private static String[] concatenar(String[] primeras, String[] segundas) {
+        String[] resultado = new String[primeras.length + segundas.length];
+        System.arraycopy(primeras, 0, resultado, 0, primeras.length);
+        System.arraycopy(segundas, 0, resultado, primeras.length, segundas.length);
+        return resultado;
+    }
+}
@@ -0,0 +1,186 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import es.iespuertolacruz.almacen.api.ListaProductos;
+import es.iespuertolacruz.almacen.api.Operacion;
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+/**
+ * Motor que aplica el movimiento de stock de una operacion sobre
+ * producto_estanteria. Las ubicaciones de todos los productos de la lista se
+ * leen con una consulta y los cambios se envian en un unico lote de UPDATE
+ * dentro de una transaccion, por lo que el coste depende de las lineas de la
+ * lista y no del tamanio del catalogo.
+ *
+ * Una Entrada suma la cantidad en la primera estanteria del producto. Una
+ * Salida la descuenta de sus estanterias en orden y falla si no hay stock
+ * suficiente, sin modificar nada. Si el inventario en memoria esta cargado,
+ * recibe los mismos movimientos al confirmar la transaccion.
+ */
+public class MotorMovimientos {
+
+    public static final String ENTRADA = "Entrada";
+    public static final String SALIDA = "Salida";
+
+    private static final String TABLA = "producto_estanteria";
+    private static final String CLAVE = "id_producto";
+    private static final int MAXIMO_BLOQUE = 500;
+    private static final String SQL_UBICACIONES = "SELECT id_producto, id_estanteria, cantidad FROM " + TABLA
+            + " WHERE " + CLAVE + " IN (";
+    private static final String SQL_MOVER = "UPDATE " + TABLA + " SET cantidad = cantidad + ? "
+            + "WHERE id_producto = ? AND id_estanteria = ? AND cantidad + ? >= 0";
+
+    Bbdd persistencia;
+
+    /**
+     * Constructor de la clase
+     *
+     * @throws BbddException    controlado
+     * @throws FicheroException controlado
+     */
+    public MotorMovimientos() throws BbddException, FicheroException {
+        persistencia = FabricaBbdd.crear(TABLA, CLAVE);
+    }
+
+    /**
+     * Metodo que aplica el movimiento de stock de una operacion en una unica
+     * transaccion, o dentro de la transaccion activa si la hay
+     *
+     * @param operacion      con el tipo de movimiento
+     * @param listaProductos con las cantidades de cada producto
+     * @throws BbddException si no hay stock suficiente o el producto no esta en
+     *                       ninguna estanteria
+     */
+    public void aplicar(Operacion operacion, ListaProductos listaProductos) throws BbddException {
+        int signo = signo(operacion.getTipoOperacion());
+        TreeMap<Integer, Integer> lineas = new TreeMap<>();
+        for (int i = 0; i < listaProductos.tamanio(); i++) {
+            if (listaProductos.getCantidad(i) != 0) {
+                lineas.put(listaProductos.getProducto(i), listaProductos.getCantidad(i));
+            }
+        }
+        if (lineas.isEmpty()) {
+            return;
+        }
+        Transaccion.ejecutar(persistencia, transaccion -> {
+            List<Object[]> movimientos = calcular(signo, lineas, obtenerUbicaciones(new ArrayList<>(lineas.keySet())));
+            int[] actualizadas = persistencia.escribir(connection -> {
+                PreparedStatement statement = persistencia.preparar(connection, SQL_MOVER);
+                statement.clearBatch();
+                for (Object[] movimiento : movimientos) {
+                    persistencia.asignarParametros(statement, movimiento);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            });
+            for (int i = 0; i < actualizadas.length; i++) {
+                if (actualizadas[i] == 0) {
+                    throw new BbddException("El stock del producto " + movimientos.get(i)[1]
+                            + " ha cambiado durante el movimiento");
+                }
+            }
+            InventarioMemoria inventario = InventarioMemoria.cargado(persistencia);
+            if (inventario != null) {
+                for (Object[] movimiento : movimientos) {
+                    inventario.sumar((int) movimiento[1], (int) movimiento[2], (int) movimiento[0]);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Funcion que obtiene el signo del movimiento de un tipo de operacion
+     *
+     * @param tipoOperacion Entrada o Salida
+     * @return 1 o -1
+     * @throws BbddException si el tipo no es valido
+     */
+    private static int signo(String tipoOperacion) throws BbddException {
+        if (ENTRADA.equals(tipoOperacion)) {
+            return 1;
+        }
+        if (SALIDA.equals(tipoOperacion)) {
+            return -1;
+        }
+        throw new BbddException("El tipo de operacion no es valido: " + tipoOperacion);
+    }
+
+    /**
+     * Funcion que reparte las cantidades de la lista entre las estanterias de
+     * cada producto
+     *
+     * @param signo       del movimiento
+     * @param lineas      producto y cantidad, ordenadas por producto
+     * @param ubicaciones estanteria y cantidad de cada producto
+     * @return parametros de cada UPDATE del lote
+     * @throws BbddException si no hay stock suficiente o el producto no esta en
+     *                       ninguna estanteria
+     */
+    static List<Object[]> calcular(int signo, Map<Integer, Integer> lineas, Map<Integer, List<int[]>> ubicaciones)
+            throws BbddException {
+        List<Object[]> movimientos = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> linea : lineas.entrySet()) {
+            int producto = linea.getKey();
+            List<int[]> estanterias = ubicaciones.getOrDefault(producto, Collections.emptyList());
+            if (estanterias.isEmpty()) {
+                throw new BbddException("El producto " + producto + " no esta en ninguna estanteria");
+            }
+            int restante = linea.getValue();
+            if (signo > 0) {
+                movimientos.add(new Object[] { restante, producto, estanterias.get(0)[0], restante });
+                continue;
+            }
+            int stock = 0;
+            for (int[] estanteria : estanterias) {
+                stock += estanteria[1];
+            }
+            if (stock < restante) {
+                throw new BbddException("No hay stock suficiente del producto " + producto + ": hay " + stock
+                        + " y se necesitan " + restante);
+            }
+            for (int i = 0; i < estanterias.size() && restante > 0; i++) {
+                int retirada = Math.min(restante, estanterias.get(i)[1]);
+                if (retirada > 0) {
+                    movimientos.add(new Object[] { -retirada, producto, estanterias.get(i)[0], -retirada });
+                    restante -= retirada;
+                }
+            }
+        }
+        return movimientos;
+    }
+
+    /**
+     * Funcion que obtiene las estanterias de varios productos con consultas IN
+     * por bloques, ordenadas por estanteria. El numero de marcadores se
+     * redondea a potencias de 2 para no llenar la cache de sentencias
+     *
+     * @param productos a buscar
+     * @return estanteria y cantidad de cada producto
+     * @throws BbddException controlado
+     */
+    private Map<Integer, List<int[]>> obtenerUbicaciones(List<Integer> productos) throws BbddException {
+        Map<Integer, List<int[]>> ubicaciones = new HashMap<>();
+        int bloque = Math.min(MAXIMO_BLOQUE, persistencia.getDialecto().getMaximoParametros());
+        for (int inicio = 0; inicio < productos.size(); inicio += bloque) {
+            List<Integer> parte = productos.subList(inicio, Math.min(inicio + bloque, productos.size()));
+            Object[] parametros = Bbdd.parametrosIn(parte, bloque);
+            String sql = SQL_UBICACIONES + Bbdd.marcadores(parametros.length) + ") ORDER BY id_producto, id_estanteria";
+            for (int[] fila : persistencia.consultar(sql,
+                    resultSet -> new int[] { resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3) },
+                    parametros)) {
+                ubicaciones.computeIfAbsent(fila[0], producto -> new ArrayList<>())
+                        .add(new int[] { fila[1], fila[2] });
+            }
+        }
+        return ubicaciones;
+    }
+}
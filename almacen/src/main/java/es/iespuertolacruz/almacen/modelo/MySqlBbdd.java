@@ -0,0 +1,68 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+import es.iespuertolacruz.almacen.exception.FicheroException;
+
+public class MySqlBbdd extends Bbdd {
+    public static final String PROPIEDAD_URL = "almacen.mysql.url";
+    public static final String PROPIEDAD_USUARIO = "almacen.mysql.usuario";
+    public static final String PROPIEDAD_PASSWORD = "almacen.mysql.password";
+    public static final String DIRECTORIO_SQL = "resources/sql/mysql/";
+
+    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String URL = "jdbc:mysql://localhost:3306/almacen";
+    private static final String USUARIO = "root";
+    private static final String[] OPCIONES_URL = { "useServerPrepStmts=true", "cachePrepStmts=true",
+          "rewriteBatchedStatements=true", "useCursorFetch=true" };
+
+    public MySqlBbdd(String tabla, String clave, String driver, String urlConexion, String usuario, String password) throws BbddException, FicheroException {
+       super(tabla, clave, driver, configurarUrl(urlConexion), usuario, password);
+    }
+
+    public MySqlBbdd(String tabla, String clave) throws BbddException, FicheroException {
+       this(tabla, clave, DRIVER, System.getProperty(PROPIEDAD_URL, URL),
+             System.getProperty(PROPIEDAD_USUARIO, USUARIO), System.getProperty(PROPIEDAD_PASSWORD, ""));
+    }
+
+    /**
+     * Funcion que anade a la url las opciones del driver que no esten ya
+     * indicadas: sentencias preparadas en el servidor, cache de sentencias en el
+     * driver, reescritura de los lotes en inserciones multifila y cursores en el
+     * servidor para que el tamanio de lote de los flujos se respete
+     *
+     * @param url de la bbdd
+     * @return url con las opciones del driver
+     */
+    static String configurarUrl(String url) {
+       StringBuilder resultado = new StringBuilder(url);
+       char separador = url.indexOf('?') < 0 ? '?' : '&';
+       for (String opcion : OPCIONES_URL) {
+          String nombre = opcion.substring(0, opcion.indexOf('=') + 1);
+          if (!url.contains(nombre)) {
+             resultado.append(separador).append(opcion);
+             separador = '&';
+          }
+       }
+       return resultado.toString();
+    }
+
+    /**
+     * Funcion que crea el dialecto de MySQL
+     *
+     * @return dialecto de la bbdd
+     */
+    @Override
+    protected Dialecto crearDialecto() {
+       return new DialectoMySql();
+    }
+
+    /**
+     * Funcion que obtiene el directorio de los scripts de MySQL
+     *
+     * @return directorio de los scripts sql
+     */
+    @Override
+    protected String getDirectorioSql() {
+       return DIRECTORIO_SQL;
+    }
+ }
@@ -2,17 +2,24 @@ package es.iespuertolacruz.almacen.modelo;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.logging.Logger;
 
 import es.iespuertolacruz.almacen.api.Operacion;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
-public class OperacionModelo {
+public class OperacionModelo extends ModeloBase<Operacion, String> {
 
-    SqLiteBbdd persistencia;
+    private static final Logger LOGGER = Logger.getLogger(OperacionModelo.class.getName());
     private static final String TABLA = "operacion";
     private static final String CLAVE = "id_lista_productos";
+    private static final String[] COLUMNAS = { "id_muelle", "fecha", "tipo_operacion", "cif", "fecha_dia" };
+    private static final String ORDEN_FECHA = " ORDER BY fecha_dia, " + CLAVE;
+
+    private final String sqlBuscarEntre;
+    private final String sqlBuscarPorEmpresaYRango;
 
     /**
      * Constructor de la clase
@@ -21,118 +28,81 @@ public class OperacionModelo {
      * @throws FicheroException controlado
      */
     public OperacionModelo() throws BbddException, FicheroException {
-        persistencia = new SqLiteBbdd(TABLA, CLAVE, null, null);
-    }
-
-    /**
-     * Metodo encargado de realizar la insercion de una operacion
-     * 
-     * @param operacion a insertar
-     * @throws BbddException error controlado
-     */
-    public void insertar(Operacion operacion) throws BbddException {
-        String sql = "INSERT INTO operacion VALUES ('" + operacion.getIdListaProductos() + "', '"
-                + operacion.getIdMuelle() + "', '" + operacion.getFecha() + "', '" + operacion.getTipoOperacion()
-                + "', '" + operacion.getCif() + "')";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Metodo encargado de eliminar una operacion
-     * 
-     * @param operacion a eliminar
-     * @throws BbddException error controlado
-     */
-    public void eliminar(Operacion operacion) throws BbddException {
-        String sql = "DELETE FROM operacion WHERE id_lista_productos = '" + operacion.getIdListaProductos() + "'";
-        persistencia.actualizar(sql);
+        super(TABLA, new String[] { CLAVE }, COLUMNAS);
+        sqlBuscarEntre = seleccion + " WHERE fecha_dia BETWEEN ? AND ?" + ORDEN_FECHA;
+        sqlBuscarPorEmpresaYRango = seleccion + " WHERE cif = ? AND fecha_dia BETWEEN ? AND ?" + ORDEN_FECHA;
     }
 
     /**
-     * Metodo encargado de realizar la modificacion de una operacion
+     * Funcion encargada de transformar la fila actual de un ResultSet en una operacion.
+     * Si la fila no tiene fecha_dia se lee el texto de fecha; cuando tampoco es
+     * una fecha valida se avisa en el log, porque la operacion queda sin fecha y
+     * no aparece en las busquedas por rango
      * 
-     * @param operacion a modificar
-     * @throws BbddException error controlado
+     * @param resultSet posicionado en la fila
+     * @return operacion de la fila
+     * @throws SQLException error de la bbdd
      */
-    public void modificar(Operacion operacion) throws BbddException {
-        String sql = "UPDATE operacion SET id_muelle = '" + operacion.getIdMuelle() + "', fecha = '"
-                + operacion.getFecha() + "', tipo_operacion = '" + operacion.getTipoOperacion() + "', cif = '"
-                + operacion.getCif() + "' WHERE id_lista_productos = '" + operacion.getIdListaProductos() + "'";
-        persistencia.actualizar(sql);
+    @Override
+    protected Operacion mapear(ResultSet resultSet) throws SQLException {
+        long dia = resultSet.getLong(6);
+        LocalDate fecha;
+        if (resultSet.wasNull()) {
+            String texto = resultSet.getString(3);
+            fecha = Operacion.parsearFecha(texto);
+            if (fecha == null) {
+                int id = resultSet.getInt(1);
+                LOGGER.warning(() -> "La operacion " + id + " tiene una fecha no valida (" + texto
+                        + ") y no aparece en las busquedas por fecha");
+            }
+        } else {
+            fecha = LocalDate.ofEpochDay(dia);
+        }
+        return Operacion.conFecha(resultSet.getInt(1), resultSet.getInt(2), fecha, resultSet.getString(4),
+                resultSet.getString(5));
     }
 
     /**
-     * Funcion que busca un operacion en la bbdd
+     * Funcion que obtiene los valores de una operacion en el orden de las columnas.
+     * La fecha se guarda como dias desde 1970-01-01 en fecha_dia y como texto
+     * yyyy-MM-dd en fecha
      * 
-     * @param identificador del operacion
-     * @return operacion encontrado
-     * @throws BbddException error controlado
+     * @param operacion del que se obtienen los valores
+     * @return valores de la fila
      */
-    public Operacion buscar(String identificador) throws BbddException {
-        Operacion operacionEncontrado = null;
-        String sql = "SELECT * FROM " + TABLA + " WHERE " + CLAVE + "='" + identificador + "'";
-        ResultSet resultSet;
-        ArrayList<Operacion> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-
-        if (!lista.isEmpty()) {
-            operacionEncontrado = lista.get(0);
-        }
-        return operacionEncontrado;
+    @Override
+    protected Object[] valores(Operacion operacion) {
+        LocalDate fecha = operacion.getFechaLocal();
+        return new Object[] { operacion.getIdListaProductos(), operacion.getIdMuelle(), operacion.getFecha(),
+                operacion.getTipoOperacion(), operacion.getCif(), fecha == null ? null : fecha.toEpochDay() };
     }
 
     /**
-     * Funcion encargada de transformar un ResultSet en una lista de resultados
+     * Funcion que busca las operaciones entre dos fechas, ambas incluidas, con
+     * un recorrido por rango del indice de fecha_dia
      * 
-     * @param resultSet de entrada
-     * @return lista de clientes
-     * @throws PersistenciaException error controlado
+     * @param desde fecha inicial
+     * @param hasta fecha final
+     * @return operaciones ordenadas por fecha
+     * @throws BbddException controlado
      */
-    private ArrayList<Operacion> buscar(ResultSet resultSet) throws BbddException {
-        ArrayList<Operacion> lista = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                int idListaProductos = resultSet.getInt(CLAVE);
-                int idMuelle = resultSet.getInt("id_muelle");
-                String fecha = resultSet.getString("fecha");
-                String tipoOperacion = resultSet.getString("tipo_operacion");
-                String cif = resultSet.getString("cif");
-                Operacion operacion = new Operacion(idListaProductos, idMuelle, fecha, tipoOperacion, cif);
-                lista.add(operacion);
-            }
-        } catch (SQLException e) {
-            throw new BbddException("Se ha producido un error realizando la transformacion a Cliente", e);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return lista;
+    public ArrayList<Operacion> buscarEntre(LocalDate desde, LocalDate hasta) throws BbddException {
+        return persistencia.consultar(sqlBuscarEntre, this::mapear, desde.toEpochDay(), hasta.toEpochDay());
     }
 
     /**
-     * Funcion encargada de buscar todas las operaciones en la bbdd
+     * Funcion que busca las operaciones de una empresa entre dos fechas, ambas
+     * incluidas, con un recorrido por rango del indice (cif, fecha_dia)
      * 
-     * @return arraylist de operaciones
+     * @param cif   de la empresa
+     * @param desde fecha inicial
+     * @param hasta fecha final
+     * @return operaciones ordenadas por fecha
      * @throws BbddException controlado
      */
-    public ArrayList<Operacion> buscarTodos() throws BbddException {
-        String sql = "SELECT * FROM " + TABLA;
-        ResultSet resultSet;
-        ArrayList<Operacion> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-        return lista;
+    public ArrayList<Operacion> buscarPorEmpresaYRango(String cif, LocalDate desde, LocalDate hasta)
+            throws BbddException {
+        return persistencia.consultar(sqlBuscarPorEmpresaYRango, this::mapear, cif, desde.toEpochDay(),
+                hasta.toEpochDay());
     }
 }
@@ -0,0 +1,23 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Trabajo que se ejecuta dentro de una transaccion
+ *
+ * @param <T> tipo del resultado
+ * @param <E> excepcion controlada que puede lanzar el trabajo
+ */
+@FunctionalInterface
+public interface OperacionTransaccional<T, E extends Exception> {
+
+    /**
+     * Funcion que realiza el trabajo de la transaccion
+     *
+     * @param transaccion en curso
+     * @return resultado del trabajo
+     * @throws BbddException controlado
+     * @throws E             controlado
+     */
+    T ejecutar(Transaccion transaccion) throws BbddException, E;
+}
@@ -0,0 +1,51 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.util.List;
+
+/**
+ * Pagina de resultados de una consulta paginada por clave. El cursor contiene
+ * los valores de la clave del ultimo elemento y se pasa a la siguiente llamada
+ * para continuar justo despues de el; es null en la ultima pagina.
+ *
+ * @param <T> tipo de los elementos
+ */
+public class Pagina<T> {
+
+    private final List<T> elementos;
+    private final Object[] cursor;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param elementos de la pagina
+     * @param cursor    para obtener la pagina siguiente o null si es la ultima
+     */
+    public Pagina(List<T> elementos, Object[] cursor) {
+        this.elementos = elementos;
+        this.cursor = cursor;
+    }
+
+    /**
+     * Funcion getter de los elementos de la pagina
+     * @return elementos de la pagina
+     */
+    public List<T> getElementos() {
+        return this.elementos;
+    }
+
+    /**
+     * Funcion getter del cursor de la pagina siguiente
+     * @return cursor o null si es la ultima pagina
+     */
+    public Object[] getCursor() {
+        return this.cursor;
+    }
+
+    /**
+     * Funcion que indica si hay mas paginas despues de esta
+     * @return true/false hay mas o no
+     */
+    public boolean haySiguiente() {
+        return this.cursor != null;
+    }
+}
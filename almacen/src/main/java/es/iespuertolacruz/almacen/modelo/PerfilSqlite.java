@@ -0,0 +1,234 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Perfil de rendimiento de SQLite que se aplica a cada conexion al crearla.
+ * Se elige con la propiedad almacen.sqlite.perfil (durable o rendimiento) y
+ * cada ajuste puede sobrescribirse con almacen.sqlite.&lt;pragma&gt;, por
+ * ejemplo -Dalmacen.sqlite.synchronous=OFF
+ */
+public class PerfilSqlite {
+
+    public static final String PROPIEDAD_PERFIL = "almacen.sqlite.perfil";
+    public static final String PREFIJO_PROPIEDADES = "almacen.sqlite.";
+    public static final String DURABLE = "durable";
+    public static final String RENDIMIENTO = "rendimiento";
+
+    private static final Pattern MODO_VALIDO = Pattern.compile("^[A-Za-z]+$");
+    private static final String[] PRAGMAS = { "busy_timeout", "journal_mode", "synchronous", "cache_size",
+            "mmap_size", "temp_store" };
+
+    private final String nombre;
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeout;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param nombre      del perfil
+     * @param journalMode modo del diario (WAL, DELETE, ...)
+     * @param synchronous nivel de sincronizacion (OFF, NORMAL, FULL, EXTRA)
+     * @param cacheSize   paginas de cache, o KiB si es negativo
+     * @param mmapSize    bytes de la bbdd mapeados en memoria
+     * @param tempStore   almacen de las tablas temporales (DEFAULT, FILE, MEMORY)
+     * @param busyTimeout ms de espera cuando la bbdd esta bloqueada
+     */
+    public PerfilSqlite(String nombre, String journalMode, String synchronous, int cacheSize, long mmapSize,
+            String tempStore, int busyTimeout) {
+        this.nombre = nombre;
+        this.journalMode = validarModo("journal_mode", journalMode);
+        this.synchronous = validarModo("synchronous", synchronous);
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = validarModo("temp_store", tempStore);
+        this.busyTimeout = busyTimeout;
+    }
+
+    /**
+     * Funcion que obtiene el perfil durable: WAL con sincronizacion completa, no
+     * pierde transacciones confirmadas aunque se corte la luz
+     *
+     * @return perfil durable
+     */
+    public static PerfilSqlite durable() {
+        return new PerfilSqlite(DURABLE, "WAL", "FULL", -8000, 0, "DEFAULT", 5000);
+    }
+
+    /**
+     * Funcion que obtiene el perfil de rendimiento: WAL con sincronizacion
+     * normal, cache de 64 MiB, 256 MiB mapeados y temporales en memoria. Un
+     * corte de luz puede perder las ultimas transacciones, pero no corrompe la
+     * bbdd
+     *
+     * @return perfil de rendimiento
+     */
+    public static PerfilSqlite rendimiento() {
+        return new PerfilSqlite(RENDIMIENTO, "WAL", "NORMAL", -64000, 268435456L, "MEMORY", 5000);
+    }
+
+    /**
+     * Funcion que construye el perfil a partir de las propiedades del sistema
+     *
+     * @return perfil configurado
+     */
+    public static PerfilSqlite desdePropiedades() {
+        String nombrePerfil = System.getProperty(PROPIEDAD_PERFIL, DURABLE).trim().toLowerCase(Locale.ROOT);
+        PerfilSqlite base;
+        if (DURABLE.equals(nombrePerfil)) {
+            base = durable();
+        } else if (RENDIMIENTO.equals(nombrePerfil)) {
+            base = rendimiento();
+        } else {
+            throw new IllegalArgumentException("El perfil de SQLite no es valido: " + nombrePerfil);
+        }
+        return new PerfilSqlite(base.nombre, propiedad("journal_mode", base.journalMode),
+                propiedad("synchronous", base.synchronous),
+                Integer.getInteger(PREFIJO_PROPIEDADES + "cache_size", base.cacheSize),
+                Long.getLong(PREFIJO_PROPIEDADES + "mmap_size", base.mmapSize),
+                propiedad("temp_store", base.tempStore),
+                Integer.getInteger(PREFIJO_PROPIEDADES + "busy_timeout", base.busyTimeout));
+    }
+
+    /**
+     * Metodo que aplica el perfil a una conexion recien creada. El busy_timeout
+     * se aplica primero para que el cambio de diario pueda esperar a otras
+     * conexiones
+     *
+     * @param connection a configurar
+     * @throws SQLException error de la bbdd
+     */
+    void aplicar(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + busyTimeout);
+            statement.execute("PRAGMA journal_mode = " + journalMode);
+            statement.execute("PRAGMA synchronous = " + synchronous);
+            statement.execute("PRAGMA cache_size = " + cacheSize);
+            statement.execute("PRAGMA mmap_size = " + mmapSize);
+            statement.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * Funcion que lee de la conexion el valor efectivo de cada ajuste, que
+     * puede diferir del pedido (por ejemplo, una bbdd en memoria no admite WAL)
+     *
+     * @param connection configurada
+     * @return ajustes efectivos en orden de aplicacion
+     * @throws SQLException error de la bbdd
+     */
+    Map<String, String> leerEfectivos(Connection connection) throws SQLException {
+        Map<String, String> efectivos = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            for (String pragma : PRAGMAS) {
+                try (ResultSet resultSet = statement.executeQuery("PRAGMA " + pragma)) {
+                    efectivos.put(pragma, resultSet.next() ? resultSet.getString(1) : null);
+                }
+            }
+        }
+        return efectivos;
+    }
+
+    /**
+     * Funcion que obtiene una propiedad de texto del perfil
+     *
+     * @param pragma       nombre del ajuste
+     * @param valorDefecto del perfil base
+     * @return valor configurado
+     */
+    private static String propiedad(String pragma, String valorDefecto) {
+        return System.getProperty(PREFIJO_PROPIEDADES + pragma, valorDefecto);
+    }
+
+    /**
+     * Funcion que valida los ajustes de texto, que se concatenan en el PRAGMA
+     *
+     * @param pragma nombre del ajuste
+     * @param valor  a validar
+     * @return valor validado
+     */
+    private static String validarModo(String pragma, String valor) {
+        if (valor == null || !MODO_VALIDO.matcher(valor).matches()) {
+            throw new IllegalArgumentException("El valor de " + pragma + " no es valido: " + valor);
+        }
+        return valor.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Funcion getter del nombre del perfil
+     * @return nombre del perfil
+     */
+    public String getNombre() {
+        return this.nombre;
+    }
+
+    /**
+     * Funcion getter del modo del diario
+     * @return modo del diario
+     */
+    public String getJournalMode() {
+        return this.journalMode;
+    }
+
+    /**
+     * Funcion getter del nivel de sincronizacion
+     * @return nivel de sincronizacion
+     */
+    public String getSynchronous() {
+        return this.synchronous;
+    }
+
+    /**
+     * Funcion getter del tamanio de la cache
+     * @return tamanio de la cache
+     */
+    public int getCacheSize() {
+        return this.cacheSize;
+    }
+
+    /**
+     * Funcion getter de los bytes mapeados en memoria
+     * @return bytes mapeados
+     */
+    public long getMmapSize() {
+        return this.mmapSize;
+    }
+
+    /**
+     * Funcion getter del almacen de temporales
+     * @return almacen de temporales
+     */
+    public String getTempStore() {
+        return this.tempStore;
+    }
+
+    /**
+     * Funcion getter de la espera por bloqueo en ms
+     * @return espera por bloqueo
+     */
+    public int getBusyTimeout() {
+        return this.busyTimeout;
+    }
+
+    @Override
+    /**
+     * Funcion toString del perfil
+     * @return ajustes del perfil
+     */
+    public String toString() {
+        return "PerfilSqlite[" + nombre + ", journal_mode=" + journalMode + ", synchronous=" + synchronous
+                + ", cache_size=" + cacheSize + ", mmap_size=" + mmapSize + ", temp_store=" + tempStore
+                + ", busy_timeout=" + busyTimeout + "]";
+    }
+}
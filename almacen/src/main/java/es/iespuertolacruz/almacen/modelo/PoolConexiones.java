@@ -0,0 +1,344 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Pool acotado de conexiones compartido por todos los modelos que usan la
+ * misma bbdd
+ */
+public class PoolConexiones {
+
+    private static final ScheduledExecutorService DESALOJADOR = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "almacen-pool-desalojo");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final ProveedorConexiones proveedor;
+    private final ConfiguracionPool configuracion;
+    private final ArrayDeque<ConexionPool> libres = new ArrayDeque<>();
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition disponible = cerrojo.newCondition();
+    private int abiertas;
+    private int prestadas;
+    private int esperando;
+    private boolean cerrado;
+    private final ScheduledFuture<?> desalojo;
+
+    private final AtomicLong prestamosTotales = new AtomicLong();
+    private final AtomicLong esperasTotales = new AtomicLong();
+    private final AtomicLong nanosEspera = new AtomicLong();
+    private final EstadisticasSentencias estadisticasSentencias = new EstadisticasSentencias();
+
+    /**
+     * Constructor de la clase
+     *
+     * @param proveedor     encargado de abrir las conexiones fisicas
+     * @param configuracion del pool
+     */
+    PoolConexiones(ProveedorConexiones proveedor, ConfiguracionPool configuracion) {
+        this.proveedor = proveedor;
+        this.configuracion = configuracion;
+        long periodo = Math.max(1000, configuracion.getTiempoInactividad() / 2);
+        this.desalojo = DESALOJADOR.scheduleWithFixedDelay(this::desalojarInactivas, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Funcion que presta una conexion del pool, esperando si se ha alcanzado el
+     * maximo de conexiones abiertas
+     *
+     * @return conexion prestada, que vuelve al pool al cerrarla
+     * @throws BbddException controlado
+     */
+    public Connection obtener() throws BbddException {
+        long inicio = System.nanoTime();
+        long restante = TimeUnit.MILLISECONDS.toNanos(configuracion.getTiempoEspera());
+        boolean haEsperado = false;
+        try {
+            while (true) {
+                ConexionPool conexion = null;
+                boolean crear = false;
+                cerrojo.lock();
+                try {
+                    while (!cerrado && libres.isEmpty() && abiertas >= configuracion.getMaximo()) {
+                        if (restante <= 0) {
+                            throw new BbddException("Se ha agotado el tiempo de espera para obtener una conexion ("
+                                    + configuracion.getMaximo() + " conexiones en uso)");
+                        }
+                        haEsperado = true;
+                        esperando++;
+                        try {
+                            restante = disponible.awaitNanos(restante);
+                        } finally {
+                            esperando--;
+                        }
+                    }
+                    if (cerrado) {
+                        throw new BbddException("El pool de conexiones esta cerrado");
+                    }
+                    if (!libres.isEmpty()) {
+                        conexion = libres.pollFirst();
+                    } else {
+                        abiertas++;
+                        crear = true;
+                    }
+                    prestadas++;
+                } finally {
+                    cerrojo.unlock();
+                }
+                if (crear) {
+                    conexion = abrir();
+                } else if (!conexion.validar(configuracion.getTiempoValidacion())) {
+                    descartar(conexion);
+                    continue;
+                }
+                prestamosTotales.incrementAndGet();
+                return conexion.prestar();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BbddException("Se ha interrumpido la espera de una conexion", exception);
+        } finally {
+            if (haEsperado) {
+                esperasTotales.incrementAndGet();
+                nanosEspera.addAndGet(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    /**
+     * Funcion que abre una conexion fisica nueva, cuyo hueco ya se ha reservado
+     *
+     * @return conexion abierta
+     * @throws BbddException controlado
+     */
+    private ConexionPool abrir() throws BbddException {
+        try {
+            return new ConexionPool(this, proveedor.crear());
+        } catch (SQLException | RuntimeException exception) {
+            cerrojo.lock();
+            try {
+                abiertas--;
+                prestadas--;
+                disponible.signal();
+            } finally {
+                cerrojo.unlock();
+            }
+            throw new BbddException("No se ha podido establecer la coneccion con la BBDD", exception);
+        }
+    }
+
+    /**
+     * Metodo que cierra una conexion prestada que no ha superado la validacion
+     *
+     * @param conexion a descartar
+     */
+    private void descartar(ConexionPool conexion) {
+        conexion.cerrarFisica();
+        cerrojo.lock();
+        try {
+            abiertas--;
+            prestadas--;
+            disponible.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Metodo que recibe una conexion que vuelve al pool
+     *
+     * @param conexion devuelta
+     */
+    void devolver(ConexionPool conexion) {
+        boolean reutilizable;
+        try {
+            conexion.liberar();
+            reutilizable = true;
+        } catch (SQLException exception) {
+            reutilizable = false;
+        }
+        cerrojo.lock();
+        try {
+            prestadas--;
+            if (reutilizable && !cerrado) {
+                libres.addFirst(conexion);
+            } else {
+                abiertas--;
+                conexion.cerrarFisica();
+            }
+            disponible.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Metodo que cierra las conexiones libres que llevan mas tiempo inactivas
+     * del configurado, respetando el minimo de conexiones abiertas
+     */
+    void desalojarInactivas() {
+        long limite = System.currentTimeMillis() - configuracion.getTiempoInactividad();
+        ArrayList<ConexionPool> desalojadas = new ArrayList<>();
+        cerrojo.lock();
+        try {
+            Iterator<ConexionPool> iterador = libres.descendingIterator();
+            while (iterador.hasNext() && abiertas > configuracion.getMinimo()) {
+                ConexionPool conexion = iterador.next();
+                if (conexion.getUltimoUso() < limite) {
+                    iterador.remove();
+                    abiertas--;
+                    desalojadas.add(conexion);
+                }
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+        desalojadas.forEach(ConexionPool::cerrarFisica);
+    }
+
+    /**
+     * Metodo que cierra todas las conexiones libres, cancela el desalojo
+     * periodico y rechaza nuevos prestamos
+     */
+    public void cerrar() {
+        desalojo.cancel(false);
+        ArrayList<ConexionPool> cerradas;
+        cerrojo.lock();
+        try {
+            cerrado = true;
+            cerradas = new ArrayList<>(libres);
+            abiertas -= libres.size();
+            libres.clear();
+            disponible.signalAll();
+        } finally {
+            cerrojo.unlock();
+        }
+        cerradas.forEach(ConexionPool::cerrarFisica);
+    }
+
+    /**
+     * Funcion que obtiene la sentencia preparada de un sql desde la cache de la
+     * conexion prestada. La sentencia pertenece a la cache y no debe cerrarse
+     *
+     * @param conexion prestada por el pool
+     * @param sql      de la sentencia
+     * @return sentencia preparada
+     * @throws SQLException error de la bbdd
+     */
+    static PreparedStatement preparar(Connection conexion, String sql) throws SQLException {
+        if (Proxy.isProxyClass(conexion.getClass())) {
+            InvocationHandler manejador = Proxy.getInvocationHandler(conexion);
+            if (manejador instanceof ConexionPool.Prestamo) {
+                return ((ConexionPool.Prestamo) manejador).preparar(sql);
+            }
+        }
+        throw new SQLException("La conexion no pertenece a un pool");
+    }
+
+    /**
+     * Funcion getter de las estadisticas de la cache de sentencias
+     * @return estadisticas de sentencias
+     */
+    public EstadisticasSentencias getEstadisticasSentencias() {
+        return this.estadisticasSentencias;
+    }
+
+    /**
+     * Funcion getter de la configuracion del pool
+     * @return configuracion
+     */
+    public ConfiguracionPool getConfiguracion() {
+        return this.configuracion;
+    }
+
+    /**
+     * Funcion que obtiene el numero de conexiones fisicas abiertas
+     * @return conexiones abiertas
+     */
+    public int getAbiertas() {
+        cerrojo.lock();
+        try {
+            return abiertas;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Funcion que obtiene el numero de conexiones prestadas en este momento
+     * @return conexiones prestadas
+     */
+    public int getPrestadas() {
+        cerrojo.lock();
+        try {
+            return prestadas;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Funcion que obtiene el numero de hilos esperando una conexion
+     * @return hilos esperando
+     */
+    public int getEsperando() {
+        cerrojo.lock();
+        try {
+            return esperando;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Funcion que obtiene el numero total de prestamos realizados
+     * @return prestamos realizados
+     */
+    public long getPrestamosTotales() {
+        return prestamosTotales.get();
+    }
+
+    /**
+     * Funcion que obtiene el numero de prestamos que han tenido que esperar
+     * @return prestamos con espera
+     */
+    public long getEsperasTotales() {
+        return esperasTotales.get();
+    }
+
+    /**
+     * Funcion que obtiene el tiempo total de espera acumulado en ms
+     * @return tiempo de espera en ms
+     */
+    public long getTiempoEsperaTotal() {
+        return TimeUnit.NANOSECONDS.toMillis(nanosEspera.get());
+    }
+
+    @Override
+    /**
+     * Funcion toString del pool
+     * @return estadisticas del pool
+     */
+    public String toString() {
+        return "Pool[abiertas=" + getAbiertas() + ", prestadas=" + getPrestadas() + ", esperando=" + getEsperando()
+                + ", prestamos=" + getPrestamosTotales() + ", esperas=" + getEsperasTotales() + ", espera_ms="
+                + getTiempoEsperaTotal() + "] " + estadisticasSentencias;
+    }
+}
@@ -2,19 +2,27 @@ package es.iespuertolacruz.almacen.modelo;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.List;
 
+import es.iespuertolacruz.almacen.api.Importe;
 import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.api.ResumenInventario;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
-public class ProductoEstanteriaModelo {
+public class ProductoEstanteriaModelo extends ModeloBase<ProductoEstanteria, String[]> {
 
-    private static final String SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA = "Se ha producido un error realizando la consulta";
-    SqLiteBbdd persistencia;
     private static final String TABLA = "producto_estanteria";
     private static final String CLAVE = "id_producto";
     private static final String CLAVESEC = "id_estanteria";
+    private static final String[] COLUMNAS = { "cantidad" };
+    private static final String RESUMEN_ALMACEN = "*";
+    private static final String SQL_CANTIDAD = "SELECT cantidad FROM " + TABLA + " WHERE " + CLAVE + " = ? AND "
+            + CLAVESEC + " = ?";
+    private static final String SQL_RESUMEN = "SELECT valor_centimos, huecos_ocupados, huecos_totales "
+            + "FROM resumen_inventario WHERE id_zona = ?";
+
+    InventarioMemoria inventario;
 
     /**
      * Constructor de la clase
@@ -23,118 +31,193 @@ public class ProductoEstanteriaModelo {
      * @throws FicheroException controlado
      */
     public ProductoEstanteriaModelo() throws BbddException, FicheroException {
-        persistencia = new SqLiteBbdd(TABLA, CLAVE, null, null);
+        super(TABLA, new String[] { CLAVE, CLAVESEC }, COLUMNAS);
+        if (InventarioMemoria.activado()) {
+            inventario = InventarioMemoria.de(persistencia);
+        }
+    }
+
+    /**
+     * Funcion encargada de transformar la fila actual de un ResultSet en un productoEstanteria
+     * 
+     * @param resultSet posicionado en la fila
+     * @return productoEstanteria de la fila
+     * @throws SQLException error de la bbdd
+     */
+    @Override
+    protected ProductoEstanteria mapear(ResultSet resultSet) throws SQLException {
+        return new ProductoEstanteria(resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3));
     }
 
     /**
-     * Metodo encargado de realizar la insercion de un productoEstanteria
+     * Funcion que obtiene los valores de un productoEstanteria en el orden de las columnas
+     * 
+     * @param productoEstanteria del que se obtienen los valores
+     * @return valores de la fila
+     */
+    @Override
+    protected Object[] valores(ProductoEstanteria productoEstanteria) {
+        return new Object[] { productoEstanteria.getIdProducto(), productoEstanteria.getIdEstanteria(),
+                productoEstanteria.getCantidad() };
+    }
+
+    /**
+     * Funcion que transforma el identificador compuesto en los valores de la clave
+     * 
+     * @param identificador {idProducto, idEstanteria}
+     * @return valores de la clave
+     */
+    @Override
+    protected Object[] clave(String[] identificador) {
+        return identificador;
+    }
+
+    /**
+     * Metodo encargado de insertar un productoEstanteria, actualizando el
+     * inventario en memoria si esta activado
      * 
      * @param productoEstanteria a insertar
      * @throws BbddException error controlado
      */
+    @Override
     public void insertar(ProductoEstanteria productoEstanteria) throws BbddException {
-        String sql = "INSERT INTO producto_estanteria VALUES ('" + productoEstanteria.getIdProducto() + "', '"
-                + productoEstanteria.getIdEstanteria() + "', '" + productoEstanteria.getCantidad() + "')";
-        persistencia.actualizar(sql);
+        super.insertar(productoEstanteria);
+        if (inventario != null) {
+            inventario.fijar(productoEstanteria.getIdProducto(), productoEstanteria.getIdEstanteria(),
+                    productoEstanteria.getCantidad());
+        }
+    }
+
+    /**
+     * Metodo encargado de insertar varios productoEstanteria por lotes,
+     * actualizando el inventario en memoria si esta activado
+     * 
+     * @param productosEstanteria a insertar
+     * @throws BbddException error controlado
+     */
+    @Override
+    public void insertarTodos(List<ProductoEstanteria> productosEstanteria) throws BbddException {
+        super.insertarTodos(productosEstanteria);
+        if (inventario != null) {
+            for (ProductoEstanteria productoEstanteria : productosEstanteria) {
+                inventario.fijar(productoEstanteria.getIdProducto(), productoEstanteria.getIdEstanteria(),
+                        productoEstanteria.getCantidad());
+            }
+        }
     }
 
     /**
-     * Metodo encargado de eliminar un productoEstanteria
+     * Metodo encargado de eliminar un productoEstanteria, actualizando el
+     * inventario en memoria si esta activado
      * 
      * @param productoEstanteria a eliminar
      * @throws BbddException error controlado
      */
+    @Override
     public void eliminar(ProductoEstanteria productoEstanteria) throws BbddException {
-        String sql = "DELETE FROM producto_estanteria WHERE id_producto = '" + productoEstanteria.getIdProducto()
-                + "' AND id_estanteria = '" + productoEstanteria.getIdEstanteria() + "'";
-        persistencia.actualizar(sql);
+        super.eliminar(productoEstanteria);
+        if (inventario != null) {
+            inventario.eliminar(productoEstanteria.getIdProducto(), productoEstanteria.getIdEstanteria());
+        }
     }
 
     /**
-     * Metodo encargado de realizar la modificacion de un productoEstanteria
+     * Metodo encargado de modificar un productoEstanteria, actualizando el
+     * inventario en memoria si esta activado
      * 
      * @param productoEstanteria a modificar
      * @throws BbddException error controlado
      */
+    @Override
     public void modificar(ProductoEstanteria productoEstanteria) throws BbddException {
-        String sql = "UPDATE producto_estanteria SET cantidad = '" + productoEstanteria.getCantidad()
-                + "' WHERE id_producto = '" + productoEstanteria.getIdProducto() + "' AND id_estanteria = '"
-                + productoEstanteria.getIdEstanteria() + "'";
-        persistencia.actualizar(sql);
+        super.modificar(productoEstanteria);
+        if (inventario != null) {
+            inventario.modificar(productoEstanteria.getIdProducto(), productoEstanteria.getIdEstanteria(),
+                    productoEstanteria.getCantidad());
+        }
     }
 
     /**
-     * Funcion que busca un producto en la bbdd
+     * Funcion que busca un productoEstanteria. Con el inventario en memoria
+     * activado no se consulta la bbdd
      * 
-     * @param identificador del producto
-     * @return producto encontrado
+     * @param identificador {idProducto, idEstanteria}
+     * @return productoEstanteria encontrado o null
      * @throws BbddException error controlado
      */
-    public ProductoEstanteria buscar(String identificador, String identificadorSec) throws BbddException {
-        ProductoEstanteria productoEncontrado = null;
-        String sql = "SELECT * FROM " + TABLA + " WHERE " + CLAVE + "='" + identificador + "' AND " + CLAVESEC + " = '"
-                + identificadorSec + "'";
-        ResultSet resultSet;
-        ArrayList<ProductoEstanteria> lista = new ArrayList<>();
+    @Override
+    public ProductoEstanteria buscar(String[] identificador) throws BbddException {
+        if (inventario == null) {
+            return super.buscar(identificador);
+        }
+        int idProducto;
+        int idEstanteria;
         try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
+            idProducto = Integer.parseInt(identificador[0]);
+            idEstanteria = Integer.parseInt(identificador[1]);
+        } catch (NumberFormatException exception) {
+            return super.buscar(identificador);
         }
+        int cantidad = inventario.obtenerCantidad(idProducto, idEstanteria);
+        return cantidad == InventarioMemoria.SIN_STOCK ? null
+                : new ProductoEstanteria(idProducto, idEstanteria, cantidad);
+    }
 
-        if (!lista.isEmpty()) {
-            productoEncontrado = lista.get(0);
+    /**
+     * Funcion que obtiene la cantidad de un producto en una estanteria, desde
+     * el inventario en memoria si esta activado
+     * 
+     * @param idProducto   del producto
+     * @param idEstanteria de la estanteria
+     * @return cantidad o -1 si el producto no esta en la estanteria
+     * @throws BbddException controlado
+     */
+    public int obtenerCantidad(int idProducto, int idEstanteria) throws BbddException {
+        if (inventario != null) {
+            return inventario.obtenerCantidad(idProducto, idEstanteria);
         }
-        return productoEncontrado;
+        Integer cantidad = persistencia.consultarUno(SQL_CANTIDAD, resultSet -> resultSet.getInt(1), idProducto,
+                idEstanteria);
+        return cantidad == null ? InventarioMemoria.SIN_STOCK : cantidad;
     }
 
     /**
-     * Funcion encargada de transformar un ResultSet en una lista de resultados
+     * Funcion que busca un producto en una estanteria
      * 
-     * @param resultSet de entrada
-     * @return lista de clientes
-     * @throws PersistenciaException error controlado
+     * @param identificador    del producto
+     * @param identificadorSec de la estanteria
+     * @return productoEstanteria encontrado
+     * @throws BbddException error controlado
      */
-    private ArrayList<ProductoEstanteria> buscar(ResultSet resultSet) throws BbddException {
-        ArrayList<ProductoEstanteria> lista = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                int idProducto = resultSet.getInt(CLAVE);
-                int idEstanteria = resultSet.getInt(CLAVESEC);
-                int cantidad = resultSet.getInt("cantidad");
-                ProductoEstanteria productoEstanteria = new ProductoEstanteria(idProducto, idEstanteria, cantidad);
-                lista.add(productoEstanteria);
-            }
-        } catch (SQLException e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return lista;
+    public ProductoEstanteria buscar(String identificador, String identificadorSec) throws BbddException {
+        return buscar(new String[] { identificador, identificadorSec });
     }
 
     /**
-     * Funcion encargada de buscar todos los productosEstanteria en la bbdd
+     * Funcion que obtiene el resumen del inventario de todo el almacen
      * 
-     * @return arraylist de productosEstanteria
+     * @return valor total y huecos del almacen
      * @throws BbddException controlado
      */
-    public ArrayList<ProductoEstanteria> buscarTodos() throws BbddException {
-        String sql = "SELECT * FROM " + TABLA;
-        ResultSet resultSet;
-        ArrayList<ProductoEstanteria> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-        return lista;
+    public ResumenInventario obtenerResumen() throws BbddException {
+        return obtenerResumen(RESUMEN_ALMACEN);
+    }
+
+    /**
+     * Funcion que obtiene el resumen del inventario de una zona. Los triggers de
+     * la bbdd mantienen el resumen al dia, por lo que la lectura es una busqueda
+     * por clave
+     * 
+     * @param idZona de la zona
+     * @return valor total y huecos de la zona
+     * @throws BbddException controlado
+     */
+    public ResumenInventario obtenerResumen(String idZona) throws BbddException {
+        ResumenInventario resumen = persistencia.consultarUno(SQL_RESUMEN,
+                resultSet -> new ResumenInventario(Importe.deCentimos(resultSet.getLong(1)), resultSet.getInt(2),
+                        resultSet.getInt(3)),
+                idZona);
+        return resumen == null ? new ResumenInventario(Importe.CERO, 0, 0) : resumen;
     }
 
     /**
@@ -144,20 +227,7 @@ public class ProductoEstanteriaModelo {
      * @throws BbddException controlado
      */
     public double obtenerValorProductosTotal() throws BbddException {
-        String sql = "SELECT cantidad * precio_unitario AS valor_total FROM producto NATURAL JOIN producto_estanteria";
-        double valorTotal = 0;
-        ResultSet resultSet = null;
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            while (resultSet.next()) {
-                valorTotal += resultSet.getFloat("valor_total");
-            }
-        } catch (Exception exception) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return Math.floor(valorTotal * 100) / 100;
+        return obtenerResumen().getValorTotal();
     }
 
     /**
@@ -167,20 +237,7 @@ public class ProductoEstanteriaModelo {
      * @throws BbddException controlado
      */
     public int obtenerHuecosOcupados() throws BbddException {
-        String sql = "SELECT COUNT(id_producto) AS num_huecos FROM producto_estanteria";
-        int numHuecosOcupados = 0;
-        ResultSet resultSet = null;
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            while (resultSet.next()) {
-                numHuecosOcupados = resultSet.getInt("num_huecos");
-            }
-        } catch (Exception exception) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return numHuecosOcupados;
+        return obtenerResumen().getHuecosOcupados();
     }
 
     /**
@@ -190,19 +247,6 @@ public class ProductoEstanteriaModelo {
      * @throws BbddException controlado
      */
     public int obtenerHuecosTotales() throws BbddException {
-        String sql = "SELECT SUM(num_alturas) AS num_alturas FROM estanteria";
-        int numHuecosTotales = 0;
-        ResultSet resultSet = null;
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            while (resultSet.next()) {
-                numHuecosTotales = resultSet.getInt("num_alturas");
-            }
-        } catch (Exception exception) {
-            throw new BbddException(SE_HA_PRODUCIDO_UN_ERROR_REALIZANDO_LA_CONSULTA, exception);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return numHuecosTotales;
+        return obtenerResumen().getHuecosTotales();
     }
 }
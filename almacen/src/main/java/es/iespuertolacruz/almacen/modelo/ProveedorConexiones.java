@@ -0,0 +1,19 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Interfaz encargada de abrir las conexiones fisicas que gestiona el pool
+ */
+@FunctionalInterface
+interface ProveedorConexiones {
+
+    /**
+     * Funcion que abre una nueva conexion fisica con la bbdd
+     *
+     * @return conexion abierta
+     * @throws SQLException error de la bbdd
+     */
+    Connection crear() throws SQLException;
+}
@@ -2,17 +2,16 @@ package es.iespuertolacruz.almacen.modelo;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 
 import es.iespuertolacruz.almacen.api.Proveedor;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
-public class ProveedorModelo {
+public class ProveedorModelo extends ModeloBase<Proveedor, String> {
 
-    SqLiteBbdd persistencia;
     private static final String TABLA = "proveedor";
     private static final String CLAVE = "cif";
+    private static final String[] COLUMNAS = { "tipo_producto" };
 
     /**
      * Constructor de la clase
@@ -21,113 +20,29 @@ public class ProveedorModelo {
      * @throws FicheroException controlado
      */
     public ProveedorModelo() throws BbddException, FicheroException {
-        persistencia = new SqLiteBbdd(TABLA, CLAVE, null, null);
+        super(TABLA, new String[] { CLAVE }, COLUMNAS);
     }
 
     /**
-     * Metodo encargado de realizar la insercion de un proveedor
+     * Funcion encargada de transformar la fila actual de un ResultSet en un proveedor
      * 
-     * @param proveedor a insertar
-     * @throws BbddException error controlado
+     * @param resultSet posicionado en la fila
+     * @return proveedor de la fila
+     * @throws SQLException error de la bbdd
      */
-    public void insertar(Proveedor proveedor) throws BbddException {
-        String sql = "INSERT INTO proveedor VALUES('" + proveedor.getCif() + "', '" + proveedor.getTipoProducto()
-                + "')";
-        persistencia.actualizar(sql);
+    @Override
+    protected Proveedor mapear(ResultSet resultSet) throws SQLException {
+        return new Proveedor(resultSet.getString(1), resultSet.getString(2));
     }
 
     /**
-     * Metodo encargado de eliminar un proveedor
+     * Funcion que obtiene los valores de un proveedor en el orden de las columnas
      * 
-     * @param proveedor a eliminar
-     * @throws BbddException error controlado
+     * @param proveedor del que se obtienen los valores
+     * @return valores de la fila
      */
-    public void eliminar(Proveedor proveedor) throws BbddException {
-        String sql = "DELETE FROM proveedor WHERE cif = '" + proveedor.getCif() + "'";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Metodo encargado de realizar la modificacion de un proveedor
-     * 
-     * @param proveedor a modificar
-     * @throws BbddException error controlado
-     */
-    public void modificar(Proveedor proveedor) throws BbddException {
-        String sql = "UPDATE proveedor SET tipo_producto = '" + proveedor.getTipoProducto() + "' WHERE cif = '"
-                + proveedor.getCif() + "'";
-        persistencia.actualizar(sql);
-    }
-
-    /**
-     * Funcion que busca un producto en la bbdd
-     * 
-     * @param identificador del producto
-     * @return producto encontrado
-     * @throws BbddException error controlado
-     */
-    public Proveedor buscar(String identificador) throws BbddException {
-        Proveedor proveedorEncontrado = null;
-        String sql = "SELECT * FROM " + TABLA + " WHERE " + CLAVE + "='" + identificador + "'";
-        ResultSet resultSet;
-        ArrayList<Proveedor> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-
-        if (!lista.isEmpty()) {
-            proveedorEncontrado = lista.get(0);
-        }
-        return proveedorEncontrado;
-    }
-
-    /**
-     * Funcion encargada de buscar todos los proveedores en la bbdd
-     * 
-     * @return arraylist de proveedores
-     * @throws BbddException controlado
-     */
-    public ArrayList<Proveedor> buscarTodos() throws BbddException {
-        String sql = "SELECT * FROM " + TABLA;
-        ResultSet resultSet;
-        ArrayList<Proveedor> lista = new ArrayList<>();
-        try {
-            resultSet = persistencia.buscarElementos(sql);
-            lista = buscar(resultSet);
-        } catch (BbddException e) {
-            throw new BbddException("Se ha producido un error realizando la consulta", e);
-        } finally {
-            persistencia.closeConnection(persistencia.getConnection(), null, null);
-        }
-        return lista;
-    }
-
-    /**
-     * Funcion encargada de transformar un ResultSet en una lista de resultados
-     * 
-     * @param resultSet de entrada
-     * @return lista de clientes
-     * @throws PersistenciaException error controlado
-     */
-    private ArrayList<Proveedor> buscar(ResultSet resultSet) throws BbddException {
-        ArrayList<Proveedor> lista = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                String cif = resultSet.getString("cif");
-                String tipoProducto = resultSet.getString("tipo_producto");
-                Proveedor proveedor = new Proveedor(cif, tipoProducto);
-                lista.add(proveedor);
-            }
-        } catch (SQLException e) {
-            throw new BbddException("Se ha producido un error realizando la transformacion a Cliente", e);
-        } finally {
-            persistencia.closeConnection(null, null, resultSet);
-        }
-        return lista;
+    @Override
+    protected Object[] valores(Proveedor proveedor) {
+        return new Object[] { proveedor.getCif(), proveedor.getTipoProducto() };
     }
 }
@@ -1,21 +1,106 @@
 package es.iespuertolacruz.almacen.modelo;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
 
 public class SqLiteBbdd extends Bbdd {
     private static final String DRIVER = "org.sqlite.JDBC";
     private static final String URL  = "jdbc:sqlite:almacen.db";
-    
+    private static final Logger LOGGER = Logger.getLogger(SqLiteBbdd.class.getName());
+    private static final PerfilSqlite PERFIL = PerfilSqlite.desdePropiedades();
+    private static final Set<String> PERFILES_INFORMADOS = ConcurrentHashMap.newKeySet();
+    private static final Map<String, CarrilEscritura> CARRILES = new ConcurrentHashMap<>();
+
     public SqLiteBbdd(String tabla, String clave, String driver, String urlConexion, String usuario, String password) throws BbddException, FicheroException {
        super(tabla, clave, driver, urlConexion, usuario, password);
     }
- 
+
     public SqLiteBbdd(String tabla, String clave, String usuario, String password) throws BbddException, FicheroException {
        super(tabla, clave, DRIVER, URL, usuario, password);
     }
- 
-   
- 
- 
+
+    /**
+     * Funcion que abre una conexion de lectura del pool. Todas las escrituras
+     * pasan por el carril de escritura, por lo que las conexiones del pool son
+     * de solo lectura y nunca compiten por el bloqueo de escritura
+     *
+     * @return la conexion configurada
+     * @throws SQLException error de la bbdd
+     */
+    @Override
+    protected Connection crearConexion() throws SQLException {
+       Connection connection = crearConexionEscritura();
+       try (Statement statement = connection.createStatement()) {
+          statement.execute("PRAGMA query_only = ON");
+       } catch (SQLException exception) {
+          connection.close();
+          throw exception;
+       }
+       return connection;
+    }
+
+    /**
+     * Funcion que abre una conexion fisica y le aplica el perfil de SQLite. La
+     * primera conexion de cada bbdd informa de los ajustes efectivos
+     *
+     * @return la conexion configurada
+     * @throws SQLException error de la bbdd
+     */
+    protected Connection crearConexionEscritura() throws SQLException {
+       Connection connection = super.crearConexion();
+       try {
+          PERFIL.aplicar(connection);
+          if (PERFILES_INFORMADOS.add(url)) {
+             LOGGER.info("Perfil " + PERFIL.getNombre() + " aplicado a " + url + ": "
+                   + PERFIL.leerEfectivos(connection));
+          }
+       } catch (SQLException exception) {
+          connection.close();
+          throw exception;
+       }
+       return connection;
+    }
+
+    /**
+     * Funcion que obtiene el carril de escritura compartido por todos los
+     * modelos de la misma bbdd, con su propia conexion de escritura
+     *
+     * @return carril de escritura
+     */
+    @Override
+    protected CarrilEscritura crearCarril() {
+       return CARRILES.computeIfAbsent(driver + "|" + url, k -> {
+          ConfiguracionPool configuracion = ConfiguracionPool.desdePropiedades();
+          ConfiguracionPool unica = new ConfiguracionPool(1, 1, configuracion.getTiempoEspera(),
+                configuracion.getTiempoInactividad(), configuracion.getTiempoValidacion(),
+                configuracion.getCapacidadSentencias());
+          return new CarrilEscritura(url, new PoolConexiones(this::crearConexionEscritura, unica));
+       });
+    }
+
+    /**
+     * Funcion que crea el dialecto de SQLite
+     *
+     * @return dialecto de la bbdd
+     */
+    @Override
+    protected Dialecto crearDialecto() {
+       return new DialectoSqlite();
+    }
+
+    /**
+     * Funcion getter del perfil de SQLite aplicado a las conexiones
+     * @return perfil de SQLite
+     */
+    public static PerfilSqlite getPerfil() {
+       return PERFIL;
+    }
  }
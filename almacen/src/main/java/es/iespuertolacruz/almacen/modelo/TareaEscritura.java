@@ -0,0 +1,23 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Escritura que se ejecuta sobre la conexion de escritura de la bbdd. No debe
+ * cerrar la conexion ni confirmar la transaccion
+ *
+ * @param <T> tipo del resultado
+ */
+@FunctionalInterface
+interface TareaEscritura<T> {
+
+    /**
+     * Funcion que realiza la escritura
+     *
+     * @param connection de escritura
+     * @return resultado de la escritura
+     * @throws SQLException error de la bbdd
+     */
+    T ejecutar(Connection connection) throws SQLException;
+}
@@ -0,0 +1,304 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Unidad de trabajo que comparte una unica conexion entre todos los modelos
+ * usados por el hilo mientras esta activa y confirma una sola vez al terminar.
+ * La conexion se toma con la primera sentencia, del carril de escritura de la
+ * bbdd o de su pool, por lo que todos los modelos de la transaccion deben usar
+ * la misma bbdd.
+ *
+ * Ejemplo: Transaccion.ejecutar(tx -&gt; { modelo.insertar(a); otro.insertar(b);
+ * return null; });
+ */
+public class Transaccion {
+
+    private static final Logger LOGGER = Logger.getLogger(Transaccion.class.getName());
+    private static final ThreadLocal<Transaccion> ACTIVA = new ThreadLocal<>();
+
+    private PoolConexiones pool;
+    private CarrilEscritura carril;
+    private Connection conexion;
+    private final List<Runnable> trasConfirmar = new ArrayList<>();
+
+    /**
+     * Constructor de la clase, solo se crean desde ejecutar
+     */
+    private Transaccion() {
+    }
+
+    /**
+     * Funcion que ejecuta un trabajo dentro de una transaccion. Si no lanza
+     * ninguna excepcion se confirma y en caso contrario se deshace y se relanza
+     * la excepcion. Si el hilo ya tiene una transaccion activa el trabajo se
+     * ejecuta dentro de ella protegido por un punto de guardado.
+     *
+     * @param operacion a ejecutar
+     * @return resultado de la operacion
+     * @throws BbddException controlado
+     * @throws E             excepcion de la operacion
+     */
+    public static <T, E extends Exception> T ejecutar(OperacionTransaccional<T, E> operacion)
+            throws BbddException, E {
+        Transaccion actual = ACTIVA.get();
+        if (actual != null) {
+            return actual.ejecutarAnidada(operacion);
+        }
+        Transaccion transaccion = new Transaccion();
+        ACTIVA.set(transaccion);
+        T resultado;
+        try {
+            resultado = operacion.ejecutar(transaccion);
+            transaccion.confirmar();
+        } catch (Exception | Error exception) {
+            transaccion.deshacer();
+            throw exception;
+        } finally {
+            ACTIVA.remove();
+            transaccion.liberar();
+        }
+        transaccion.lanzarTrasConfirmar();
+        return resultado;
+    }
+
+    /**
+     * Funcion que ejecuta una operacion sobre una bbdd concreta, tomando su
+     * conexion desde el inicio de la transaccion
+     *
+     * @param bbdd      sobre la que se ejecuta la transaccion
+     * @param operacion a ejecutar
+     * @return resultado de la operacion
+     * @throws BbddException controlado
+     * @throws E             excepcion de la operacion
+     */
+    public static <T, E extends Exception> T ejecutar(Bbdd bbdd, OperacionTransaccional<T, E> operacion)
+            throws BbddException, E {
+        return ejecutar(transaccion -> {
+            transaccion.getConexion(bbdd);
+            return operacion.ejecutar(transaccion);
+        });
+    }
+
+    /**
+     * Funcion que obtiene la transaccion activa en el hilo actual
+     *
+     * @return transaccion activa o null si no hay ninguna
+     */
+    static Transaccion actual() {
+        return ACTIVA.get();
+    }
+
+    /**
+     * Funcion que indica si una conexion pertenece a la transaccion activa del
+     * hilo, en cuyo caso no debe devolverse al pool al terminar cada sentencia
+     *
+     * @param connection a comprobar
+     * @return true/false pertenece o no
+     */
+    static boolean retiene(Connection connection) {
+        Transaccion transaccion = ACTIVA.get();
+        return transaccion != null && transaccion.conexion == connection;
+    }
+
+    /**
+     * Funcion que obtiene la conexion de la transaccion, tomandola la primera vez
+     * del carril de escritura de la bbdd o, si no tiene, de su pool
+     *
+     * @param bbdd que la solicita
+     * @return conexion de la transaccion
+     * @throws BbddException si se solicita desde otra bbdd
+     */
+    Connection getConexion(Bbdd bbdd) throws BbddException {
+        if (conexion == null) {
+            CarrilEscritura carrilBbdd = bbdd.getCarril();
+            Connection nueva = carrilBbdd != null ? carrilBbdd.adquirir() : bbdd.getPool().obtener();
+            carril = carrilBbdd;
+            conexion = nueva;
+            try {
+                nueva.setAutoCommit(false);
+            } catch (SQLException exception) {
+                liberar();
+                throw new BbddException("No se ha podido iniciar la transaccion", exception);
+            }
+            pool = bbdd.getPool();
+        } else if (pool != bbdd.getPool()) {
+            throw new BbddException("Una transaccion no puede abarcar varias bases de datos");
+        }
+        return conexion;
+    }
+
+    /**
+     * Funcion que crea un punto de guardado en la transaccion
+     *
+     * @return punto de guardado, o null si todavia no se ha ejecutado ninguna
+     *         sentencia y volver a el equivale a deshacer toda la transaccion
+     * @throws BbddException controlado
+     */
+    public Savepoint crearPuntoGuardado() throws BbddException {
+        if (conexion == null) {
+            return null;
+        }
+        try {
+            return conexion.setSavepoint();
+        } catch (SQLException exception) {
+            throw new BbddException("No se ha podido crear el punto de guardado", exception);
+        }
+    }
+
+    /**
+     * Metodo que deshace los cambios posteriores a un punto de guardado
+     *
+     * @param puntoGuardado devuelto por crearPuntoGuardado
+     * @throws BbddException controlado
+     */
+    public void volverA(Savepoint puntoGuardado) throws BbddException {
+        if (conexion == null) {
+            return;
+        }
+        try {
+            if (puntoGuardado == null) {
+                conexion.rollback();
+            } else {
+                conexion.rollback(puntoGuardado);
+            }
+        } catch (SQLException exception) {
+            throw new BbddException("No se ha podido volver al punto de guardado", exception);
+        }
+    }
+
+    /**
+     * Metodo que libera un punto de guardado que ya no se necesita
+     *
+     * @param puntoGuardado devuelto por crearPuntoGuardado
+     * @throws BbddException controlado
+     */
+    public void liberarPuntoGuardado(Savepoint puntoGuardado) throws BbddException {
+        if (conexion == null || puntoGuardado == null) {
+            return;
+        }
+        try {
+            conexion.releaseSavepoint(puntoGuardado);
+        } catch (SQLException exception) {
+            throw new BbddException("No se ha podido liberar el punto de guardado", exception);
+        }
+    }
+
+    /**
+     * Metodo que registra una accion a ejecutar cuando la transaccion se haya
+     * confirmado. Si se deshace las acciones se descartan
+     *
+     * @param accion a ejecutar tras confirmar
+     */
+    public void trasConfirmar(Runnable accion) {
+        trasConfirmar.add(accion);
+    }
+
+    /**
+     * Funcion que ejecuta una operacion dentro de esta transaccion protegida por
+     * un punto de guardado
+     *
+     * @param operacion a ejecutar
+     * @return resultado de la operacion
+     * @throws BbddException controlado
+     * @throws E             excepcion de la operacion
+     */
+    private <T, E extends Exception> T ejecutarAnidada(OperacionTransaccional<T, E> operacion)
+            throws BbddException, E {
+        Savepoint puntoGuardado = crearPuntoGuardado();
+        int acciones = trasConfirmar.size();
+        T resultado;
+        try {
+            resultado = operacion.ejecutar(this);
+        } catch (Exception | Error exception) {
+            volverA(puntoGuardado);
+            trasConfirmar.subList(acciones, trasConfirmar.size()).clear();
+            throw exception;
+        }
+        liberarPuntoGuardado(puntoGuardado);
+        return resultado;
+    }
+
+    /**
+     * Metodo que confirma la transaccion
+     *
+     * @throws BbddException controlado
+     */
+    private void confirmar() throws BbddException {
+        if (conexion == null) {
+            return;
+        }
+        try {
+            conexion.commit();
+        } catch (SQLException exception) {
+            throw new BbddException("No se ha podido confirmar la transaccion", exception);
+        }
+    }
+
+    /**
+     * Metodo que deshace la transaccion ignorando los errores, ya que siempre se
+     * llama mientras se propaga otra excepcion
+     */
+    private void deshacer() {
+        trasConfirmar.clear();
+        if (conexion == null) {
+            return;
+        }
+        try {
+            conexion.rollback();
+        } catch (SQLException exception) {
+            LOGGER.log(Level.WARNING, "No se ha podido deshacer la transaccion", exception);
+        }
+    }
+
+    /**
+     * Metodo que devuelve la conexion al carril de escritura o al pool
+     */
+    private void liberar() {
+        if (conexion == null) {
+            return;
+        }
+        if (carril != null) {
+            carril.devolver();
+        } else {
+            cerrar(conexion);
+        }
+        conexion = null;
+        carril = null;
+    }
+
+    /**
+     * Metodo que ejecuta las acciones registradas tras la confirmacion. Un fallo
+     * en una accion no afecta a la transaccion, que ya esta confirmada
+     */
+    private void lanzarTrasConfirmar() {
+        for (Runnable accion : trasConfirmar) {
+            try {
+                accion.run();
+            } catch (RuntimeException exception) {
+                LOGGER.log(Level.WARNING, "Ha fallado una accion posterior a la transaccion", exception);
+            }
+        }
+    }
+
+    /**
+     * Metodo que cierra una conexion ignorando los errores
+     *
+     * @param connection a cerrar
+     */
+    private static void cerrar(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException exception) {
+            LOGGER.log(Level.WARNING, "No se ha podido devolver la conexion al pool", exception);
+        }
+    }
+}
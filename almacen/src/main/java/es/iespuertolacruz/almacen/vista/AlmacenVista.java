@@ -1,22 +1,42 @@
 package es.iespuertolacruz.almacen.vista;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import es.iespuertolacruz.almacen.api.*;
 import es.iespuertolacruz.almacen.controlador.*;
 import es.iespuertolacruz.almacen.exception.AlmacenException;
 import es.iespuertolacruz.almacen.exception.BbddException;
 import es.iespuertolacruz.almacen.exception.FicheroException;
+import es.iespuertolacruz.almacen.modelo.Pagina;
 
 public class AlmacenVista {
 
     private static final String DIVISA = "€";
+    private static final int TAMANIO_PAGINA = 50;
     private static final String SEPARADOR = "\n------------";
     private static final String[] tiposProducto = { "Normal", "Frio", "Congelados" };
     private static Scanner scanner = new Scanner(System.in);
 
+    /**
+     * Interfaz de la consulta de una pagina de un listado
+     *
+     * @param <T> tipo de los elementos
+     */
+    @FunctionalInterface
+    private interface ConsultaPagina<T> {
+        /**
+         * Funcion que obtiene la pagina que sigue a un cursor
+         * @param cursor de la pagina anterior o null para la primera
+         * @param limite de elementos de la pagina
+         * @return pagina de elementos
+         * @throws BbddException controlado
+         */
+        Pagina<T> buscarPagina(Object[] cursor, int limite) throws BbddException;
+    }
+
     /**
      * Funcion principal de la aplicacion
      * 
@@ -116,7 +136,8 @@ public class AlmacenVista {
                         producto != null ? producto.toString() : "No existe ningun producto con ese identificador");
                 break;
             case 2:
-                System.out.println(listadoProductosToString());
+                listadoProductos(System.out::print);
+                System.out.println();
                 break;
             case 3:
                 insertarProducto();
@@ -355,17 +376,53 @@ public class AlmacenVista {
      * @throws FicheroException controlado
      */
     public static String listadoProductosToString() throws BbddException, FicheroException {
-        ProductoController productoController = new ProductoController();
-        ArrayList<Producto> listado = productoController.buscarTodos();
-        StringBuilder informacion = new StringBuilder("Listado de productos:");
-        for (Producto producto : listado) {
-            informacion.append("\n-> Id del producto: " + producto.getIdProducto() + ", nombre del producto: "
-                    + producto.getNombre() + ", tipo del producto: " + producto.getTipo() + ", precio del producto: "
-                    + producto.getPrecioUnitario() + DIVISA);
-        }
+        StringBuilder informacion = new StringBuilder();
+        listadoProductos(informacion::append);
         return informacion.toString();
     }
 
+    /**
+     * Metodo que envia el listado de productos pagina a pagina, segun se lee de
+     * la bbdd
+     * 
+     * @param salida que recibe el texto de cada pagina
+     * @throws BbddException    controlado
+     * @throws FicheroException controlado
+     */
+    public static void listadoProductos(Consumer<String> salida) throws BbddException, FicheroException {
+        ProductoController productoController = new ProductoController();
+        listar("Listado de productos:", productoController::buscarPagina,
+                producto -> "Id del producto: " + producto.getIdProducto() + ", nombre del producto: "
+                        + producto.getNombre() + ", tipo del producto: " + producto.getTipo()
+                        + ", precio del producto: " + producto.getPrecio() + DIVISA,
+                salida);
+    }
+
+    /**
+     * Metodo que recorre un listado por paginas y envia el texto de cada pagina
+     * en cuanto se lee, sin acumular el listado completo
+     * 
+     * @param <T>      tipo de los elementos
+     * @param titulo   del listado
+     * @param consulta de cada pagina
+     * @param formato  de cada elemento
+     * @param salida   que recibe el titulo y el texto de cada pagina
+     * @throws BbddException controlado
+     */
+    private static <T> void listar(String titulo, ConsultaPagina<T> consulta, Function<T, String> formato,
+            Consumer<String> salida) throws BbddException {
+        salida.accept(titulo);
+        Pagina<T> pagina = null;
+        do {
+            pagina = consulta.buscarPagina(pagina == null ? null : pagina.getCursor(), TAMANIO_PAGINA);
+            StringBuilder texto = new StringBuilder();
+            for (T elemento : pagina.getElementos()) {
+                texto.append("\n-> ").append(formato.apply(elemento));
+            }
+            salida.accept(texto.toString());
+        } while (pagina.haySiguiente());
+    }
+
     /**
      * Metodo que genera el menu de operaciones
      * 
@@ -409,7 +466,8 @@ public class AlmacenVista {
     }
 
     /**
-     * Metodo que inserta una operacion en la bbdd
+     * Metodo que inserta una operacion en la bbdd y mueve el stock de su lista
+     * de productos
      * 
      * @throws BbddException    controlado
      * @throws FicheroException controlado
@@ -481,10 +539,12 @@ public class AlmacenVista {
                 System.out.println(empresa != null ? empresa.toString() : "No existe ninguna empresa con ese CIF");
                 break;
             case 3:
-                System.out.println(listadoClientesToString());
+                listadoClientes(System.out::print);
+                System.out.println();
                 break;
             case 4:
-                System.out.println(listadoProveedoresToString());
+                listadoProveedores(System.out::print);
+                System.out.println();
                 break;
             case 5:
                 modificarEmpresa();
@@ -599,16 +659,27 @@ public class AlmacenVista {
      * @throws FicheroException
      */
     public static String listadoClientesToString() throws BbddException, FicheroException {
-        ClienteController clienteController = new ClienteController();
-        ArrayList<Cliente> listado = clienteController.buscarTodos();
-        StringBuilder informacion = new StringBuilder("Listado de clientes:");
-        for (Cliente cliente : listado) {
-            informacion.append("\n-> Cif: " + cliente.getCif() + ", porcentaje de descuento: "
-                    + Math.round((1 - cliente.getPorcentajeDesc()) * 100) + "%");
-        }
+        StringBuilder informacion = new StringBuilder();
+        listadoClientes(informacion::append);
         return informacion.toString();
     }
 
+    /**
+     * Metodo que envia el listado de clientes pagina a pagina, segun se lee de
+     * la bbdd
+     * 
+     * @param salida que recibe el texto de cada pagina
+     * @throws BbddException    controlado
+     * @throws FicheroException controlado
+     */
+    public static void listadoClientes(Consumer<String> salida) throws BbddException, FicheroException {
+        ClienteController clienteController = new ClienteController();
+        listar("Listado de clientes:", clienteController::buscarPagina,
+                cliente -> "Cif: " + cliente.getCif() + ", porcentaje de descuento: "
+                        + Math.round((1 - cliente.getPorcentajeDesc()) * 100) + "%",
+                salida);
+    }
+
     /**
      * Funcion toString del listado de proveedores
      * 
@@ -617,16 +688,26 @@ public class AlmacenVista {
      * @throws FicheroException
      */
     public static String listadoProveedoresToString() throws BbddException, FicheroException {
-        ProveedorController proveedorController = new ProveedorController();
-        ArrayList<Proveedor> listado = proveedorController.buscarTodos();
-        StringBuilder informacion = new StringBuilder("Listado de proveedores:");
-        for (Proveedor proveedor : listado) {
-            informacion
-                    .append("\n-> Cif: " + proveedor.getCif() + ", tipo de producto: " + proveedor.getTipoProducto());
-        }
+        StringBuilder informacion = new StringBuilder();
+        listadoProveedores(informacion::append);
         return informacion.toString();
     }
 
+    /**
+     * Metodo que envia el listado de proveedores pagina a pagina, segun se lee
+     * de la bbdd
+     * 
+     * @param salida que recibe el texto de cada pagina
+     * @throws BbddException    controlado
+     * @throws FicheroException controlado
+     */
+    public static void listadoProveedores(Consumer<String> salida) throws BbddException, FicheroException {
+        ProveedorController proveedorController = new ProveedorController();
+        listar("Listado de proveedores:", proveedorController::buscarPagina,
+                proveedor -> "Cif: " + proveedor.getCif() + ", tipo de producto: " + proveedor.getTipoProducto(),
+                salida);
+    }
+
     /**
      * Metodo que elimina una empresa de la bbdd
      * 
@@ -11,10 +11,10 @@ public class EmpresaTest {
     @Test
     public void toStringTest() {
         String informacion = empresa.toString();
-        assertTrue(informacion.contains("-> CIF: " + empresa.getCif()));
-        assertTrue(informacion.contains("· Nombre: " + empresa.getNombre()));
-        assertTrue(informacion.contains("· Direccion: " + empresa.getDireccion()));
-        assertTrue(informacion.contains("· Telefono: " + empresa.getTelefono()));
-        assertTrue(informacion.contains("· Correo: " + empresa.getCorreo()));
+        assertTrue(informacion.contains("# CIF: " + empresa.getCif()));
+        assertTrue(informacion.contains("# Nombre: " + empresa.getNombre()));
+        assertTrue(informacion.contains("# Direccion: " + empresa.getDireccion()));
+        assertTrue(informacion.contains("# Telefono: " + empresa.getTelefono()));
+        assertTrue(informacion.contains("# Correo: " + empresa.getCorreo()));
     }
 }
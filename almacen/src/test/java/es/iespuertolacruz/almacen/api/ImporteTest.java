@@ -0,0 +1,42 @@
+package es.iespuertolacruz.almacen.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ImporteTest {
+
+    @Test
+    public void deEurosTest() {
+        assertEquals(590, Importe.deEuros(5.9f).getCentimos());
+        assertEquals(1, Importe.deEuros(0.005).getCentimos());
+        assertEquals(19999, Importe.deEuros(199.99).getCentimos());
+        assertEquals(199.99, Importe.deCentimos(19999).getEuros());
+    }
+
+    @Test
+    public void operacionesTest() {
+        Importe precio = Importe.deCentimos(10);
+        Importe total = Importe.CERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.sumar(precio);
+        }
+        assertEquals(Importe.deCentimos(100), total);
+        assertEquals(Importe.deCentimos(90), total.restar(precio));
+        assertEquals(Importe.deCentimos(500), Importe.deCentimos(5).multiplicar(100));
+        assertTrue(total.compareTo(precio) > 0);
+        assertTrue(precio.esPositivo());
+        assertFalse(Importe.CERO.esPositivo());
+        assertThrows(ArithmeticException.class, () -> Importe.deCentimos(Long.MAX_VALUE).sumar(precio));
+    }
+
+    @Test
+    public void toStringTest() {
+        assertEquals("5.90", Importe.deCentimos(590).toString());
+        assertEquals("0.05", Importe.deCentimos(5).toString());
+        assertEquals("-1.50", Importe.deCentimos(-150).toString());
+    }
+}
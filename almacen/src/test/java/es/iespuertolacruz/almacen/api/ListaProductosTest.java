@@ -1,5 +1,9 @@
 package es.iespuertolacruz.almacen.api;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashMap;
@@ -30,4 +34,51 @@ public class ListaProductosTest {
         listaProductos.getLista().forEach((producto, cantidad) -> assertTrue(
                 informacion.contains("· Producto " + producto + ": " + cantidad + " articulos")));
     }
+
+    @Test
+    public void lineasTest() {
+        assertEquals(2, listaProductos.tamanio());
+        assertEquals(500, listaProductos.obtenerCantidad(1));
+        listaProductos.poner(1, 600);
+        listaProductos.poner(3, 100);
+        assertEquals(3, listaProductos.tamanio());
+        assertEquals(600, listaProductos.obtenerCantidad(1));
+        assertEquals(0, listaProductos.obtenerCantidad(4));
+        assertFalse(listaProductos.contiene(4));
+        int[] total = new int[1];
+        listaProductos.forEach((producto, cantidad) -> total[0] += cantidad);
+        assertEquals(1000, total[0]);
+        assertThrows(IndexOutOfBoundsException.class, () -> listaProductos.getProducto(3));
+    }
+
+    @Test
+    public void getListaCopiaTest() {
+        HashMap<Integer, Integer> copia = listaProductos.getLista();
+        copia.put(9, 9);
+        assertFalse(listaProductos.contiene(9));
+        assertEquals(2, listaProductos.tamanio());
+        listaProductos.poner(1, 700);
+        assertEquals(500, copia.get(1).intValue());
+        assertEquals(700, listaProductos.getLista().get(1).intValue());
+        assertNull(new ListaProductos().getLista());
+        listaProductos.setLista(null);
+        assertNull(listaProductos.getLista());
+        assertTrue(listaProductos.estaVacia());
+    }
+
+    @Test
+    public void listaGrandeTest() {
+        ListaProductos grande = new ListaProductos();
+        HashMap<Integer, Integer> esperado = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int producto = (i * 7919) % 3001 - 1500;
+            grande.poner(producto, i);
+            esperado.put(producto, i);
+        }
+        assertEquals(esperado.size(), grande.tamanio());
+        assertEquals(esperado, grande.getLista());
+        for (int i = 0; i < grande.tamanio(); i++) {
+            assertEquals(esperado.get(grande.getProducto(i)).intValue(), grande.getCantidad(i));
+        }
+    }
 }
@@ -11,10 +11,10 @@ public class OperacionTest {
     @Test
     public void toStringTest() {
         String informacion = operacion.toString();
-        assertTrue(informacion.contains("-> Id lista de productos: " + operacion.getIdListaProductos()));
-        assertTrue(informacion.contains("· CIF de la empresa asociada: " + operacion.getCif()));
-        assertTrue(informacion.contains("· Muelle: " + operacion.getIdMuelle()));
-        assertTrue(informacion.contains("· Fecha: " + operacion.getFecha()));
-        assertTrue(informacion.contains("· Tipo de operacion: " + operacion.getTipoOperacion()));
+        assertTrue(informacion.contains("# Id lista de productos: " + operacion.getIdListaProductos()));
+        assertTrue(informacion.contains("# CIF de la empresa asociada: " + operacion.getCif()));
+        assertTrue(informacion.contains("# Muelle: " + operacion.getIdMuelle()));
+        assertTrue(informacion.contains("# Fecha: " + operacion.getFecha()));
+        assertTrue(informacion.contains("# Tipo de operacion: " + operacion.getTipoOperacion()));
     }
 }
\ No newline at end of file
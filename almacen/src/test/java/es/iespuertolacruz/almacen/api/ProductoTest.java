@@ -1,5 +1,7 @@
 package es.iespuertolacruz.almacen.api;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -11,9 +13,16 @@ public class ProductoTest {
     @Test
     public void toStringTest() {
         String informacion = producto.toString();
-        assertTrue(informacion.contains("-> Id: " + producto.getIdProducto()));
-        assertTrue(informacion.contains("-> Nombre: " + producto.getNombre()));
-        assertTrue(informacion.contains("-> Precio unitario: " + producto.getPrecioUnitario()));
-        assertTrue(informacion.contains("-> Tipo: " + producto.getTipo()));
+        assertTrue(informacion.contains("Id: " + producto.getIdProducto()));
+        assertTrue(informacion.contains("# Nombre: " + producto.getNombre()));
+        assertTrue(informacion.contains("# Precio unitario: " + producto.getPrecio()));
+        assertTrue(informacion.contains("# Tipo: " + producto.getTipo()));
+    }
+
+    @Test
+    public void sinPrecioTest() {
+        Producto sinPrecio = new Producto(601, "Bandera", (Importe) null, "Normal");
+        assertNull(sinPrecio.getPrecio());
+        assertEquals(0, sinPrecio.getPrecioUnitario());
     }
 }
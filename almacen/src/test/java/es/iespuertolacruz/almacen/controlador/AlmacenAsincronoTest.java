@@ -0,0 +1,95 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.api.Empresa;
+import es.iespuertolacruz.almacen.api.Muelle;
+import es.iespuertolacruz.almacen.api.Producto;
+import es.iespuertolacruz.almacen.exception.AlmacenException;
+
+public class AlmacenAsincronoTest {
+
+    static AlmacenAsincrono almacen;
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            almacen = new AlmacenAsincrono(new EjecutorAlmacen(4, true));
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear la fachada", ex);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        almacen.cerrar();
+    }
+
+    @Test
+    public void buscarVariosTest() {
+        CompletableFuture<Producto> producto = almacen.buscarProducto(1);
+        CompletableFuture<Empresa> empresa = almacen.buscarEmpresa("A11111111");
+        CompletableFuture<Muelle> muelle = almacen.buscarMuelle(1);
+        CompletableFuture.allOf(producto, empresa, muelle).join();
+        assertNotNull(producto.join());
+        assertNotNull(empresa.join());
+        assertNotNull(muelle.join());
+        assertNull(almacen.buscarProducto(-1).join());
+    }
+
+    @Test
+    public void errorTest() {
+        try {
+            almacen.ejecutar(() -> {
+                throw new AlmacenException("Error asincrono");
+            }).join();
+            fail("El futuro deberia completarse con la excepcion");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof AlmacenException);
+        }
+    }
+
+    @Test
+    public void llamadasAcotadasTest() {
+        EjecutorAlmacen ejecutor = new EjecutorAlmacen(2, false);
+        try {
+            CountDownLatch bloqueo = new CountDownLatch(1);
+            CompletableFuture<?>[] llamadas = new CompletableFuture<?>[3];
+            int[] activas = new int[2];
+            for (int i = 0; i < llamadas.length; i++) {
+                llamadas[i] = ejecutor.enviar(() -> {
+                    synchronized (activas) {
+                        activas[0]++;
+                        activas[1] = Math.max(activas[1], activas[0]);
+                    }
+                    bloqueo.await(5, TimeUnit.SECONDS);
+                    synchronized (activas) {
+                        activas[0]--;
+                    }
+                    return null;
+                });
+            }
+            Thread.sleep(200);
+            bloqueo.countDown();
+            CompletableFuture.allOf(llamadas).join();
+            assertEquals(2, activas[1]);
+        } catch (InterruptedException ex) {
+            fail("Se ha interrumpido la prueba", ex);
+        } finally {
+            ejecutor.cerrar();
+        }
+    }
+}
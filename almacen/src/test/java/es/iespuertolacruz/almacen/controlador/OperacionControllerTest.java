@@ -6,16 +6,22 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.HashMap;
+
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import es.iespuertolacruz.almacen.api.ListaProductos;
 import es.iespuertolacruz.almacen.api.Operacion;
 public class OperacionControllerTest {
 
     static OperacionController operacionController;
-    Operacion operacion1 = new Operacion(3, 4, "2020-10-10", "Salida", "C44444444");
+    static ListaProductos listaProductos1;
+    Operacion operacion1 = new Operacion(listaProductos1.getIdListaProductos(), 4, "2020-10-10", "Salida",
+            "C44444444");
     Operacion operacion2 = new Operacion(operacion1.getIdListaProductos(), 3, "2020-12-12", "Salida", "B22222222");
     Operacion operacion3 = new Operacion(50, 4, "2020-11-11", "Salida", "C44444444");
 
@@ -23,12 +29,25 @@ public class OperacionControllerTest {
     public static void setUp() {
         try {
             operacionController = new OperacionController();
-
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(1, 5);
+            listaProductos1 = new ListaProductos(
+                    operacionController.listaProductosController.obtenerMaxIdListaProductos() + 1, mapa);
+            operacionController.listaProductosController.insertar(listaProductos1);
         } catch (Exception ex) {
             fail("Se ha producido un error al crear el controlador", ex);
         }
     }
 
+    @AfterAll
+    public static void tearDown() {
+        try {
+            operacionController.listaProductosController.eliminar(listaProductos1);
+        } catch (Exception ex) {
+            fail("No se ha podido eliminar la lista de productos", ex);
+        }
+    }
+
     @BeforeEach
     public void insertarTest() {
         try {
@@ -44,6 +63,9 @@ public class OperacionControllerTest {
         try {
             operacionController.eliminar(operacion1);
             assertNull(operacionController.buscar(operacion1.getIdListaProductos()));
+            operacionController.motorMovimientos.aplicar(
+                    new Operacion(operacion1.getIdListaProductos(), 4, "2020-10-10", "Entrada", "C44444444"),
+                    listaProductos1);
         } catch (Exception ex) {
             fail("No se ha podido eliminar la operacion", ex);
         }
@@ -58,6 +80,44 @@ public class OperacionControllerTest {
         }
     }
 
+    @Test
+    public void insertarMueveStockTest() {
+        try {
+            int idLista = operacionController.listaProductosController.obtenerMaxIdListaProductos() + 1;
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(1, 5);
+            mapa.put(2, 7);
+            ListaProductos listaProductos = new ListaProductos(idLista, mapa);
+            ProductoEstanteriaController productoEstanteriaController = new ProductoEstanteriaController();
+            int stock1 = productoEstanteriaController.buscar(1, 1).getCantidad();
+            int stock2 = productoEstanteriaController.buscar(2, 3).getCantidad();
+            operacionController.listaProductosController.insertar(listaProductos);
+            Operacion entrada = new Operacion(idLista, 4, "2020-10-10", "Entrada", "C44444444");
+            operacionController.insertar(entrada);
+            assertEquals(stock1 + 5, productoEstanteriaController.buscar(1, 1).getCantidad());
+            assertEquals(stock2 + 7, productoEstanteriaController.buscar(2, 3).getCantidad());
+            operacionController.eliminar(entrada);
+            operacionController.insertar(new Operacion(idLista, 4, "2020-10-11", "Salida", "C44444444"));
+            assertEquals(stock1, productoEstanteriaController.buscar(1, 1).getCantidad());
+            assertEquals(stock2, productoEstanteriaController.buscar(2, 3).getCantidad());
+            operacionController.eliminar(entrada);
+            operacionController.listaProductosController.eliminar(listaProductos);
+        } catch (Exception ex) {
+            fail("No se ha podido mover el stock al insertar la operacion", ex);
+        }
+    }
+
+    @Test
+    public void insertarSinListaTest() {
+        try {
+            int idLista = operacionController.listaProductosController.obtenerMaxIdListaProductos() + 1;
+            operacionController.insertar(new Operacion(idLista, 4, "2020-10-10", "Entrada", "C44444444"));
+            fail("No se deberia poder insertar una operacion sin lista de productos");
+        } catch (Exception ex) {
+            assertTrue(ex.getMessage().contains("La lista de productos de la operacion no existe"));
+        }
+    }
+
     @Test
     public void eliminarErrorTest() {
         try {
@@ -112,4 +172,57 @@ public class OperacionControllerTest {
             assertTrue(ex.getMessage().contains("El cif de la operacion no puede ser nulo o no valido"));
         }
     }
+
+    @Test
+    public void comprobarFechaNoValidaTest() {
+        for (String fecha : new String[] { "ayer", "2020-02-30", "31/04/2020" }) {
+            assertTrue(operacionController.comprobar(new Operacion(5, 4, fecha, "Entrada", "C44444444"))
+                    .contains("La fecha de la operacion no puede ser nula o no valida"));
+        }
+    }
+
+    @Test
+    public void registrarTest() {
+        try {
+            int idLista = operacionController.listaProductosController.obtenerMaxIdListaProductos() + 1;
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(1, 5);
+            mapa.put(2, 7);
+            ListaProductos listaProductos = new ListaProductos(idLista, mapa);
+            Operacion operacion = new Operacion(idLista, 4, "2020-10-10", "Entrada", "C44444444");
+            int stock = new ProductoEstanteriaController().buscar(1, 1).getCantidad();
+            operacionController.registrar(operacion, listaProductos);
+            assertNotNull(operacionController.buscar(idLista));
+            assertEquals(mapa, operacionController.listaProductosController.buscar(idLista).getLista());
+            assertEquals(stock + 5, new ProductoEstanteriaController().buscar(1, 1).getCantidad());
+            operacionController.motorMovimientos.aplicar(
+                    new Operacion(idLista, 4, "2020-10-10", "Salida", "C44444444"), listaProductos);
+            operacionController.eliminar(operacion);
+            operacionController.listaProductosController.eliminar(listaProductos);
+        } catch (Exception ex) {
+            fail("No se ha podido registrar la operacion", ex);
+        }
+    }
+
+    @Test
+    public void registrarErrorTest() {
+        int idLista = 0;
+        try {
+            idLista = operacionController.listaProductosController.obtenerMaxIdListaProductos() + 1;
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(1, 5);
+            Operacion operacion = new Operacion(idLista, 4, "2020-10-10", "Entrada", "C44444444");
+            operacionController.operacionModelo.insertar(operacion);
+            try {
+                operacionController.registrar(operacion, new ListaProductos(idLista, mapa));
+                fail("No se deberia poder registrar una operacion existente");
+            } catch (Exception ex) {
+                assertTrue(ex.getMessage().contains("La operacion ya existe"));
+            }
+            assertNull(operacionController.listaProductosController.buscar(idLista));
+            operacionController.eliminar(operacion);
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando el registro fallido", ex);
+        }
+    }
 }
@@ -1,17 +1,21 @@
 package es.iespuertolacruz.almacen.controlador;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import es.iespuertolacruz.almacen.api.Importe;
 import es.iespuertolacruz.almacen.api.Producto;
+import es.iespuertolacruz.almacen.exception.AlmacenException;
 public class ProductoControllerTest {
 
     static ProductoController productoController;
@@ -73,6 +77,7 @@ public class ProductoControllerTest {
         try {
             productoController.modificar(producto2);
             assertEquals(productoController.buscar(producto1.getIdProducto()).getNombre(), producto2.getNombre());
+            assertEquals(590, productoController.buscar(producto1.getIdProducto()).getPrecio().getCentimos());
         } catch (Exception ex) {
             fail("No se ha podido modificar el producto", ex);
         }
@@ -112,6 +117,12 @@ public class ProductoControllerTest {
             assertTrue(ex.getMessage().contains("El precio del producto no puede ser menor o igual que 0"));
             assertTrue(ex.getMessage().contains("El tipo del producto no puede ser nulo o no valido"));
         }
+        try {
+            productoController.validar(new Producto(1, "Bandera", (Importe) null, "Normal"));
+            fail("No se deberia validar un producto sin precio");
+        } catch (AlmacenException ex) {
+            assertTrue(ex.getMessage().contains("El precio del producto no puede ser nulo"));
+        }
         try {
             productoController.validar(new Producto(1, "", 1, ""));
         } catch (Exception ex) {
@@ -119,4 +130,39 @@ public class ProductoControllerTest {
             assertTrue(ex.getMessage().contains("El tipo del producto no puede ser nulo o no valido"));
         }
     }
+
+    @Test
+    public void validarTodosTest() {
+        InformeValidacion<Producto> informe = productoController
+                .validarTodos(Arrays.asList(producto1, null, new Producto(0, "", 1, "Normal"), producto3));
+        assertEquals(4, informe.getTotal());
+        assertEquals(2, informe.getNumErrores());
+        assertEquals(1, informe.getIndice(0));
+        assertTrue(informe.getMensaje(0).contains("El producto no puede ser nulo"));
+        assertTrue(informe.mensajeDe(2).contains("El id del producto no puede ser inferior a 1"));
+        assertTrue(informe.mensajeDe(2).contains("El nombre del producto no puede ser nulo o vacio"));
+        assertNull(informe.mensajeDe(3));
+        assertEquals(Arrays.asList(producto1, producto3), informe.getValidos());
+    }
+
+    @Test
+    public void insertarTodosTest() {
+        Producto producto4 = new Producto(producto1.getIdProducto() + 1, "Bandera de Canarias 4", 5, "Normal");
+        Producto producto5 = new Producto(producto1.getIdProducto() + 2, "Bandera de Canarias 5", 5, "Frio");
+        try {
+            InformeValidacion<Producto> informe = productoController.insertarTodos(Arrays.asList(producto4,
+                    new Producto(1, "", 1, "Normal"), producto5, producto1, producto4));
+            assertEquals(3, informe.getNumErrores());
+            assertEquals(1, informe.getIndice(0));
+            assertTrue(informe.mensajeDe(3).contains("El producto ya existe"));
+            assertTrue(informe.mensajeDe(4).contains("El producto ya existe"));
+            assertEquals(Arrays.asList(producto4, producto5), informe.getValidos());
+            assertEquals(producto4.getNombre(), productoController.buscar(producto4.getIdProducto()).getNombre());
+            assertEquals(producto5.getTipo(), productoController.buscar(producto5.getIdProducto()).getTipo());
+            productoController.eliminar(producto4);
+            productoController.eliminar(producto5);
+        } catch (Exception ex) {
+            fail("No se han podido insertar los productos", ex);
+        }
+    }
 }
\ No newline at end of file
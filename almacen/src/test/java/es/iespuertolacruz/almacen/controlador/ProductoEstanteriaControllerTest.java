@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.Arrays;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -119,4 +120,20 @@ public class ProductoEstanteriaControllerTest {
             fail("Se ha producido una excepcion", ex);
         }
     }
+
+    @Test
+    public void insertarTodosTest() {
+        try {
+            InformeValidacion<ProductoEstanteria> informe = productoEstanteriaController.insertarTodos(
+                    Arrays.asList(productoEstanteria2, productoEstanteria3, new ProductoEstanteria(30, 1, 50)));
+            assertEquals(2, informe.getNumErrores());
+            assertTrue(informe.mensajeDe(0).contains("El producto estanteria ya existe"));
+            assertTrue(informe.mensajeDe(2).contains("El producto estanteria ya existe"));
+            assertEquals(100, productoEstanteriaController.buscar(30, 1).getCantidad());
+            assertEquals(100, productoEstanteriaController.buscar(20, 1).getCantidad());
+            productoEstanteriaController.eliminar(productoEstanteria3);
+        } catch (Exception ex) {
+            fail("No se han podido insertar los productos estanteria", ex);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package es.iespuertolacruz.almacen.controlador;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ValidacionMasivaTest {
+
+    static final ValidacionMasiva.Comprobacion<Integer> MULTIPLO_7 = numero -> numero % 7 == 0
+            ? "El numero " + numero + " es multiplo de 7\n"
+            : "";
+
+    @Test
+    public void validarListaGrandeTest() {
+        List<Integer> numeros = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            numeros.add(i);
+        }
+        InformeValidacion<Integer> informe = ValidacionMasiva.validar(numeros, MULTIPLO_7);
+        assertEquals(100000, informe.getTotal());
+        assertEquals(14286, informe.getNumErrores());
+        for (int i = 0; i < informe.getNumErrores(); i++) {
+            assertEquals(i * 7, informe.getIndice(i));
+            assertEquals("El numero " + i * 7 + " es multiplo de 7\n", informe.getMensaje(i));
+        }
+        assertTrue(informe.mensajeDe(70000).contains("70000"));
+        assertNull(informe.mensajeDe(70001));
+        assertEquals(100000 - 14286, informe.getValidos().size());
+        int anterior = -1;
+        for (int numero : informe.getValidos()) {
+            assertTrue(numero > anterior && numero % 7 != 0);
+            anterior = numero;
+        }
+    }
+
+    @Test
+    public void validarListaSinAccesoAleatorioTest() {
+        List<Integer> numeros = new LinkedList<>();
+        for (int i = 1; i <= 3000; i++) {
+            numeros.add(i);
+        }
+        InformeValidacion<Integer> informe = ValidacionMasiva.validar(numeros, MULTIPLO_7);
+        assertEquals(428, informe.getNumErrores());
+        assertEquals(6, informe.getIndice(0));
+        assertEquals(3000 - 428, informe.getValidos().size());
+    }
+
+    @Test
+    public void validarListaVaciaTest() {
+        InformeValidacion<Integer> informe = ValidacionMasiva.validar(new ArrayList<>(), MULTIPLO_7);
+        assertEquals(0, informe.getTotal());
+        assertFalse(informe.hayErrores());
+        assertTrue(informe.getValidos().isEmpty());
+        assertEquals("0 validos de 0", informe.toString());
+    }
+}
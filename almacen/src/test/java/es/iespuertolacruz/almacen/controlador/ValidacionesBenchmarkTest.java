@@ -0,0 +1,66 @@
+package es.iespuertolacruz.almacen.controlador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comparacion del coste por llamada de las validaciones frente a compilar el
+ * patron en cada llamada, como se hacia antes. Solo se ejecuta con
+ * -Dalmacen.benchmark=true y comprueba, tras un calentamiento, que las
+ * validaciones son al menos el doble de rapidas. Las mediciones precisas se
+ * hacen con ValidacionesBenchmark en el perfil benchmark.
+ */
+public class ValidacionesBenchmarkTest {
+
+    private static final String PROPIEDAD_BENCHMARK = "almacen.benchmark";
+    private static final int CALENTAMIENTO = 200000;
+    private static final int MEDICIONES = 2000000;
+    private static final double MEJORA_MINIMA = 2;
+    private static final String[] CIFS = { "A11111111", "B22222222", "C4444444", "11111111A" };
+    private static final String[] FECHAS = { "2020-10-10", "10/10/2020", "2020-1-10", "2021/02/15" };
+
+    static volatile int sumidero;
+
+    @Test
+    public void validarBenchmark() {
+        assumeTrue(Boolean.getBoolean(PROPIEDAD_BENCHMARK), "El benchmark no esta activado");
+        String patronFecha = "[0-9]{4}[-/][0-9]{2}[-/][0-9]{2}|[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}";
+        comparar("cif", CIFS, valor -> Pattern.compile("[A-Z][0-9]{8}").matcher(valor).matches(),
+                Validaciones::validarCif);
+        comparar("fecha", FECHAS, valor -> Pattern.compile(patronFecha).matcher(valor).matches(),
+                Validaciones::validarFecha);
+    }
+
+    private static void comparar(String nombre, String[] valores, Predicate<String> anterior,
+            Predicate<String> actual) {
+        assertEquals(medir(anterior, valores, CALENTAMIENTO / 10), medir(actual, valores, CALENTAMIENTO / 10));
+        double nanosAnterior = nanosPorLlamada(anterior, valores, MEDICIONES / 10);
+        double nanosActual = nanosPorLlamada(actual, valores, MEDICIONES);
+        assertTrue(nanosAnterior / nanosActual >= MEJORA_MINIMA, nombre + ": compilando " + nanosAnterior
+                + " ns/llamada, actual " + nanosActual + " ns/llamada");
+    }
+
+    private static double nanosPorLlamada(Predicate<String> validacion, String[] valores, int llamadas) {
+        medir(validacion, valores, CALENTAMIENTO);
+        long inicio = System.nanoTime();
+        sumidero = medir(validacion, valores, llamadas);
+        long nanos = System.nanoTime() - inicio;
+        return (double) nanos / llamadas;
+    }
+
+    private static int medir(Predicate<String> validacion, String[] valores, int llamadas) {
+        int validos = 0;
+        for (int i = 0; i < llamadas; i++) {
+            if (validacion.test(valores[i % valores.length])) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+}
@@ -1,7 +1,10 @@
 package es.iespuertolacruz.almacen.controlador;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.regex.Pattern;
+
 import org.junit.jupiter.api.Test;
 
 public class ValidacionesTest {
@@ -41,4 +44,43 @@ public class ValidacionesTest {
         assertFalse(Validaciones.validarCorreo("aaa@aaa"));
         assertFalse(Validaciones.validarTelefono("a.a"));
     }
+
+    @Test
+    public void validarFecha() {
+        assertTrue(Validaciones.validarFecha("2020-10-10"));
+        assertTrue(Validaciones.validarFecha("2020/10-10"));
+        assertTrue(Validaciones.validarFecha("10/10/2020"));
+        assertFalse(Validaciones.validarFecha("2020-1-10"));
+        assertFalse(Validaciones.validarFecha("10/10/20"));
+        assertFalse(Validaciones.validarFecha(null));
+    }
+
+    @Test
+    public void validarTipoOperacion() {
+        assertTrue(Validaciones.validarTipoOperacion("Entrada"));
+        assertTrue(Validaciones.validarTipoOperacion("Salida"));
+        assertFalse(Validaciones.validarTipoOperacion("Sali"));
+        assertFalse(Validaciones.validarTipoOperacion("EntradaSalida"));
+    }
+
+    @Test
+    public void equivalenciaPatronesTest() {
+        String[] valores = { "", "A", "a", "1", "A11111111", "A1111111", "A111111111", "a11111111", "AA1111111",
+                "999999999", "99999999a", "2020-10-10", "2020/10/10", "10-10-2020", "10/10/2020", "2020-1010-",
+                "20201-10-1", "1-10-20201", "Normal", "Frio", "Congelados", "normal", "Entrada", "Salida", "a@a.a",
+                "@a.a", "a@.a", "a@a.", "a@@a..a", "a@a\n.a" };
+        for (String valor : valores) {
+            assertEquals(Pattern.matches("[A-Z][0-9]{8}", valor), Validaciones.validarCif(valor), valor);
+            assertEquals(Pattern.matches("[0-9]{9}", valor), Validaciones.validarTelefono(valor), valor);
+            assertEquals(Pattern.matches("[0-9]{4}[-/][0-9]{2}[-/][0-9]{2}|[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}", valor),
+                    Validaciones.validarFecha(valor), valor);
+            assertEquals(Pattern.matches("Normal|Frio|Congelados", valor), Validaciones.validarTipoProducto(valor),
+                    valor);
+            assertEquals(Pattern.matches("Entrada|Salida", valor), Validaciones.validarTipoOperacion(valor), valor);
+            assertEquals(Pattern.matches(".+@.+\\..+", valor), Validaciones.validarCorreo(valor), valor);
+        }
+        for (char caracter = 0; caracter < 256; caracter++) {
+            assertEquals(Pattern.matches("[A-Z]", String.valueOf(caracter)), Validaciones.validarZona(caracter));
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class CarrilEscrituraTest {
+
+    static File bbddTemporal;
+    static SqLiteBbdd persistencia;
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            bbddTemporal = File.createTempFile("almacen-carril", ".db");
+            bbddTemporal.delete();
+            persistencia = new SqLiteBbdd("zona", "id_zona", "org.sqlite.JDBC",
+                    "jdbc:sqlite:" + bbddTemporal.getAbsolutePath(), null, null);
+            persistencia.ejecutar("CREATE TABLE carril (id INTEGER PRIMARY KEY, hilo TEXT)");
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear la bbdd temporal", ex);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        persistencia.getPool().cerrar();
+        new File(bbddTemporal.getPath() + "-wal").delete();
+        new File(bbddTemporal.getPath() + "-shm").delete();
+        bbddTemporal.delete();
+    }
+
+    @Test
+    public void escriturasConcurrentesTest() {
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            CarrilEscritura carril = persistencia.getCarril();
+            long escrituras = carril.getEscriturasConfirmadas();
+            long grupos = carril.getGruposConfirmados();
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (int i = 1; i <= 200; i++) {
+                int id = i;
+                resultados.add(hilos.submit(() -> persistencia.actualizar(
+                        "INSERT INTO carril (id, hilo) VALUES (?, ?)", id, Thread.currentThread().getName())));
+            }
+            for (Future<Integer> resultado : resultados) {
+                assertEquals(1, resultado.get());
+            }
+            Integer filas = persistencia.consultarUno("SELECT COUNT(*) FROM carril", resultSet -> resultSet.getInt(1));
+            assertEquals(200, filas);
+            assertEquals(escrituras + 200, carril.getEscriturasConfirmadas());
+            assertTrue(carril.getGruposConfirmados() - grupos <= 200);
+        } catch (Exception ex) {
+            fail("Se ha producido un error en las escrituras concurrentes", ex);
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    @Test
+    public void escrituraFallidaTest() {
+        try {
+            persistencia.actualizar("INSERT INTO carril (id, hilo) VALUES (?, ?)", 1000, "prueba");
+            try {
+                persistencia.actualizar("INSERT INTO carril (id, hilo) VALUES (?, ?)", 1000, "repetida");
+                fail("No se deberia poder insertar una clave repetida");
+            } catch (Exception ex) {
+                assertTrue(ex.getMessage().contains("error"));
+            }
+            assertEquals(1, persistencia.actualizar("DELETE FROM carril WHERE id = ?", 1000));
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando la escritura fallida", ex);
+        }
+    }
+
+    @Test
+    public void lecturaSoloLecturaTest() {
+        try (Connection connection = persistencia.getPool().obtener();
+                Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO carril (id, hilo) VALUES (2000, 'lectura')");
+            fail("Las conexiones de lectura no deberian poder escribir");
+        } catch (Exception ex) {
+            assertTrue(ex.getMessage().contains("readonly") || ex.getMessage().contains("query_only")
+                    || ex.getMessage().contains("read"));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class DialectoTest {
+
+    static final String[] COLUMNAS = { "id", "nombre", "cantidad" };
+    static final String[] CLAVES = { "id" };
+    static File bbddTemporal;
+    static SqLiteBbdd persistencia;
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            bbddTemporal = File.createTempFile("almacen-dialecto", ".db");
+            bbddTemporal.delete();
+            persistencia = new SqLiteBbdd("zona", "id_zona", "org.sqlite.JDBC",
+                    "jdbc:sqlite:" + bbddTemporal.getAbsolutePath(), null, null);
+            persistencia.ejecutar("CREATE TABLE dialecto (id INTEGER PRIMARY KEY AUTOINCREMENT, nombre TEXT, "
+                    + "cantidad INTEGER)");
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear la bbdd temporal", ex);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        persistencia.getPool().cerrar();
+        new File(bbddTemporal.getPath() + "-wal").delete();
+        new File(bbddTemporal.getPath() + "-shm").delete();
+        bbddTemporal.delete();
+    }
+
+    @Test
+    public void sentenciasSqliteTest() {
+        Dialecto dialecto = new DialectoSqlite();
+        assertEquals("SELECT * FROM zona LIMIT ?", dialecto.limitar("SELECT * FROM zona"));
+        assertEquals("SELECT * FROM zona LIMIT ? OFFSET ?", dialecto.paginar("SELECT * FROM zona"));
+        assertEquals("INSERT INTO dialecto (id, nombre, cantidad) VALUES (?, ?, ?), (?, ?, ?)",
+                dialecto.insertarVarios("dialecto", COLUMNAS, 2));
+        assertEquals("INSERT INTO dialecto (id, nombre, cantidad) VALUES (?, ?, ?) ON CONFLICT (id) DO UPDATE SET "
+                + "nombre = excluded.nombre, cantidad = excluded.cantidad",
+                dialecto.insertarOActualizar("dialecto", COLUMNAS, CLAVES));
+        assertEquals("INSERT INTO dialecto (id) VALUES (?) ON CONFLICT (id) DO NOTHING",
+                dialecto.insertarOActualizar("dialecto", CLAVES, CLAVES));
+    }
+
+    @Test
+    public void sentenciasMySqlTest() {
+        Dialecto dialecto = new DialectoMySql();
+        assertEquals("INSERT INTO dialecto (id, nombre, cantidad) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE "
+                + "nombre = VALUES(nombre), cantidad = VALUES(cantidad)",
+                dialecto.insertarOActualizar("dialecto", COLUMNAS, CLAVES));
+        assertEquals("INSERT INTO dialecto (id) VALUES (?) ON DUPLICATE KEY UPDATE id = id",
+                dialecto.insertarOActualizar("dialecto", CLAVES, CLAVES));
+    }
+
+    @Test
+    public void insertarVariosTest() {
+        try {
+            List<Object[]> filas = new ArrayList<>();
+            for (int i = 1; i <= 1200; i++) {
+                filas.add(new Object[] { 10000 + i, "fila" + i, i });
+            }
+            assertEquals(1200, persistencia.insertarVarios("dialecto", COLUMNAS, filas));
+            Integer total = persistencia.consultarUno("SELECT SUM(cantidad) FROM dialecto WHERE id > ?",
+                    resultSet -> resultSet.getInt(1), 10000);
+            assertEquals(1200 * 1201 / 2, total);
+            persistencia.actualizar(persistencia.getDialecto().insertarOActualizar("dialecto", COLUMNAS, CLAVES),
+                    10001, "modificada", 0);
+            String nombre = persistencia.consultarUno("SELECT nombre FROM dialecto WHERE id = ?",
+                    resultSet -> resultSet.getString(1), 10001);
+            assertEquals("modificada", nombre);
+        } catch (Exception ex) {
+            fail("Se ha producido un error insertando varias filas", ex);
+        }
+    }
+
+    @Test
+    public void insertarConClaveTest() {
+        try {
+            long clave = persistencia.insertarConClave("INSERT INTO dialecto (nombre, cantidad) VALUES (?, ?)",
+                    "generada", 1);
+            String nombre = persistencia.consultarUno("SELECT nombre FROM dialecto WHERE id = ?",
+                    resultSet -> resultSet.getString(1), clave);
+            assertEquals("generada", nombre);
+        } catch (Exception ex) {
+            fail("Se ha producido un error obteniendo la clave generada", ex);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package es.iespuertolacruz.almacen.modelo;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import es.iespuertolacruz.almacen.api.Estanteria;
+import es.iespuertolacruz.almacen.api.ProductoEstanteria;
 
 public class EstanteriaModeloTest {
 
@@ -50,4 +54,68 @@ public class EstanteriaModeloTest {
             fail("Se producido una excepcion buscando todos las estanterias");
         }
     }
+
+    @Test
+    public void buscarPaginaTest() {
+        try {
+            int total = estanteriaModelo.buscarTodos().size();
+            int paginados = 0;
+            int ultimoId = 0;
+            Pagina<Estanteria> pagina = null;
+            do {
+                pagina = estanteriaModelo.buscarPagina(pagina == null ? null : pagina.getCursor(), 7);
+                assertTrue(pagina.getElementos().size() <= 7);
+                for (Estanteria estanteria : pagina.getElementos()) {
+                    assertTrue(estanteria.getIdEstanteria() > ultimoId);
+                    ultimoId = estanteria.getIdEstanteria();
+                    paginados++;
+                }
+            } while (pagina.haySiguiente());
+            assertEquals(total, paginados);
+            assertEquals(1000, ultimoId);
+        } catch (Exception ex) {
+            fail("Se producido una excepcion paginando las estanterias", ex);
+        }
+    }
+
+    @Test
+    public void streamTest() {
+        try {
+            int total = estanteriaModelo.buscarTodos().size();
+            try (Stream<Estanteria> estanterias = estanteriaModelo.stream(3)) {
+                assertEquals(total, estanterias.count());
+                assertEquals(1, estanteriaModelo.persistencia.getPool().getPrestadas());
+            }
+            assertEquals(0, estanteriaModelo.persistencia.getPool().getPrestadas());
+            try (Stream<Estanteria> estanterias = estanteriaModelo.stream()) {
+                assertTrue(estanterias.anyMatch(estanteria -> estanteria.getIdEstanteria() == 1000));
+            }
+            assertEquals(0, estanteriaModelo.persistencia.getPool().getPrestadas());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion recorriendo las estanterias", ex);
+        }
+    }
+
+    @Test
+    public void huecosOcupadosTest() {
+        try {
+            ProductoEstanteriaModelo productoEstanteriaModelo = new ProductoEstanteriaModelo();
+            ProductoEstanteria productoEstanteria1 = new ProductoEstanteria(40, 1000, 10);
+            ProductoEstanteria productoEstanteria2 = new ProductoEstanteria(41, 1000, 10);
+            productoEstanteriaModelo.insertar(productoEstanteria1);
+            productoEstanteriaModelo.insertar(productoEstanteria2);
+            assertEquals(2, estanteriaModelo.buscar("1000").getNumHuecosOcupados());
+            int huecosEstanteria1 = estanteriaModelo.buscar("1").getNumHuecosOcupados();
+            productoEstanteriaModelo.persistencia.actualizar(
+                    "UPDATE producto_estanteria SET id_estanteria = 1 WHERE id_producto = 41 AND id_estanteria = 1000");
+            assertEquals(1, estanteriaModelo.buscar("1000").getNumHuecosOcupados());
+            assertEquals(huecosEstanteria1 + 1, estanteriaModelo.buscar("1").getNumHuecosOcupados());
+            productoEstanteriaModelo.eliminar(productoEstanteria1);
+            productoEstanteriaModelo.eliminar(new ProductoEstanteria(41, 1, 10));
+            assertEquals(0, estanteriaModelo.buscar("1000").getNumHuecosOcupados());
+            assertEquals(huecosEstanteria1, estanteriaModelo.buscar("1").getNumHuecosOcupados());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion comprobando los huecos ocupados", ex);
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+public class FabricaBbddTest {
+
+    @Test
+    public void crearSqliteTest() {
+        try {
+            assertTrue(FabricaBbdd.crear("zona", "id_zona") instanceof SqLiteBbdd);
+            assertTrue(FabricaBbdd.crear(" SQLite ", "zona", "id_zona") instanceof SqLiteBbdd);
+        } catch (Exception ex) {
+            fail("Se ha producido un error creando la bbdd", ex);
+        }
+    }
+
+    @Test
+    public void crearDesconocidaTest() {
+        try {
+            FabricaBbdd.crear("oracle", "zona", "id_zona");
+            fail("No se deberia poder crear una bbdd desconocida");
+        } catch (BbddException ex) {
+            assertTrue(ex.getMessage().contains("oracle"));
+        } catch (Exception ex) {
+            fail("Se ha producido un error inesperado", ex);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+public class GestorEsquemaTest {
+
+    static File bbddTemporal;
+    static File migraciones;
+    static SqLiteBbdd persistencia;
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            bbddTemporal = File.createTempFile("almacen-esquema", ".db");
+            bbddTemporal.delete();
+            migraciones = Files.createTempDirectory("almacen-migraciones").toFile();
+            persistencia = new SqLiteBbdd("zona", "id_zona", "org.sqlite.JDBC",
+                    "jdbc:sqlite:" + bbddTemporal.getAbsolutePath(), null, null);
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear la bbdd temporal", ex);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        persistencia.getPool().cerrar();
+        for (File fichero : migraciones.listFiles()) {
+            fichero.delete();
+        }
+        migraciones.delete();
+        new File(bbddTemporal.getPath() + "-wal").delete();
+        new File(bbddTemporal.getPath() + "-shm").delete();
+        bbddTemporal.delete();
+    }
+
+    @Test
+    public void esquemaBaseTest() {
+        try {
+            Integer version = persistencia.consultarUno("SELECT MAX(version) FROM " + GestorEsquema.TABLA_VERSION,
+                    resultSet -> resultSet.getInt(1));
+            assertTrue(version >= 1);
+            Integer zonas = persistencia.consultarUno("SELECT COUNT(*) FROM zona", resultSet -> resultSet.getInt(1));
+            assertTrue(zonas > 0);
+            Integer usuarios = persistencia.consultarUno("SELECT COUNT(*) FROM usuarios",
+                    resultSet -> resultSet.getInt(1));
+            assertEquals(1, usuarios);
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando el esquema base", ex);
+        }
+    }
+
+    @Test
+    public void migracionUnicaTest() {
+        try {
+            Files.write(new File(migraciones, "900.prueba.sql").toPath(),
+                    ("CREATE TABLE prueba (id INTEGER PRIMARY KEY, total INTEGER);\n"
+                            + "CREATE TRIGGER prueba_insert AFTER INSERT ON prueba BEGIN\n"
+                            + "  UPDATE prueba SET total = 1 WHERE id = NEW.id;\n" + "END;\n").getBytes());
+            GestorEsquema gestor = new GestorEsquema(persistencia, migraciones.getPath());
+            assertEquals(1, gestor.migrar());
+            assertEquals(0, gestor.migrar());
+            persistencia.actualizar("INSERT INTO prueba (id, total) VALUES (?, ?)", 1, 0);
+            Integer total = persistencia.consultarUno("SELECT total FROM prueba", resultSet -> resultSet.getInt(1));
+            assertEquals(1, total);
+        } catch (Exception ex) {
+            fail("Se ha producido un error aplicando la migracion", ex);
+        }
+    }
+
+    @Test
+    public void dividirSentenciasTest() {
+        List<String> sentencias = GestorEsquema.dividirSentencias("INSERT INTO zona VALUES ('A', 'a;b');\n"
+                + "CREATE TRIGGER t AFTER DELETE ON zona BEGIN DELETE FROM muelle; DELETE FROM estanteria; END;\n ;");
+        assertEquals(2, sentencias.size());
+        assertTrue(sentencias.get(1).endsWith("END"));
+    }
+
+    @Test
+    public void dividirSentenciasIdentificadoresComentariosTest() {
+        List<String> sentencias = GestorEsquema.dividirSentencias("-- no se parte; it's a comment\n"
+                + "CREATE TRIGGER t AFTER UPDATE ON operacion BEGIN UPDATE operacion SET fecha_end = 1,\n"
+                + "stock_case = 2, begin_ts = 3 /* ni aqui; ni con ' */ WHERE id = 1; END;\n"
+                + "INSERT INTO zona VALUES ('B', 'x'); -- fin\n");
+        assertEquals(2, sentencias.size());
+        assertTrue(sentencias.get(0).startsWith("CREATE TRIGGER"));
+        assertTrue(sentencias.get(0).endsWith("END"));
+        assertEquals("INSERT INTO zona VALUES ('B', 'x')", sentencias.get(1));
+    }
+
+    @Test
+    public void insertarElementosTest() {
+        try {
+            persistencia.ejecutar("CREATE TABLE IF NOT EXISTS carga (id INTEGER PRIMARY KEY, nombre TEXT)");
+            StringBuilder script = new StringBuilder();
+            for (int i = 1; i <= 2500; i++) {
+                script.append("INSERT INTO carga VALUES (" + i + ", 'fila " + i + "');\n");
+            }
+            assertEquals(2500, persistencia.insertarElementos(script.toString()));
+            try {
+                persistencia.insertarElementos("INSERT INTO carga VALUES (3000, 'nueva');\n"
+                        + "INSERT INTO carga VALUES (1, 'repetida');");
+                fail("No se deberia poder insertar una clave repetida");
+            } catch (BbddException ex) {
+                Integer filas = persistencia.consultarUno("SELECT COUNT(*) FROM carga",
+                        resultSet -> resultSet.getInt(1));
+                assertEquals(2500, filas);
+            }
+        } catch (Exception ex) {
+            fail("Se ha producido un error insertando los elementos", ex);
+        }
+    }
+}
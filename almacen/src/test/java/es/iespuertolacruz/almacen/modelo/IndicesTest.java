@@ -0,0 +1,112 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class IndicesTest {
+
+    static final String[] INDICES = { "idx_producto_estanteria_estanteria", "idx_lista_productos_producto",
+            "idx_operacion_cif_fecha_dia", "idx_operacion_muelle", "idx_operacion_fecha_dia", "idx_estanteria_zona",
+            "idx_muelle_zona" };
+    static final String[] CONSULTAS = {
+            "SELECT id_producto, cantidad FROM producto_estanteria WHERE id_estanteria = ?",
+            "SELECT id_lista_productos, cantidad FROM lista_productos WHERE id_producto = ?",
+            "SELECT id_lista_productos, id_producto, cantidad FROM lista_productos WHERE id_lista_productos = ?",
+            "SELECT id_lista_productos, id_producto, cantidad FROM lista_productos WHERE id_lista_productos IN (?, ?)"
+                    + " ORDER BY id_lista_productos",
+            "SELECT id_lista_productos FROM operacion WHERE cif = ?",
+            "SELECT id_lista_productos FROM operacion WHERE cif = ? AND fecha_dia BETWEEN ? AND ?",
+            "SELECT id_lista_productos FROM operacion WHERE id_muelle = ?",
+            "SELECT id_lista_productos FROM operacion WHERE fecha_dia BETWEEN ? AND ? ORDER BY fecha_dia",
+            "SELECT id_estanteria FROM estanteria WHERE id_zona = ?",
+            "SELECT id_muelle FROM muelle WHERE id_zona = ?" };
+
+    static List<ModeloBase<?, ?>> modelos;
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            modelos = new ArrayList<>(Arrays.asList(new ZonaModelo(), new ProductoModelo(), new EstanteriaModelo(),
+                    new MuelleModelo(), new EmpresaModelo(), new ClienteModelo(), new ProveedorModelo(),
+                    new ProductoEstanteriaModelo(), new OperacionModelo(), new UsuarioModelo()));
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear los modelos", ex);
+        }
+    }
+
+    @Test
+    public void indicesCreadosTest() {
+        try {
+            Bbdd persistencia = modelos.get(0).persistencia;
+            for (String indice : INDICES) {
+                Integer existe = persistencia.consultarUno(
+                        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = ?",
+                        resultSet -> resultSet.getInt(1), indice);
+                assertTrue(existe == 1, "No existe el indice " + indice);
+            }
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando los indices", ex);
+        }
+    }
+
+    @Test
+    public void consultasModelosTest() {
+        try {
+            for (ModeloBase<?, ?> modelo : modelos) {
+                for (String sql : modelo.sentenciasPorClave()) {
+                    comprobarPlan(modelo.persistencia, sql);
+                }
+            }
+        } catch (Exception ex) {
+            fail("Se ha producido un error obteniendo el plan de las consultas", ex);
+        }
+    }
+
+    @Test
+    public void consultasFiltradasTest() {
+        try {
+            for (String sql : CONSULTAS) {
+                comprobarPlan(modelos.get(0).persistencia, sql);
+            }
+        } catch (Exception ex) {
+            fail("Se ha producido un error obteniendo el plan de las consultas", ex);
+        }
+    }
+
+    /**
+     * Metodo que falla si el plan de una sentencia recorre una tabla entera. Antes
+     * se lee sqlite_master en la misma conexion para que el plan tenga en cuenta
+     * los indices creados por las migraciones despues de abrirla
+     *
+     * @param persistencia sobre la que se obtiene el plan
+     * @param sql          de la sentencia
+     * @throws Exception controlado
+     */
+    private void comprobarPlan(Bbdd persistencia, String sql) throws Exception {
+        Connection connection = persistencia.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM sqlite_master").close();
+            try (PreparedStatement plan = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+                    ResultSet resultSet = plan.executeQuery()) {
+                while (resultSet.next()) {
+                    String detalle = resultSet.getString(4);
+                    assertFalse(detalle.startsWith("SCAN"), sql + " -> " + detalle);
+                }
+            }
+        } finally {
+            persistencia.closeConnection(connection, null, null);
+        }
+    }
+}
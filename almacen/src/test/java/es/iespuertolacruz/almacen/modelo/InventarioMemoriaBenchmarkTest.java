@@ -0,0 +1,77 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+/**
+ * Comparacion de la lectura de stock desde el inventario en memoria y desde
+ * SQLite. Solo se ejecuta con -Dalmacen.benchmark=true y comprueba, tras un
+ * calentamiento, que la lectura en memoria es al menos el doble de rapida. Las
+ * mediciones precisas se hacen con InventarioMemoriaBenchmark en el perfil
+ * benchmark.
+ */
+public class InventarioMemoriaBenchmarkTest {
+
+    private static final String PROPIEDAD_BENCHMARK = "almacen.benchmark";
+    private static final int CALENTAMIENTO = 20000;
+    private static final int MEDICIONES = 200000;
+    private static final double MEJORA_MINIMA = 2;
+
+    static volatile long sumidero;
+
+    @Test
+    public void obtenerCantidadBenchmark() {
+        assumeTrue(Boolean.getBoolean(PROPIEDAD_BENCHMARK), "El benchmark no esta activado");
+        try {
+            ProductoEstanteriaModelo bbdd = new ProductoEstanteriaModelo();
+            System.setProperty(InventarioMemoria.PROPIEDAD_ACTIVO, "true");
+            ProductoEstanteriaModelo memoria;
+            try {
+                memoria = new ProductoEstanteriaModelo();
+            } finally {
+                System.clearProperty(InventarioMemoria.PROPIEDAD_ACTIVO);
+            }
+            List<ProductoEstanteria> lineas = bbdd.buscarTodos();
+            assumeTrue(!lineas.isEmpty(), "No hay stock con el que medir");
+            int[][] claves = new int[lineas.size()][];
+            for (int i = 0; i < claves.length; i++) {
+                claves[i] = new int[] { lineas.get(i).getIdProducto(), lineas.get(i).getIdEstanteria() };
+            }
+            assertEquals(medir(bbdd, claves, CALENTAMIENTO / 10), medir(memoria, claves, CALENTAMIENTO / 10));
+            double nanosBbdd = nanosPorLectura(bbdd, claves, MEDICIONES / 10);
+            double nanosMemoria = nanosPorLectura(memoria, claves, MEDICIONES);
+            assertTrue(nanosBbdd / nanosMemoria >= MEJORA_MINIMA,
+                    "sqlite " + nanosBbdd + " ns/lectura, memoria " + nanosMemoria + " ns/lectura");
+            InventarioMemoria.descartar(memoria.persistencia);
+        } catch (Exception ex) {
+            fail("Se ha producido un error en el benchmark", ex);
+        }
+    }
+
+    private static double nanosPorLectura(ProductoEstanteriaModelo modelo, int[][] claves, int lecturas)
+            throws BbddException {
+        medir(modelo, claves, CALENTAMIENTO);
+        long inicio = System.nanoTime();
+        sumidero = medir(modelo, claves, lecturas);
+        long nanos = System.nanoTime() - inicio;
+        return (double) nanos / lecturas;
+    }
+
+    private static long medir(ProductoEstanteriaModelo modelo, int[][] claves, int lecturas) throws BbddException {
+        long suma = 0;
+        for (int i = 0; i < lecturas; i++) {
+            int[] clave = claves[i % claves.length];
+            suma += modelo.obtenerCantidad(clave[0], clave[1]);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,156 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.api.ListaProductos;
+import es.iespuertolacruz.almacen.api.Operacion;
+import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+public class InventarioMemoriaTest {
+
+    static ProductoEstanteriaModelo productoEstanteriaModelo;
+    static MotorMovimientos motorMovimientos;
+    ProductoEstanteria productoEstanteria1 = new ProductoEstanteria(50, 1, 7);
+
+    @BeforeAll
+    public static void setUp() {
+        System.setProperty(InventarioMemoria.PROPIEDAD_ACTIVO, "true");
+        try {
+            productoEstanteriaModelo = new ProductoEstanteriaModelo();
+            motorMovimientos = new MotorMovimientos();
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear el modelo", ex);
+        } finally {
+            System.clearProperty(InventarioMemoria.PROPIEDAD_ACTIVO);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        InventarioMemoria.descartar(productoEstanteriaModelo.persistencia);
+    }
+
+    @Test
+    public void cargaTest() {
+        try {
+            assertNotNull(productoEstanteriaModelo.inventario);
+            for (ProductoEstanteria productoEstanteria : productoEstanteriaModelo.buscarTodos()) {
+                assertEquals(productoEstanteria.getCantidad(), productoEstanteriaModelo.obtenerCantidad(
+                        productoEstanteria.getIdProducto(), productoEstanteria.getIdEstanteria()));
+            }
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando la carga del inventario", ex);
+        }
+    }
+
+    @Test
+    public void sincronizarTest() {
+        try {
+            productoEstanteriaModelo.insertar(productoEstanteria1);
+            assertEquals(7, productoEstanteriaModelo.obtenerCantidad(50, 1));
+            productoEstanteriaModelo.modificar(new ProductoEstanteria(50, 1, 9));
+            assertEquals(9, productoEstanteriaModelo.buscar("50", "1").getCantidad());
+            assertEquals(9, cantidadBbdd(50, 1));
+            productoEstanteriaModelo.eliminar(productoEstanteria1);
+            assertEquals(InventarioMemoria.SIN_STOCK, productoEstanteriaModelo.obtenerCantidad(50, 1));
+            assertNull(productoEstanteriaModelo.buscar("50", "1"));
+        } catch (Exception ex) {
+            fail("Se ha producido un error sincronizando el inventario", ex);
+        }
+    }
+
+    @Test
+    public void deshacerTest() {
+        try {
+            Transaccion.ejecutar(productoEstanteriaModelo.persistencia, transaccion -> {
+                productoEstanteriaModelo.insertar(productoEstanteria1);
+                throw new BbddException("Error provocado");
+            });
+            fail("La transaccion deberia haber fallado");
+        } catch (BbddException ex) {
+            assertTrue(ex.getMessage().contains("Error provocado"));
+        }
+        try {
+            assertEquals(InventarioMemoria.SIN_STOCK, productoEstanteriaModelo.obtenerCantidad(50, 1));
+            assertEquals(InventarioMemoria.SIN_STOCK, cantidadBbdd(50, 1));
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando el inventario", ex);
+        }
+    }
+
+    @Test
+    public void deshacerModificacionTest() {
+        try {
+            productoEstanteriaModelo.insertar(productoEstanteria1);
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(50, 3);
+            ListaProductos lista = new ListaProductos(9999, mapa);
+            try {
+                Transaccion.ejecutar(productoEstanteriaModelo.persistencia, transaccion -> {
+                    productoEstanteriaModelo.modificar(new ProductoEstanteria(50, 1, 9));
+                    motorMovimientos.aplicar(
+                            new Operacion(9999, 4, "2020-10-10", MotorMovimientos.ENTRADA, "C44444444"), lista);
+                    assertEquals(12, cantidadBbdd(50, 1));
+                    assertEquals(7, productoEstanteriaModelo.obtenerCantidad(50, 1));
+                    throw new BbddException("Error provocado");
+                });
+                fail("La transaccion deberia haber fallado");
+            } catch (BbddException ex) {
+                assertTrue(ex.getMessage().contains("Error provocado"));
+            }
+            assertEquals(7, productoEstanteriaModelo.obtenerCantidad(50, 1));
+            assertEquals(7, cantidadBbdd(50, 1));
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando el inventario tras deshacer", ex);
+        } finally {
+            try {
+                productoEstanteriaModelo.eliminar(productoEstanteria1);
+            } catch (BbddException ex) {
+                fail("No se ha podido eliminar el producto estanteria", ex);
+            }
+        }
+    }
+
+    @Test
+    public void movimientoTest() {
+        try {
+            productoEstanteriaModelo.insertar(productoEstanteria1);
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(50, 3);
+            ListaProductos lista = new ListaProductos(9999, mapa);
+            motorMovimientos.aplicar(new Operacion(9999, 4, "2020-10-10", MotorMovimientos.ENTRADA, "C44444444"),
+                    lista);
+            assertEquals(10, productoEstanteriaModelo.obtenerCantidad(50, 1));
+            motorMovimientos.aplicar(new Operacion(9999, 4, "2020-10-10", MotorMovimientos.SALIDA, "C44444444"),
+                    lista);
+            assertEquals(7, productoEstanteriaModelo.obtenerCantidad(50, 1));
+            assertEquals(7, cantidadBbdd(50, 1));
+        } catch (Exception ex) {
+            fail("Se ha producido un error aplicando los movimientos", ex);
+        } finally {
+            try {
+                productoEstanteriaModelo.eliminar(productoEstanteria1);
+            } catch (BbddException ex) {
+                fail("No se ha podido eliminar el producto estanteria", ex);
+            }
+        }
+    }
+
+    private int cantidadBbdd(int idProducto, int idEstanteria) throws BbddException {
+        Integer cantidad = productoEstanteriaModelo.persistencia.consultarUno(
+                "SELECT cantidad FROM producto_estanteria WHERE id_producto = ? AND id_estanteria = ?",
+                resultSet -> resultSet.getInt(1), idProducto, idEstanteria);
+        return cantidad == null ? InventarioMemoria.SIN_STOCK : cantidad;
+    }
+}
@@ -1,9 +1,17 @@
 package es.iespuertolacruz.almacen.modelo;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -24,6 +32,7 @@ public class ListaProductosModeloTest {
             listaProductos1.setIdListaProducto(100);
             HashMap<Integer, Integer> mapa = new HashMap<>();
             mapa.put(1, 500);
+            mapa.put(2, 20);
             listaProductos1.setLista(mapa);
         } catch (Exception ex) {
             fail("Se ha producido un error al crear el modelo", ex);
@@ -56,4 +65,83 @@ public class ListaProductosModeloTest {
             fail("Se producido una excepcion buscando todas las listas de productos");
         }
     }
+
+    @Test
+    public void buscarTodosAgrupadoTest() {
+        try {
+            ArrayList<ListaProductos> listas = listaProductosModelo.buscarTodos();
+            HashSet<Integer> ids = new HashSet<>();
+            for (ListaProductos listaProductos : listas) {
+                assertTrue(ids.add(listaProductos.getIdListaProductos()));
+            }
+            ListaProductos encontrada = listas.stream().filter(lista -> lista.getIdListaProductos() == 100)
+                    .findFirst().orElse(null);
+            assertEquals(listaProductos1.getLista(), encontrada.getLista());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion agrupando las listas de productos", ex);
+        }
+    }
+
+    @Test
+    public void streamTest() {
+        try (Stream<ListaProductos> listas = listaProductosModelo.stream()) {
+            ArrayList<ListaProductos> todas = listaProductosModelo.buscarTodos();
+            Iterator<ListaProductos> iterador = listas.iterator();
+            for (ListaProductos esperada : todas) {
+                ListaProductos leida = iterador.next();
+                assertEquals(esperada.getIdListaProductos(), leida.getIdListaProductos());
+                assertEquals(esperada.getLista(), leida.getLista());
+            }
+            assertFalse(iterador.hasNext());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion recorriendo las listas de productos", ex);
+        }
+    }
+
+    @Test
+    public void buscarVariosTest() {
+        try {
+            ArrayList<ListaProductos> listas = listaProductosModelo.buscarVarios(Arrays.asList(100, -1, 100));
+            assertEquals(1, listas.size());
+            assertEquals(listaProductos1.getLista(), listas.get(0).getLista());
+            assertTrue(listaProductosModelo.buscarVarios(new ArrayList<>()).isEmpty());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion buscando varias listas de productos", ex);
+        }
+    }
+
+    @Test
+    public void buscarPaginaTest() {
+        try {
+            int total = listaProductosModelo.buscarTodos().size();
+            int paginados = 0;
+            int ultimoId = 0;
+            boolean encontrada = false;
+            Pagina<ListaProductos> pagina = null;
+            do {
+                pagina = listaProductosModelo.buscarPagina(pagina == null ? null : pagina.getCursor(), 3);
+                assertTrue(pagina.getElementos().size() <= 3);
+                for (ListaProductos listaProductos : pagina.getElementos()) {
+                    assertTrue(listaProductos.getIdListaProductos() > ultimoId);
+                    ultimoId = listaProductos.getIdListaProductos();
+                    encontrada |= ultimoId == 100 && listaProductos1.getLista().equals(listaProductos.getLista());
+                    paginados++;
+                }
+            } while (pagina.haySiguiente());
+            assertEquals(total, paginados);
+            assertTrue(encontrada);
+        } catch (Exception ex) {
+            fail("Se producido una excepcion paginando las listas de productos", ex);
+        }
+    }
+
+    @Test
+    public void parametrosInTest() {
+        assertArrayEquals(new Object[] { 7 }, Bbdd.parametrosIn(Arrays.asList(7), 500));
+        assertArrayEquals(new Object[] { 1, 2, 3, 3 }, Bbdd.parametrosIn(Arrays.asList(1, 2, 3), 500));
+        assertArrayEquals(new Object[] { 1, 2, 3, 4 }, Bbdd.parametrosIn(Arrays.asList(1, 2, 3, 4), 500));
+        assertEquals(8, Bbdd.parametrosIn(Arrays.asList(1, 2, 3, 4, 5), 500).length);
+        assertEquals(6, Bbdd.parametrosIn(Arrays.asList(1, 2, 3, 4, 5), 6).length);
+        assertEquals("?, ?, ?", Bbdd.marcadores(3));
+    }
 }
@@ -0,0 +1,87 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class MapaLongIntTest {
+
+    @Test
+    public void ponerObtenerEliminarTest() {
+        MapaLongInt mapa = new MapaLongInt();
+        long clave = MapaLongInt.clave(20, 1);
+        assertEquals(-1, mapa.obtener(clave, -1));
+        mapa.poner(clave, 100);
+        assertTrue(mapa.contiene(clave));
+        assertEquals(100, mapa.obtener(clave, -1));
+        assertEquals(105, mapa.sumar(clave, 5));
+        assertEquals(1, mapa.tamanio());
+        assertTrue(mapa.eliminar(clave));
+        assertFalse(mapa.eliminar(clave));
+        assertEquals(-1, mapa.obtener(clave, -1));
+        assertEquals(0, mapa.tamanio());
+    }
+
+    @Test
+    public void claveCeroTest() {
+        MapaLongInt mapa = new MapaLongInt();
+        assertEquals(0L, MapaLongInt.clave(0, 0));
+        mapa.poner(0L, 7);
+        assertEquals(7, mapa.obtener(0L, -1));
+        assertEquals(1, mapa.tamanio());
+        assertTrue(mapa.eliminar(0L));
+        assertEquals(-1, mapa.obtener(0L, -1));
+        assertEquals(0, mapa.tamanio());
+    }
+
+    @Test
+    public void claveNegativaTest() {
+        MapaLongInt mapa = new MapaLongInt();
+        mapa.poner(MapaLongInt.clave(1, -1), 1);
+        mapa.poner(MapaLongInt.clave(-1, 1), 2);
+        assertEquals(1, mapa.obtener(MapaLongInt.clave(1, -1), -1));
+        assertEquals(2, mapa.obtener(MapaLongInt.clave(-1, 1), -1));
+    }
+
+    @Test
+    public void redimensionarTest() {
+        MapaLongInt mapa = new MapaLongInt();
+        for (int i = 1; i <= 10000; i++) {
+            mapa.poner(MapaLongInt.clave(i, i % 7), i);
+        }
+        assertEquals(10000, mapa.tamanio());
+        for (int i = 1; i <= 10000; i++) {
+            assertEquals(i, mapa.obtener(MapaLongInt.clave(i, i % 7), -1));
+        }
+        mapa.vaciar();
+        assertEquals(0, mapa.tamanio());
+        assertEquals(-1, mapa.obtener(MapaLongInt.clave(1, 1), -1));
+    }
+
+    @Test
+    public void compararConHashMapTest() {
+        MapaLongInt mapa = new MapaLongInt();
+        Map<Long, Integer> esperado = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            long clave = MapaLongInt.clave(random.nextInt(64), random.nextInt(64));
+            int operacion = random.nextInt(3);
+            if (operacion == 0) {
+                mapa.poner(clave, i);
+                esperado.put(clave, i);
+            } else if (operacion == 1) {
+                assertEquals(esperado.remove(clave) != null, mapa.eliminar(clave));
+            } else {
+                assertEquals(esperado.getOrDefault(clave, -1).intValue(), mapa.obtener(clave, -1));
+            }
+        }
+        assertEquals(esperado.size(), mapa.tamanio());
+        esperado.forEach((clave, valor) -> assertEquals(valor.intValue(), mapa.obtener(clave, -1)));
+    }
+}
@@ -0,0 +1,108 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.api.ListaProductos;
+import es.iespuertolacruz.almacen.api.Operacion;
+import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+public class MotorMovimientosTest {
+
+    static MotorMovimientos motorMovimientos;
+    static ProductoEstanteriaModelo productoEstanteriaModelo;
+    ProductoEstanteria estanteria1 = new ProductoEstanteria(30, 1, 10);
+    ProductoEstanteria estanteria2 = new ProductoEstanteria(30, 2, 5);
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            motorMovimientos = new MotorMovimientos();
+            productoEstanteriaModelo = new ProductoEstanteriaModelo();
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear el motor", ex);
+        }
+    }
+
+    @BeforeEach
+    public void insertarTest() {
+        try {
+            productoEstanteriaModelo.insertar(estanteria1);
+            productoEstanteriaModelo.insertar(estanteria2);
+        } catch (Exception ex) {
+            fail("No se han podido insertar las estanterias del producto", ex);
+        }
+    }
+
+    @AfterEach
+    public void eliminarTest() {
+        try {
+            productoEstanteriaModelo.eliminar(estanteria1);
+            productoEstanteriaModelo.eliminar(estanteria2);
+        } catch (Exception ex) {
+            fail("No se han podido eliminar las estanterias del producto", ex);
+        }
+    }
+
+    @Test
+    public void entradaSalidaTest() {
+        try {
+            motorMovimientos.aplicar(operacion("Entrada"), lista(30, 4));
+            assertEquals(14, cantidad(1));
+            assertEquals(5, cantidad(2));
+            motorMovimientos.aplicar(operacion("Salida"), lista(30, 16));
+            assertEquals(0, cantidad(1));
+            assertEquals(3, cantidad(2));
+        } catch (Exception ex) {
+            fail("Se ha producido un error aplicando los movimientos", ex);
+        }
+    }
+
+    @Test
+    public void stockInsuficienteTest() {
+        try {
+            motorMovimientos.aplicar(operacion("Salida"), lista(30, 16));
+            fail("No se deberia poder retirar mas stock del que hay");
+        } catch (BbddException ex) {
+            assertTrue(ex.getMessage().contains("No hay stock suficiente del producto 30"));
+        }
+        try {
+            HashMap<Integer, Integer> mapa = new HashMap<>();
+            mapa.put(30, 15);
+            mapa.put(-1, 1);
+            motorMovimientos.aplicar(operacion("Salida"), new ListaProductos(9999, mapa));
+            fail("No se deberia poder mover un producto sin estanteria");
+        } catch (BbddException ex) {
+            assertTrue(ex.getMessage().contains("no esta en ninguna estanteria"));
+        }
+        try {
+            assertEquals(10, cantidad(1));
+            assertEquals(5, cantidad(2));
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando el stock", ex);
+        }
+    }
+
+    private Operacion operacion(String tipo) {
+        return new Operacion(9999, 4, "2020-10-10", tipo, "C44444444");
+    }
+
+    private ListaProductos lista(int producto, int cantidad) {
+        HashMap<Integer, Integer> mapa = new HashMap<>();
+        mapa.put(producto, cantidad);
+        return new ListaProductos(9999, mapa);
+    }
+
+    private int cantidad(int estanteria) throws BbddException {
+        return productoEstanteriaModelo.buscar("30", String.valueOf(estanteria)).getCantidad();
+    }
+}
@@ -0,0 +1,45 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class MySqlBbddTest {
+
+    @Test
+    public void configurarUrlTest() {
+        String url = MySqlBbdd.configurarUrl("jdbc:mysql://localhost:3306/almacen");
+        assertEquals("jdbc:mysql://localhost:3306/almacen?useServerPrepStmts=true&cachePrepStmts=true"
+                + "&rewriteBatchedStatements=true&useCursorFetch=true", url);
+        url = MySqlBbdd.configurarUrl("jdbc:mysql://localhost/almacen?useSSL=false&cachePrepStmts=false");
+        assertEquals("jdbc:mysql://localhost/almacen?useSSL=false&cachePrepStmts=false"
+                + "&useServerPrepStmts=true&rewriteBatchedStatements=true&useCursorFetch=true", url);
+    }
+
+    /**
+     * Solo se ejecuta si se indica una instancia de MySQL con la propiedad
+     * almacen.mysql.url, por ejemplo -Dalmacen.mysql.url=jdbc:mysql://localhost/almacen_test
+     */
+    @Test
+    public void escrituraLecturaTest() {
+        assumeTrue(System.getProperty(MySqlBbdd.PROPIEDAD_URL) != null, "No hay una instancia de MySQL configurada");
+        try {
+            MySqlBbdd persistencia = new MySqlBbdd("zona", "id_zona");
+            assertNull(persistencia.getCarril());
+            persistencia.actualizar("DELETE FROM zona WHERE id_zona IN (?, ?)", "X", "Y");
+            persistencia.actualizarLote("INSERT INTO zona (id_zona, tipo) VALUES (?, ?)",
+                    Arrays.asList(new Object[] { "X", "Normal" }, new Object[] { "Y", "Frio" }));
+            Integer zonas = persistencia.consultarUno("SELECT COUNT(*) FROM zona WHERE id_zona IN (?, ?)",
+                    resultSet -> resultSet.getInt(1), "X", "Y");
+            assertEquals(2, zonas);
+            assertEquals(2, persistencia.actualizar("DELETE FROM zona WHERE id_zona IN (?, ?)", "X", "Y"));
+        } catch (Exception ex) {
+            fail("Se ha producido un error trabajando con MySQL", ex);
+        }
+    }
+}
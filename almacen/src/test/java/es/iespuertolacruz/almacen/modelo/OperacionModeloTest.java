@@ -1,8 +1,18 @@
 package es.iespuertolacruz.almacen.modelo;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,4 +60,68 @@ public class OperacionModeloTest {
             fail("Se producido una excepcion buscando todos las operaciones");
         }
     }
+
+    @Test
+    public void buscarEntreTest() {
+        Operacion operacion2 = new Operacion(9998, 4, "12/10/2020", "Entrada", "C44444444");
+        Operacion operacion3 = new Operacion(9997, 4, "2020-10-11", "Entrada", "B22222222");
+        try {
+            operacionModelo.insertar(operacion2);
+            operacionModelo.insertar(operacion3);
+            List<Operacion> operaciones = operacionModelo.buscarEntre(LocalDate.of(2020, 10, 10),
+                    LocalDate.of(2020, 10, 12));
+            assertEquals(3, operaciones.size());
+            assertEquals(LocalDate.of(2020, 10, 10), operaciones.get(0).getFechaLocal());
+            assertEquals(9997, operaciones.get(1).getIdListaProductos());
+            assertEquals("2020-10-12", operaciones.get(2).getFecha());
+            operaciones = operacionModelo.buscarPorEmpresaYRango("C44444444", LocalDate.of(2020, 10, 11),
+                    LocalDate.of(2020, 12, 31));
+            assertEquals(1, operaciones.size());
+            assertEquals(9998, operaciones.get(0).getIdListaProductos());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion buscando operaciones por fecha", ex);
+        } finally {
+            try {
+                operacionModelo.eliminar(operacion2);
+                operacionModelo.eliminar(operacion3);
+            } catch (Exception ex) {
+                fail("No se han podido eliminar las operaciones", ex);
+            }
+        }
+    }
+
+    @Test
+    public void fechaNoValidaTest() {
+        List<LogRecord> avisos = new ArrayList<>();
+        Handler manejador = new Handler() {
+            @Override
+            public void publish(LogRecord registro) {
+                avisos.add(registro);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(OperacionModelo.class.getName());
+        logger.addHandler(manejador);
+        try {
+            operacionModelo.persistencia.actualizar("INSERT INTO operacion (id_lista_productos, id_muelle, fecha, "
+                    + "tipo_operacion, cif) VALUES (?, ?, ?, ?, ?)", 9996, 4, "ayer", "Entrada", "C44444444");
+            Operacion operacion = operacionModelo.buscar("9996");
+            assertNull(operacion.getFechaLocal());
+            assertEquals(1, avisos.size());
+            assertEquals(Level.WARNING, avisos.get(0).getLevel());
+            assertTrue(avisos.get(0).getMessage().contains("9996"));
+            operacionModelo.eliminar(operacion);
+        } catch (Exception ex) {
+            fail("Se ha producido un error leyendo una fecha no valida", ex);
+        } finally {
+            logger.removeHandler(manejador);
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class PerfilSqliteTest {
+
+    @Test
+    public void aplicarRendimientoTest() {
+        File fichero = null;
+        try {
+            fichero = File.createTempFile("almacen-perfil", ".db");
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + fichero.getAbsolutePath())) {
+                PerfilSqlite perfil = PerfilSqlite.rendimiento();
+                perfil.aplicar(connection);
+                Map<String, String> efectivos = perfil.leerEfectivos(connection);
+                assertEquals("wal", efectivos.get("journal_mode"));
+                assertEquals("1", efectivos.get("synchronous"));
+                assertEquals("-64000", efectivos.get("cache_size"));
+                assertEquals("2", efectivos.get("temp_store"));
+                assertEquals("5000", efectivos.get("busy_timeout"));
+            }
+        } catch (Exception ex) {
+            fail("Se ha producido un error aplicando el perfil", ex);
+        } finally {
+            if (fichero != null) {
+                new File(fichero.getPath() + "-wal").delete();
+                new File(fichero.getPath() + "-shm").delete();
+                fichero.delete();
+            }
+        }
+    }
+
+    @Test
+    public void perfilNoValidoTest() {
+        try {
+            new PerfilSqlite("prueba", "WAL; DROP TABLE zona", "FULL", 0, 0, "DEFAULT", 0);
+            fail("No se deberia aceptar un modo no valido");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("journal_mode"));
+        }
+    }
+
+    @Test
+    public void perfilPorDefectoTest() {
+        assertEquals(PerfilSqlite.DURABLE, PerfilSqlite.desdePropiedades().getNombre());
+        assertEquals("FULL", PerfilSqlite.desdePropiedades().getSynchronous());
+    }
+}
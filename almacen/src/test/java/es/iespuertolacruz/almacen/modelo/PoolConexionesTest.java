@@ -0,0 +1,126 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PoolConexionesTest {
+
+    PoolConexiones pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new PoolConexiones(() -> DriverManager.getConnection("jdbc:sqlite::memory:"),
+                new ConfiguracionPool(0, 2, 200, 10, 1, 4));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.cerrar();
+    }
+
+    @Test
+    public void reutilizarConexionTest() {
+        try {
+            Connection primera = pool.obtener();
+            primera.close();
+            Connection segunda = pool.obtener();
+            segunda.close();
+            assertEquals(1, pool.getAbiertas());
+            assertEquals(0, pool.getPrestadas());
+            assertEquals(2, pool.getPrestamosTotales());
+            assertTrue(primera.isClosed());
+        } catch (Exception ex) {
+            fail("Se ha producido un error reutilizando la conexion", ex);
+        }
+    }
+
+    @Test
+    public void maximoConexionesTest() {
+        try {
+            Connection primera = pool.obtener();
+            Connection segunda = pool.obtener();
+            try {
+                pool.obtener();
+                fail("No se deberia poder superar el maximo de conexiones");
+            } catch (Exception ex) {
+                assertTrue(ex.getMessage().contains("tiempo de espera"));
+            }
+            assertEquals(1, pool.getEsperasTotales());
+            primera.close();
+            segunda.close();
+        } catch (Exception ex) {
+            fail("Se ha producido un error obteniendo las conexiones", ex);
+        }
+    }
+
+    @Test
+    public void desalojarInactivasTest() {
+        try {
+            pool.obtener().close();
+            Thread.sleep(20);
+            pool.desalojarInactivas();
+            assertEquals(0, pool.getAbiertas());
+        } catch (Exception ex) {
+            fail("Se ha producido un error desalojando las conexiones", ex);
+        }
+    }
+
+    @Test
+    public void desalojarSentenciasTest() {
+        try {
+            Connection conexion = pool.obtener();
+            PreparedStatement primera = PoolConexiones.preparar(conexion, "SELECT 0");
+            for (int i = 1; i <= 4; i++) {
+                PoolConexiones.preparar(conexion, "SELECT " + i);
+            }
+            assertTrue(primera.isClosed());
+            assertEquals(1, pool.getEstadisticasSentencias().getDesalojos());
+            assertEquals(5, pool.getEstadisticasSentencias().getFallos());
+            conexion.close();
+        } catch (Exception ex) {
+            fail("Se ha producido un error desalojando las sentencias", ex);
+        }
+    }
+
+    @Test
+    public void prestamoCerradoInutilizadoTest() {
+        try {
+            Connection primera = pool.obtener();
+            primera.close();
+            Connection segunda = pool.obtener();
+            assertEquals(1, pool.getAbiertas());
+            assertTrue(primera.isClosed());
+            assertFalse(segunda.isClosed());
+            try {
+                primera.createStatement();
+                fail("No se deberia poder usar una conexion devuelta");
+            } catch (Exception ex) {
+                assertTrue(ex.getMessage().contains("devuelta al pool"));
+            }
+            try {
+                PoolConexiones.preparar(primera, "SELECT 1");
+                fail("No se deberia poder preparar sobre una conexion devuelta");
+            } catch (Exception ex) {
+                assertTrue(ex.getMessage().contains("devuelta al pool"));
+            }
+            primera.close();
+            assertEquals(1, pool.getPrestadas());
+            assertFalse(segunda.isClosed());
+            PoolConexiones.preparar(segunda, "SELECT 1").executeQuery().close();
+            segunda.close();
+            assertEquals(0, pool.getPrestadas());
+        } catch (Exception ex) {
+            fail("Se ha producido un error reutilizando la conexion", ex);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package es.iespuertolacruz.almacen.modelo;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import es.iespuertolacruz.almacen.api.ProductoEstanteria;
+import es.iespuertolacruz.almacen.api.ResumenInventario;
 
 public class ProductoEstanteriaModeloTest {
 
@@ -50,4 +55,65 @@ public class ProductoEstanteriaModeloTest {
             fail("Se producido una excepcion buscando todos los producto estanteria");
         }
     }
+
+    @Test
+    public void buscarPaginaTest() {
+        try {
+            List<ProductoEstanteria> todos = productoEstanteriaModelo.buscarTodos();
+            List<ProductoEstanteria> paginados = new ArrayList<>();
+            Pagina<ProductoEstanteria> pagina = productoEstanteriaModelo.buscarPagina(1);
+            paginados.addAll(pagina.getElementos());
+            while (pagina.haySiguiente()) {
+                assertEquals(1, pagina.getElementos().size());
+                pagina = productoEstanteriaModelo.buscarPagina(pagina.getCursor(), 1);
+                paginados.addAll(pagina.getElementos());
+            }
+            assertEquals(todos.size(), paginados.size());
+            for (int i = 1; i < paginados.size(); i++) {
+                ProductoEstanteria anterior = paginados.get(i - 1);
+                ProductoEstanteria actual = paginados.get(i);
+                assertTrue(anterior.getIdProducto() < actual.getIdProducto()
+                        || (anterior.getIdProducto() == actual.getIdProducto()
+                                && anterior.getIdEstanteria() < actual.getIdEstanteria()));
+            }
+        } catch (Exception ex) {
+            fail("Se producido una excepcion paginando los producto estanteria", ex);
+        }
+    }
+
+    @Test
+    public void resumenTest() {
+        try {
+            Bbdd persistencia = productoEstanteriaModelo.persistencia;
+            ResumenInventario resumen = productoEstanteriaModelo.obtenerResumen();
+            int huecosOcupados = persistencia.consultarUno("SELECT COUNT(*) FROM producto_estanteria",
+                    resultSet -> resultSet.getInt(1));
+            int huecosTotales = persistencia.consultarUno("SELECT SUM(num_alturas) FROM estanteria",
+                    resultSet -> resultSet.getInt(1));
+            assertEquals(huecosOcupados, resumen.getHuecosOcupados());
+            assertEquals(huecosTotales, resumen.getHuecosTotales());
+            long valorCentimos = persistencia.consultarUno("SELECT SUM(pe.cantidad * p.precio_centimos) "
+                    + "FROM producto p JOIN producto_estanteria pe ON pe.id_producto = p.id_producto",
+                    resultSet -> resultSet.getLong(1));
+            assertEquals(valorCentimos, resumen.getValor().getCentimos());
+            String zona = persistencia.consultarUno("SELECT id_zona FROM estanteria WHERE id_estanteria = 1",
+                    resultSet -> resultSet.getString(1));
+            ResumenInventario resumenZona = productoEstanteriaModelo.obtenerResumen(zona);
+            int huecosZona = persistencia.consultarUno("SELECT COUNT(*) FROM producto_estanteria pe "
+                    + "JOIN estanteria e ON e.id_estanteria = pe.id_estanteria WHERE e.id_zona = ?",
+                    resultSet -> resultSet.getInt(1), zona);
+            assertEquals(huecosZona, resumenZona.getHuecosOcupados());
+            long precio = persistencia.consultarUno("SELECT precio_centimos FROM producto WHERE id_producto = 20",
+                    resultSet -> resultSet.getLong(1));
+            productoEstanteriaModelo.modificar(new ProductoEstanteria(20, 1, 150));
+            ResumenInventario modificado = productoEstanteriaModelo.obtenerResumen(zona);
+            assertEquals(resumenZona.getValor().getCentimos() + 50 * precio, modificado.getValor().getCentimos());
+            assertEquals(resumenZona.getHuecosOcupados(), modificado.getHuecosOcupados());
+            productoEstanteriaModelo.eliminar(productoEstanteria1);
+            assertEquals(resumen.getHuecosOcupados() - 1, productoEstanteriaModelo.obtenerHuecosOcupados());
+            productoEstanteriaModelo.insertar(productoEstanteria1);
+        } catch (Exception ex) {
+            fail("Se producido una excepcion comprobando el resumen del inventario", ex);
+        }
+    }
 }
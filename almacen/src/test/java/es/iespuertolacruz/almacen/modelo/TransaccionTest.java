@@ -0,0 +1,106 @@
+package es.iespuertolacruz.almacen.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import es.iespuertolacruz.almacen.api.Zona;
+import es.iespuertolacruz.almacen.exception.BbddException;
+
+public class TransaccionTest {
+
+    static ZonaModelo zonaModelo;
+    Zona zona1 = new Zona('X', "Normal");
+    Zona zona2 = new Zona('Y', "Frio");
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            zonaModelo = new ZonaModelo();
+        } catch (Exception ex) {
+            fail("Se ha producido un error al crear el modelo", ex);
+        }
+    }
+
+    @AfterEach
+    public void eliminarTest() {
+        try {
+            zonaModelo.eliminar(zona1);
+            zonaModelo.eliminar(zona2);
+            assertEquals(0, zonaModelo.persistencia.getPool().getPrestadas());
+        } catch (Exception ex) {
+            fail("No se han podido eliminar las zonas", ex);
+        }
+    }
+
+    @Test
+    public void confirmarTest() {
+        try {
+            AtomicInteger confirmadas = new AtomicInteger();
+            Transaccion.ejecutar(transaccion -> {
+                zonaModelo.insertar(zona1);
+                zonaModelo.insertar(zona2);
+                transaccion.trasConfirmar(confirmadas::incrementAndGet);
+                assertEquals(0, zonaModelo.persistencia.getPool().getPrestadas());
+                return null;
+            });
+            assertNotNull(zonaModelo.buscar("X"));
+            assertNotNull(zonaModelo.buscar("Y"));
+            assertEquals(1, confirmadas.get());
+        } catch (Exception ex) {
+            fail("Se ha producido un error confirmando la transaccion", ex);
+        }
+    }
+
+    @Test
+    public void deshacerTest() {
+        AtomicInteger confirmadas = new AtomicInteger();
+        try {
+            Transaccion.ejecutar(transaccion -> {
+                zonaModelo.insertar(zona1);
+                transaccion.trasConfirmar(confirmadas::incrementAndGet);
+                zonaModelo.insertar(zona1);
+                return null;
+            });
+            fail("No se deberia poder insertar una zona repetida");
+        } catch (BbddException ex) {
+            assertTrue(ex.getMessage().contains("error"));
+        }
+        try {
+            assertNull(zonaModelo.buscar("X"));
+            assertEquals(0, confirmadas.get());
+        } catch (Exception ex) {
+            fail("Se ha producido un error comprobando la transaccion", ex);
+        }
+    }
+
+    @Test
+    public void puntoGuardadoTest() {
+        try {
+            Transaccion.ejecutar(transaccion -> {
+                zonaModelo.insertar(zona1);
+                try {
+                    Transaccion.ejecutar(anidada -> {
+                        zonaModelo.insertar(zona2);
+                        throw new BbddException("Fallo en la transaccion anidada");
+                    });
+                } catch (BbddException ex) {
+                    assertTrue(ex.getMessage().contains("anidada"));
+                }
+                return null;
+            });
+            assertNotNull(zonaModelo.buscar("X"));
+            assertNull(zonaModelo.buscar("Y"));
+        } catch (Exception ex) {
+            fail("Se ha producido un error con el punto de guardado", ex);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package es.iespuertolacruz.almacen.modelo;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -50,4 +51,34 @@ public class ZonaModeloTest {
             fail("Se producido una excepcion buscando todos las zonas");
         }
     }
+
+    @Test
+    public void buscarSinFugasTest() {
+        try {
+            PoolConexiones pool = zonaModelo.persistencia.getPool();
+            long prestamos = pool.getPrestamosTotales();
+            assertEquals(zona1.getIdZona(), zonaModelo.buscar(String.valueOf(zona1.getIdZona())).getIdZona());
+            zonaModelo.buscarTodos();
+            assertEquals(prestamos + 2, pool.getPrestamosTotales());
+            assertEquals(0, pool.getPrestadas());
+        } catch (Exception ex) {
+            fail("Se producido una excepcion buscando las zonas", ex);
+        }
+    }
+
+    @Test
+    public void reutilizarSentenciasTest() {
+        try {
+            EstadisticasSentencias estadisticas = zonaModelo.persistencia.getPool().getEstadisticasSentencias();
+            zonaModelo.buscar(String.valueOf(zona1.getIdZona()));
+            long aciertos = estadisticas.getAciertos();
+            long fallos = estadisticas.getFallos();
+            zonaModelo.buscar(String.valueOf(zona1.getIdZona()));
+            assertEquals(aciertos + 1, estadisticas.getAciertos());
+            assertEquals(fallos, estadisticas.getFallos());
+            assertTrue(estadisticas.getTasaAciertos() > 0);
+        } catch (Exception ex) {
+            fail("Se producido una excepcion reutilizando las sentencias", ex);
+        }
+    }
 }
@@ -202,45 +202,49 @@ CALL pa_insert_estanterias(10, 'C');
 CALL pa_insert_estanterias(10, 'D');
 CALL pa_insert_estanterias(10, 'F');
 
--- Trigger de los huecos de la estanteria
+-- Triggers de los huecos de la estanteria
+-- Cada fila de producto_estanteria ocupa un hueco: se suma o se resta uno sin
+-- volver a contar la estanteria
 DROP TRIGGER IF EXISTS after_producto_estanteria_insert;
+DROP TRIGGER IF EXISTS huecos_producto_estanteria_insert;
 DELIMITER //
-CREATE TRIGGER after_producto_estanteria_insert
+CREATE TRIGGER huecos_producto_estanteria_insert
     AFTER INSERT ON producto_estanteria FOR EACH ROW
 BEGIN
-    UPDATE estanteria SET num_huecos_ocupados = (SELECT COUNT(*) FROM producto_estanteria 
-    WHERE estanteria.id_estanteria = producto_estanteria.id_estanteria) 
-    WHERE new.id_estanteria = estanteria.id_estanteria;
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados + 1
+    WHERE id_estanteria = new.id_estanteria;
 END //
 DELIMITER ;
 
--- Trigger de la cantidad de productos
-/* 
-TODO: Documentar
-*/
-DROP TRIGGER IF EXISTS after_operacion_cantidad;
+DROP TRIGGER IF EXISTS huecos_producto_estanteria_delete;
+DELIMITER //
+CREATE TRIGGER huecos_producto_estanteria_delete
+    AFTER DELETE ON producto_estanteria FOR EACH ROW
+BEGIN
+    UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados - 1
+    WHERE id_estanteria = old.id_estanteria;
+END //
+DELIMITER ;
+
+DROP TRIGGER IF EXISTS huecos_producto_estanteria_update;
 DELIMITER //
-CREATE TRIGGER after_operacion_cantidad
-    AFTER INSERT ON operacion FOR EACH ROW
+CREATE TRIGGER huecos_producto_estanteria_update
+    AFTER UPDATE ON producto_estanteria FOR EACH ROW
 BEGIN
-    IF (new.tipo_operacion = 'Entrada') THEN
-        SET @operador = 1;
-    ELSE
-        SET @operador = -1;
+    IF NOT (old.id_estanteria <=> new.id_estanteria) THEN
+        UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados - 1
+        WHERE id_estanteria = old.id_estanteria;
+        UPDATE estanteria SET num_huecos_ocupados = num_huecos_ocupados + 1
+        WHERE id_estanteria = new.id_estanteria;
     END IF;
-    SET @fila = 1;
-    SET @rowCount = (SELECT COUNT(*) FROM producto);
-    WHILE (@fila <= @rowCount) DO
-        IF ((SELECT id_producto FROM lista_productos NATURAL JOIN operacion WHERE id_producto = @fila) = @fila) THEN
-            UPDATE producto_estanteria SET cantidad = cantidad + (@operador * (SELECT cantidad FROM lista_productos 
-            WHERE new.id_lista_productos = lista_productos.id_lista_productos AND id_producto = @fila)) 
-            WHERE id_producto = @fila;
-        END IF;
-        SET @fila = @fila + 1;
-    END WHILE;
 END //
 DELIMITER ;
 
+-- Cantidad de productos
+-- El movimiento de stock de cada operacion lo aplica MotorMovimientos al
+-- registrarla, con un unico lote de UPDATE sobre las lineas de su lista
+DROP TRIGGER IF EXISTS after_operacion_cantidad;
+
 -- Producto estanteria
 /*
 TODO: INSERCIONES